@@ -9,20 +9,74 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.OptionalInt;
 
 /**
  * Main class for command line interface to MOSDL compiler.
+ * <p>
+ * Instances do not share any state, so that several compilations can be run concurrently in the
+ * same JVM, each with its own {@link SystemExiter}.
+ * <p>
+ * If the first argument is {@code daemon}, a {@link MosdlDaemon} is run instead. Compilations with
+ * option {@code --daemon} are then run by the daemon, which avoids initializing the compiler for
+ * every compilation.
  */
 public class CliMain {
 
 	private static final Logger logger = LoggerFactory.getLogger(CliMain.class);
 	private static final String APP_VERSION = CliMain.class.getPackage().getImplementationVersion();
-	private static SystemExiter systemExiter = status -> System.exit(status);
+	private static final String DAEMON_COMMAND = "daemon";
+	private final SystemExiter systemExiter;
+
+	/**
+	 * Creates a command line interface that terminates the JVM by calling {@code System.exit()}.
+	 */
+	public CliMain() {
+		this(status -> System.exit(status));
+	}
+
+	/**
+	 * Creates a command line interface that uses a custom way of exiting.
+	 *
+	 * @param systemExiter called instead of {@code System.exit()}
+	 */
+	public CliMain(SystemExiter systemExiter) {
+		this.systemExiter = systemExiter;
+	}
 
 	public static void main(String[] args) throws Exception {
+		new CliMain().run(args);
+	}
+
+	/**
+	 * Parses the command line arguments and runs the compiler.
+	 *
+	 * @param args the command line arguments
+	 * @throws Exception thrown if the command line cannot be processed
+	 */
+	public void run(String[] args) throws Exception {
+		if (args.length > 0 && DAEMON_COMMAND.equals(args[0])) {
+			runDaemon(Arrays.copyOfRange(args, 1, args.length));
+		} else {
+			run(args, null, true);
+		}
+	}
+
+	/**
+	 * Parses the command line arguments and runs the compiler.
+	 *
+	 * @param args the command line arguments
+	 * @param workingDirectory the directory relative paths are resolved against or {@code null} for
+	 * the working directory of the JVM
+	 * @param isForwardingAllowed whether the compilation may be forwarded to a daemon
+	 * @throws Exception thrown if the command line cannot be processed
+	 */
+	void run(String[] args, File workingDirectory, boolean isForwardingAllowed) throws Exception {
 		CommandLineOptions opts = CommandLineOptions.create()
 				.description("Compiler for MOSDL - Mission Operations Service Description Language for CCSDS MO Services (version " + APP_VERSION + ")")
-				.required("service-descr", String.class, "MO service description file (CCSDS MO XML or MOSDL service description language) or directory containing files in MOSDL service description language.")
+				.required("service-descr", String.class, "MO service description file (CCSDS MO XML or MOSDL service description language) or directory containing files in MOSDL service description language or CCSDS MO XML.")
 				.optional("target-dir", String.class, ".", "Target directory for generated files.")
 				.toggle("xml", "x", "If given MO XML service description file will be generated.")
 				.toggle("mosdl", "m", "If given MOSDL service description file will be generated.")
@@ -30,6 +84,9 @@ public class CliMain {
 				.toggle("create-body-types", "b", "If given specialized non-standard message body XSD types will be generated for operations (only applicable when generating XML Schema files).")
 				.toggle("skip-validation", "sv", "If given try to recover from MOSDL files with errors and do not validate XML input and output files against the service schema. Useful for slightly malformed files.")
 				.optional("doc-type", "t", "doc-type", MosdlGenerator.DocType.class, MosdlGenerator.DocType.BULK, "Type of documentation to create for MOSDL or XSD files (BULK: operation documentation will be generated in bulk; INLINE: operation documentation will be put in-line; SUPPRESS: all documentation is stripped). BULK and INLINE produce the same results for XSD files.")
+				.optional("parallelism", "p", "threads", Integer.class, 1, "Maximum number of threads used for loading MOSDL or XML files and for running generators. The result does not depend on this setting.")
+				.optional("cache-dir", "c", "cache-dir", String.class, "Directory for caching loaded MOSDL files across runs. Unchanged files are not parsed again. The result does not depend on this setting.")
+				.toggle("daemon", "d", "If given the compilation is run by a running MOSDL daemon (started with '" + DAEMON_COMMAND + "' as first argument, see '" + DAEMON_COMMAND + " --help'). If no daemon is running, the compilation is run without daemon.")
 				.build()
 				.parse(args);
 
@@ -46,6 +103,22 @@ public class CliMain {
 				systemExiter.exit(-3);
 		}
 
+		boolean isDaemon = opts.get("daemon");
+		if (isDaemon && isForwardingAllowed) {
+			try {
+				OptionalInt status = MosdlDaemon.forward(MosdlDaemon.getDefaultDaemonFile(), args, new File("").getAbsoluteFile(), System.out, System.err);
+				if (status.isPresent()) {
+					if (status.getAsInt() != 0) {
+						systemExiter.exit(status.getAsInt());
+					}
+					return;
+				}
+				logger.debug("No MOSDL daemon running, compiling without daemon.");
+			} catch (DaemonRejectedException ex) {
+				logger.warn("{} Compiling without daemon.", ex.getMessage());
+			}
+		}
+
 		String serviceFile = opts.get("service-descr");
 		String targetDirectory = opts.get("target-dir");
 		boolean createXml = opts.get("xml");
@@ -54,10 +127,16 @@ public class CliMain {
 		boolean isCreateXsdBodyTypes = opts.get("create-body-types");
 		boolean isSkipValidation = opts.get("skip-validation");
 		MosdlGenerator.DocType docType = opts.get("doc-type");
+		int parallelism = opts.get("parallelism");
+		String cacheDirectory = opts.get("cache-dir");
 
-		Runner runner = new MosdlRunner(isSkipValidation, createXml, createMosdl, createXsd, isCreateXsdBodyTypes, docType);
+		MosdlRunner runner = new MosdlRunner(isSkipValidation, createXml, createMosdl, createXsd, isCreateXsdBodyTypes, docType);
+		runner.setParallelism(Math.max(1, parallelism));
+		if (null != cacheDirectory) {
+			runner.setCacheDirectory(resolve(workingDirectory, cacheDirectory));
+		}
 		try {
-			runner.execute(new File(targetDirectory), new File(serviceFile));
+			runner.execute(resolve(workingDirectory, targetDirectory), resolve(workingDirectory, serviceFile));
 			logger.info("Compilation of '{}' successful.", serviceFile);
 		} catch (LoaderException lEx) {
 			logger.error("Specification load error: {}", lEx.getLocalizedMessage());
@@ -69,6 +148,50 @@ public class CliMain {
 		}
 	}
 
+	private void runDaemon(String[] args) throws Exception {
+		CommandLineOptions opts = CommandLineOptions.create()
+				.description("Resident MOSDL compiler (version " + APP_VERSION + ") running compilations started with option --daemon in a single JVM. The daemon listens on a loopback port, which is written together with an access token to '" + MosdlDaemon.getDefaultDaemonFile() + "'.")
+				.optional("threads", "n", "threads", Integer.class, Runtime.getRuntime().availableProcessors(), "Maximum number of compilations run concurrently.")
+				.optional("idle-timeout", "i", "minutes", Integer.class, 30, "Time in minutes without any compilation after which the daemon stops; 0 to never stop because of inactivity.")
+				.toggle("stop", "st", "If given a running daemon is stopped instead of starting a new one.")
+				.build()
+				.parse(args);
+
+		switch (opts.getParseResult()) {
+			case ERROR:
+				systemExiter.exit(-1);
+			case UNPARSED:
+				systemExiter.exit(-2);
+			case HELP_REQUESTED:
+				systemExiter.exit(0);
+			case SUCCESS:
+				break;
+			default:
+				systemExiter.exit(-3);
+		}
+
+		File daemonFile = MosdlDaemon.getDefaultDaemonFile();
+		boolean isStop = opts.get("stop");
+		if (isStop) {
+			try {
+				if (!MosdlDaemon.requestStop(daemonFile)) {
+					logger.info("No MOSDL daemon running.");
+				}
+			} catch (DaemonRejectedException ex) {
+				logger.warn(ex.getMessage());
+			}
+			return;
+		}
+		int threads = opts.get("threads");
+		int idleTimeout = opts.get("idle-timeout");
+		new MosdlDaemon(daemonFile, Math.max(1, threads), Duration.ofMinutes(Math.max(0, idleTimeout))).run();
+	}
+
+	private static File resolve(File workingDirectory, String path) {
+		File file = new File(path);
+		return null == workingDirectory || file.isAbsolute() ? file : new File(workingDirectory, path);
+	}
+
 	/**
 	 * Interface for intercepting calls to `System.exit()`.
 	 * <p>
@@ -78,12 +201,4 @@ public class CliMain {
 	public interface SystemExiter {
 		public void exit(int status);
 	}
-
-	public static SystemExiter getSystemExiter() {
-		return systemExiter;
-	}
-
-	public static void setSystemExiter(final SystemExiter exiter) {
-		systemExiter = exiter;
-	}
 }
@@ -0,0 +1,81 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fingerprint identifying the compiler implementation, used for invalidating cached results.
+ * <p>
+ * The fingerprint consists of the implementation version and a hash of the jar file the compiler
+ * has been loaded from, so that snapshot builds sharing a version number are told apart. If the
+ * compiler has been loaded from a class directory, e.g. when running tests, all files in that
+ * directory are hashed instead. The fingerprint is computed once per class loader.
+ */
+public final class CompilerFingerprint {
+
+	private static final Logger logger = LoggerFactory.getLogger(CompilerFingerprint.class);
+
+	private CompilerFingerprint() {
+		// static helpers, no instances
+	}
+
+	/**
+	 * Gets the fingerprint of the compiler implementation.
+	 *
+	 * @return a string identifying the compiler implementation
+	 */
+	public static String get() {
+		return Holder.FINGERPRINT;
+	}
+
+	private static String compute() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(CompilerFingerprint.class.getPackage().getImplementationVersion()).append('/');
+		CodeSource codeSource = CompilerFingerprint.class.getProtectionDomain().getCodeSource();
+		if (null == codeSource || null == codeSource.getLocation()) {
+			logger.warn("Could not determine location of compiler classes, cached results of snapshot builds may not be detected as stale.");
+			return sb.toString();
+		}
+		try {
+			Path location = Path.of(codeSource.getLocation().toURI());
+			MessageDigest digest = Digests.sha256();
+			if (Files.isDirectory(location)) {
+				List<Path> files;
+				try (Stream<Path> paths = Files.walk(location)) {
+					files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+				}
+				for (Path file : files) {
+					digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+					digest.update((byte) 0);
+					Digests.update(digest, file);
+				}
+			} else {
+				Digests.update(digest, location);
+			}
+			sb.append(Digests.toHex(digest.digest()));
+		} catch (IOException | URISyntaxException | IllegalArgumentException ex) {
+			logger.warn("Could not hash compiler classes, cached results of snapshot builds may not be detected as stale: {}", ex.getLocalizedMessage());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Computes the fingerprint on first use only.
+	 */
+	private static class Holder {
+
+		private static final String FINGERPRINT = compute();
+	}
+}
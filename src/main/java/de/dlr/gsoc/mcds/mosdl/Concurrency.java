@@ -0,0 +1,185 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for running independent tasks on a bounded number of threads.
+ * <p>
+ * Work may be parallelized on several nested levels, e.g. service specifications in the Maven
+ * plugin, generators in a runner and files in a generator. Only the outermost level uses threads:
+ * Tasks started from a thread created by this class run sequentially in that thread, so that the
+ * number of threads never exceeds the parallelism of the outermost level.
+ */
+public final class Concurrency {
+
+	private static final AtomicInteger threadCounter = new AtomicInteger();
+
+	private Concurrency() {
+		// static helpers, no instances
+	}
+
+	/**
+	 * Determines the number of threads for running tasks.
+	 *
+	 * @param parallelism the maximum number of threads
+	 * @param nTasks the number of tasks
+	 * @return the number of threads to use, {@code 1} if the tasks are to be run sequentially, in
+	 * particular when called from a task run by this class
+	 */
+	public static int getThreadCount(int parallelism, int nTasks) {
+		return Thread.currentThread() instanceof WorkerThread ? 1 : Math.max(1, Math.min(parallelism, nTasks));
+	}
+
+	/**
+	 * Creates a thread pool whose threads run nested tasks sequentially.
+	 * <p>
+	 * Only for work that cannot be expressed as independent tasks for
+	 * {@link #invokeAll(List, int)}, e.g. because results are processed in order while further
+	 * tasks are still running. The caller has to shut the pool down.
+	 *
+	 * @param nThreads the number of threads
+	 * @return the thread pool
+	 */
+	public static ExecutorService newThreadPool(int nThreads) {
+		return Executors.newFixedThreadPool(nThreads, WorkerThread::new);
+	}
+
+	/**
+	 * Runs tasks on at most the given number of threads and waits for all of them to finish.
+	 * <p>
+	 * All tasks are run even if some of them fail.
+	 *
+	 * @param tasks the tasks to run
+	 * @param nThreads the maximum number of threads; tasks are run sequentially in the calling
+	 * thread if it is {@code 1} or if this method is called from a task run by this class
+	 * @return the failure of each task in task order, {@code null} for tasks that succeeded
+	 * @throws InterruptedException thrown if the calling thread is interrupted while waiting; all
+	 * remaining tasks are cancelled
+	 */
+	public static List<Throwable> invokeAll(List<? extends Task> tasks, int nThreads) throws InterruptedException {
+		List<Throwable> failures = new ArrayList<>();
+		if (getThreadCount(nThreads, tasks.size()) <= 1) {
+			for (Task task : tasks) {
+				failures.add(run(task));
+			}
+			return failures;
+		}
+		ExecutorService executor = newThreadPool(Math.min(nThreads, tasks.size()));
+		try {
+			List<Future<Throwable>> results = new ArrayList<>();
+			for (Task task : tasks) {
+				results.add(executor.submit(() -> run(task)));
+			}
+			for (Future<Throwable> result : results) {
+				try {
+					failures.add(result.get());
+				} catch (ExecutionException ex) {
+					// errors are not caught by run(), but reported like any other failure
+					failures.add(ex.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return failures;
+	}
+
+	/**
+	 * Runs tasks on at most the given number of threads, waits for all of them to finish and
+	 * reports all failures together as described for
+	 * {@link #throwFailures(List, String, Class, ExceptionFactory)}.
+	 *
+	 * @param <E> the type of exception thrown for failed tasks
+	 * @param tasks the tasks to run
+	 * @param nThreads the maximum number of threads, see {@link #invokeAll(List, int)}
+	 * @param description what the tasks work on in plural, e.g. "generators", used in messages
+	 * @param type the type of exception thrown for failed tasks
+	 * @param exceptionFactory creates exceptions of the type thrown for failed tasks
+	 * @throws E thrown if at least one task fails or if the calling thread is interrupted
+	 */
+	public static <E extends Exception> void invokeAll(List<? extends Task> tasks, int nThreads, String description, Class<E> type, ExceptionFactory<E> exceptionFactory) throws E {
+		List<Throwable> failures;
+		try {
+			failures = invokeAll(tasks, nThreads);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw exceptionFactory.create("Interrupted while processing " + description + ".", ex);
+		}
+		throwFailures(failures, description, type, exceptionFactory);
+	}
+
+	/**
+	 * Reports the failures of tasks together.
+	 * <p>
+	 * A single failure of the expected type is rethrown as it is. Otherwise, a new exception lists
+	 * the messages of all failures, with the first failure as cause and the others suppressed.
+	 *
+	 * @param <E> the type of exception thrown for failed tasks
+	 * @param failures the failure of each task as returned by {@link #invokeAll(List, int)}
+	 * @param description what the tasks work on in plural, e.g. "generators", used in messages
+	 * @param type the type of exception thrown for failed tasks
+	 * @param exceptionFactory creates exceptions of the type thrown for failed tasks
+	 * @throws E thrown if at least one task has failed
+	 */
+	public static <E extends Exception> void throwFailures(List<Throwable> failures, String description, Class<E> type, ExceptionFactory<E> exceptionFactory) throws E {
+		List<Throwable> actualFailures = failures.stream().filter(Objects::nonNull).collect(Collectors.toList());
+		if (actualFailures.size() == 1 && type.isInstance(actualFailures.get(0))) {
+			throw type.cast(actualFailures.get(0));
+		} else if (!actualFailures.isEmpty()) {
+			String messages = actualFailures.stream().map(Throwable::getMessage).collect(Collectors.joining("; "));
+			E ex = exceptionFactory.create(actualFailures.size() + " of " + failures.size() + " " + description + " failed: " + messages, actualFailures.get(0));
+			actualFailures.stream().skip(1).forEach(ex::addSuppressed);
+			throw ex;
+		}
+	}
+
+	private static Throwable run(Task task) {
+		try {
+			task.run();
+			return null;
+		} catch (Exception ex) {
+			return ex;
+		}
+	}
+
+	/**
+	 * Task that may fail with an exception.
+	 */
+	@FunctionalInterface
+	public interface Task {
+
+		void run() throws Exception;
+	}
+
+	/**
+	 * Creates an exception from a message and a cause, usually a constructor reference.
+	 *
+	 * @param <E> the type of exception
+	 */
+	@FunctionalInterface
+	public interface ExceptionFactory<E extends Exception> {
+
+		E create(String message, Throwable cause);
+	}
+
+	/**
+	 * Thread of a pool created by this class, recognized in order to run nested tasks
+	 * sequentially.
+	 */
+	private static class WorkerThread extends Thread {
+
+		WorkerThread(Runnable runnable) {
+			super(runnable, "mosdl-worker-" + threadCounter.incrementAndGet());
+		}
+	}
+}
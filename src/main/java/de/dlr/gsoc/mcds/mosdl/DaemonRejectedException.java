@@ -0,0 +1,32 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.IOException;
+
+/**
+ * Exception class for requests refused by a running {@link MosdlDaemon}, e.g. because the access
+ * token in the daemon file does not match the daemon listening on its port.
+ */
+public class DaemonRejectedException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * @param message the detail message
+	 * @see IOException#IOException(String)
+	 */
+	public DaemonRejectedException(String message) {
+		super(message);
+	}
+
+	/**
+	 * @param message the detail message
+	 * @param cause the cause
+	 * @see IOException#IOException(java.lang.String, java.lang.Throwable)
+	 */
+	public DaemonRejectedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -0,0 +1,85 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helpers for the SHA-256 hashes used for caching and up-to-date checks.
+ */
+public final class Digests {
+
+	private static final String ALGORITHM = "SHA-256";
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final int BUFFER_SIZE = 8192;
+
+	private Digests() {
+		// static helpers, no instances
+	}
+
+	/**
+	 * Creates a new SHA-256 digest.
+	 *
+	 * @return the digest
+	 */
+	public static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException ex) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Updates a digest with the content of a file.
+	 *
+	 * @param digest the digest to update
+	 * @param file the file to read
+	 * @return the number of bytes read
+	 * @throws IOException thrown if the file cannot be read
+	 */
+	public static long update(MessageDigest digest, Path file) throws IOException {
+		try (InputStream is = Files.newInputStream(file)) {
+			return update(digest, is);
+		}
+	}
+
+	/**
+	 * Updates a digest with the remaining content of a stream. The stream is not closed.
+	 *
+	 * @param digest the digest to update
+	 * @param is the stream to read
+	 * @return the number of bytes read
+	 * @throws IOException thrown if the stream cannot be read
+	 */
+	public static long update(MessageDigest digest, InputStream is) throws IOException {
+		long size = 0;
+		byte[] buffer = new byte[BUFFER_SIZE];
+		for (int n = is.read(buffer); n >= 0; n = is.read(buffer)) {
+			digest.update(buffer, 0, n);
+			size += n;
+		}
+		return size;
+	}
+
+	/**
+	 * Converts bytes, e.g. a hash, to a hexadecimal string.
+	 *
+	 * @param bytes the bytes to convert
+	 * @return the lower case hexadecimal string with two digits per byte
+	 */
+	public static String toHex(byte[] bytes) {
+		char[] chars = new char[2 * bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+			chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,145 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SHA-256 hashes of all files of the service specifications of a Maven plugin execution.
+ * <p>
+ * Every file is read and hashed only once per execution. The hashes are used both for the
+ * up-to-date check (see {@link MosdlBuildState}) and for the keys of the
+ * {@link SpecificationCache}. Instances are immutable and may be shared between threads.
+ */
+class InputDigests {
+
+	private final Map<Path, List<Path>> filesByRoot;
+	private final Map<Path, FileDigest> digests;
+
+	private InputDigests(Map<Path, List<Path>> filesByRoot, Map<Path, FileDigest> digests) {
+		this.filesByRoot = filesByRoot;
+		this.digests = digests;
+	}
+
+	/**
+	 * Hashes all files of service specifications.
+	 *
+	 * @param serviceSpecs the service specification files and directories; directories are hashed
+	 * with all files below them, missing files are skipped
+	 * @return the hashes of all files
+	 * @throws IOException thrown if a file cannot be read
+	 */
+	static InputDigests of(List<File> serviceSpecs) throws IOException {
+		Map<Path, List<Path>> filesByRoot = new LinkedHashMap<>();
+		Map<Path, FileDigest> digests = new HashMap<>();
+		for (File serviceSpec : serviceSpecs) {
+			Path root = toKey(serviceSpec.toPath());
+			if (filesByRoot.containsKey(root)) {
+				continue;
+			}
+			List<Path> files = List.of();
+			if (Files.exists(root)) {
+				try (Stream<Path> paths = Files.walk(root, FileVisitOption.FOLLOW_LINKS)) {
+					files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+				}
+			}
+			filesByRoot.put(root, files);
+			for (Path file : files) {
+				if (!digests.containsKey(file)) {
+					digests.put(file, FileDigest.of(file));
+				}
+			}
+		}
+		return new InputDigests(filesByRoot, digests);
+	}
+
+	/**
+	 * Gets all files of a service specification that have been hashed.
+	 *
+	 * @param serviceSpec the service specification file or directory
+	 * @return the regular files below {@code serviceSpec} sorted by path, or {@code serviceSpec}
+	 * itself if it is a file; empty if it does not exist or has not been hashed
+	 */
+	List<Path> getFiles(File serviceSpec) {
+		return filesByRoot.getOrDefault(toKey(serviceSpec.toPath()), List.of());
+	}
+
+	/**
+	 * Gets the hash of a file, hashing it if it is not among the hashed files.
+	 *
+	 * @param file the file
+	 * @return the hash and size of the file
+	 * @throws IOException thrown if the file has not been hashed and cannot be read
+	 */
+	FileDigest get(Path file) throws IOException {
+		FileDigest digest = digests.get(toKey(file));
+		return null == digest ? FileDigest.of(file) : digest;
+	}
+
+	private static Path toKey(Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * SHA-256 hash and size of the content of a file.
+	 */
+	static class FileDigest {
+
+		private final byte[] hash;
+		private final long size;
+
+		private FileDigest(byte[] hash, long size) {
+			this.hash = hash;
+			this.size = size;
+		}
+
+		/**
+		 * Hashes the content of a stream.
+		 *
+		 * @param is the stream to read to its end; it is not closed
+		 * @return the hash and size of the content
+		 * @throws IOException thrown if the stream cannot be read
+		 */
+		static FileDigest of(InputStream is) throws IOException {
+			MessageDigest digest = Digests.sha256();
+			long size = Digests.update(digest, is);
+			return new FileDigest(digest.digest(), size);
+		}
+
+		private static FileDigest of(Path file) throws IOException {
+			try (InputStream is = Files.newInputStream(file)) {
+				return of(is);
+			}
+		}
+
+		/**
+		 * Updates a digest with this hash.
+		 *
+		 * @param digest the digest to update
+		 */
+		void update(MessageDigest digest) {
+			digest.update(hash);
+		}
+
+		/**
+		 * Gets the size of the hashed content.
+		 *
+		 * @return the size in bytes
+		 */
+		long getSize() {
+			return size;
+		}
+	}
+}
@@ -0,0 +1,221 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.util.JAXBSource;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import org.ccsds.schema.serviceschema.ObjectFactory;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
+
+/**
+ * Registry of the JAXB runtime objects needed for reading and writing MO XML specifications.
+ * <p>
+ * Creating a {@link JAXBContext} and compiling the service schema are expensive, so both are done
+ * only once per class loader, when they are needed for the first time. Both are thread-safe and
+ * shared by all users. Marshallers and unmarshallers are not thread-safe, but cheap to reuse.
+ * Therefore, they are handed out as {@link Lease}s from a pool, which return them to the pool when
+ * closed:
+ * <pre>{@code
+ * try (JaxbRegistry.Lease<Unmarshaller> unmarshaller = JaxbRegistry.leaseUnmarshaller(true)) {
+ *     Object element = unmarshaller.get().unmarshal(source);
+ * }
+ * }</pre>
+ * Each leased instance is reset to its default configuration apart from the schema used for
+ * validation. A lease must only be used by a single thread at a time.
+ */
+public final class JaxbRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(JaxbRegistry.class);
+
+	private static final String SERVICE_SCHEMA_RESOURCE = "/COMSchema.xsd";
+	private static final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<>();
+	private static final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+	private static volatile JAXBContext context;
+	private static volatile Schema schema;
+
+	private JaxbRegistry() {
+		// static registry, no instances
+	}
+
+	/**
+	 * Gets the JAXB context for the MO service schema, creating it if necessary.
+	 *
+	 * @return the shared JAXB context
+	 * @throws JAXBException thrown if the context cannot be created
+	 */
+	public static JAXBContext getContext() throws JAXBException {
+		JAXBContext result = context;
+		if (null == result) {
+			synchronized (JaxbRegistry.class) {
+				result = context;
+				if (null == result) {
+					logger.debug("Creating JAXB context for MO service schema.");
+					result = JAXBContext.newInstance(SpecificationType.class);
+					context = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the compiled MO service schema, compiling it if necessary.
+	 *
+	 * @return the shared service schema
+	 * @throws SAXException thrown if the schema cannot be compiled
+	 */
+	public static Schema getSchema() throws SAXException {
+		Schema result = schema;
+		if (null == result) {
+			synchronized (JaxbRegistry.class) {
+				result = schema;
+				if (null == result) {
+					logger.debug("Compiling MO service schema.");
+					SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+					result = schemaFactory.newSchema(JaxbRegistry.class.getResource(SERVICE_SCHEMA_RESOURCE));
+					schema = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a deep copy of a specification.
+	 * <p>
+	 * The specification is marshalled and unmarshalled again in memory without creating an XML
+	 * document. The copy is completely independent of the original.
+	 *
+	 * @param spec the specification to copy
+	 * @return the copy
+	 * @throws JAXBException thrown if the specification cannot be marshalled or unmarshalled
+	 */
+	public static SpecificationType copy(SpecificationType spec) throws JAXBException {
+		JAXBSource source = new JAXBSource(getContext(), new ObjectFactory().createSpecification(spec));
+		try (Lease<Unmarshaller> unmarshaller = leaseUnmarshaller()) {
+			return unmarshaller.get().unmarshal(source, SpecificationType.class).getValue();
+		}
+	}
+
+	/**
+	 * Leases a marshaller for MO XML specifications that does not validate.
+	 *
+	 * @return the lease of a marshaller in its default configuration
+	 * @throws JAXBException thrown if a marshaller cannot be created
+	 */
+	public static Lease<Marshaller> leaseMarshaller() throws JAXBException {
+		return leaseMarshaller((Schema) null);
+	}
+
+	/**
+	 * Leases a marshaller for MO XML specifications.
+	 *
+	 * @param isValidating {@code true} to validate marshalled documents against the service schema,
+	 * {@code false} otherwise
+	 * @return the lease of a marshaller in its default configuration
+	 * @throws JAXBException thrown if a marshaller cannot be created
+	 * @throws SAXException thrown if the service schema cannot be compiled
+	 */
+	public static Lease<Marshaller> leaseMarshaller(boolean isValidating) throws JAXBException, SAXException {
+		return leaseMarshaller(isValidating ? getSchema() : null);
+	}
+
+	/**
+	 * Leases an unmarshaller for MO XML specifications that does not validate.
+	 *
+	 * @return the lease of an unmarshaller in its default configuration
+	 * @throws JAXBException thrown if an unmarshaller cannot be created
+	 */
+	public static Lease<Unmarshaller> leaseUnmarshaller() throws JAXBException {
+		return leaseUnmarshaller((Schema) null);
+	}
+
+	/**
+	 * Leases an unmarshaller for MO XML specifications.
+	 *
+	 * @param isValidating {@code true} to validate unmarshalled documents against the service
+	 * schema, {@code false} otherwise
+	 * @return the lease of an unmarshaller in its default configuration
+	 * @throws JAXBException thrown if an unmarshaller cannot be created
+	 * @throws SAXException thrown if the service schema cannot be compiled
+	 */
+	public static Lease<Unmarshaller> leaseUnmarshaller(boolean isValidating) throws JAXBException, SAXException {
+		return leaseUnmarshaller(isValidating ? getSchema() : null);
+	}
+
+	private static Lease<Marshaller> leaseMarshaller(Schema validationSchema) throws JAXBException {
+		Marshaller marshaller = marshallers.poll();
+		if (null == marshaller) {
+			marshaller = getContext().createMarshaller();
+		} else {
+			marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+			marshaller.setListener(null);
+			marshaller.setEventHandler(null);
+		}
+		marshaller.setSchema(validationSchema);
+		return new Lease<>(marshaller, marshallers);
+	}
+
+	private static Lease<Unmarshaller> leaseUnmarshaller(Schema validationSchema) throws JAXBException {
+		Unmarshaller unmarshaller = unmarshallers.poll();
+		if (null == unmarshaller) {
+			unmarshaller = getContext().createUnmarshaller();
+		} else {
+			unmarshaller.setListener(null);
+			unmarshaller.setEventHandler(null);
+		}
+		unmarshaller.setSchema(validationSchema);
+		return new Lease<>(unmarshaller, unmarshallers);
+	}
+
+	/**
+	 * Pooled marshaller or unmarshaller that is returned to the pool when the lease is closed.
+	 *
+	 * @param <T> the type of the leased instance
+	 */
+	public static final class Lease<T> implements AutoCloseable {
+
+		private final Queue<T> pool;
+		private T instance;
+
+		private Lease(T instance, Queue<T> pool) {
+			this.instance = instance;
+			this.pool = pool;
+		}
+
+		/**
+		 * Gets the leased instance.
+		 *
+		 * @return the leased instance
+		 * @throws IllegalStateException thrown if the lease has already been closed
+		 */
+		public T get() {
+			if (null == instance) {
+				throw new IllegalStateException("Lease has already been closed.");
+			}
+			return instance;
+		}
+
+		/**
+		 * Returns the leased instance to the pool. It must not be used afterwards.
+		 */
+		@Override
+		public void close() {
+			if (null != instance) {
+				pool.offer(instance);
+				instance = null;
+			}
+		}
+	}
+}
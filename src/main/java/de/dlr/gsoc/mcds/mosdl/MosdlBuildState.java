@@ -0,0 +1,252 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State of a previous compilation run of the Maven plugin, used for up-to-date checks.
+ * <p>
+ * The state consists of a fingerprint of the plugin (see {@link CompilerFingerprint}), of the
+ * plugin configuration and of all input files, together with the target directory and the names
+ * of all generated files. Inputs are fingerprinted by the path and a hash of the content of every
+ * file (see {@link InputDigests}), like {@link de.dlr.gsoc.mcds.mosdl.generators.DirectorySink}
+ * compares generated files, so that edits not changing size or modification time are detected as
+ * well. If all fingerprints of
+ * a new run match the stored state and all generated files still exist, the run can be skipped.
+ * Otherwise, generated files of the previous run that are no longer generated are stale and can be
+ * deleted, unless another execution sharing the target directory has generated them (see
+ * {@link #loadOtherOutputs(File, File)}).
+ */
+class MosdlBuildState {
+
+	private static final Logger logger = LoggerFactory.getLogger(MosdlBuildState.class);
+
+	static final String STATE_FILE_ENDING = ".properties";
+	private static final int FORMAT_VERSION = 3;
+	private static final String KEY_FORMAT_VERSION = "formatVersion";
+	private static final String KEY_PLUGIN = "plugin";
+	private static final String KEY_CONFIGURATION = "configuration";
+	private static final String KEY_INPUTS = "inputs";
+	private static final String KEY_TARGET_DIRECTORY = "targetDirectory";
+	private static final String KEY_OUTPUTS = "outputs";
+	private static final String VALUE_SEPARATOR = "\n";
+
+	private final String plugin;
+	private final String configuration;
+	private final String inputs;
+	private final String targetDirectory;
+	private final SortedSet<String> outputs = new TreeSet<>();
+
+	/**
+	 * Creates the state of a new compilation run without any generated files.
+	 *
+	 * @param pluginVersion the version of the plugin
+	 * @param configuration all configuration values affecting the generated files
+	 * @param serviceSpecs the input files and directories in configuration order
+	 * @param inputDigests the hashes of all files of {@code serviceSpecs}
+	 * @param targetDirectory the directory the files are generated in
+	 * @throws IOException thrown if an input file has not been hashed and cannot be read
+	 */
+	MosdlBuildState(String pluginVersion, List<?> configuration, List<File> serviceSpecs, InputDigests inputDigests, File targetDirectory) throws IOException {
+		this(pluginVersion + '/' + CompilerFingerprint.get(),
+				configuration.stream().map(String::valueOf).collect(Collectors.joining(VALUE_SEPARATOR)),
+				computeInputFingerprint(serviceSpecs, inputDigests), targetDirectory.getAbsolutePath());
+	}
+
+	private MosdlBuildState(String plugin, String configuration, String inputs, String targetDirectory) {
+		this.plugin = plugin;
+		this.configuration = configuration;
+		this.inputs = inputs;
+		this.targetDirectory = targetDirectory;
+	}
+
+	/**
+	 * Loads the state of a previous run.
+	 *
+	 * @param stateFile the file the state has been stored in
+	 * @return the stored state or {@code null} if there is no usable state
+	 */
+	static MosdlBuildState load(File stateFile) {
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(stateFile.toPath())) {
+			properties.load(is);
+		} catch (NoSuchFileException ex) {
+			return null;
+		} catch (IOException ex) {
+			logger.warn("Could not read MOSDL build state '{}': {}", stateFile, ex.getLocalizedMessage());
+			return null;
+		}
+		if (!String.valueOf(FORMAT_VERSION).equals(properties.getProperty(KEY_FORMAT_VERSION))) {
+			return null;
+		}
+		MosdlBuildState state = new MosdlBuildState(properties.getProperty(KEY_PLUGIN), properties.getProperty(KEY_CONFIGURATION),
+				properties.getProperty(KEY_INPUTS), properties.getProperty(KEY_TARGET_DIRECTORY));
+		String outputs = properties.getProperty(KEY_OUTPUTS, "");
+		if (!outputs.isEmpty()) {
+			Collections.addAll(state.outputs, outputs.split(VALUE_SEPARATOR));
+		}
+		return state;
+	}
+
+	/**
+	 * Loads the names of the files generated into a target directory by other executions.
+	 * <p>
+	 * Several plugin executions of a project may share a target directory. Each execution stores
+	 * its state in its own file, and all state files of a project are kept in the same directory.
+	 * Files recorded by the state of another execution with the same target directory must not be
+	 * deleted as stale.
+	 *
+	 * @param stateFile the state file of the current execution, which is skipped
+	 * @param targetDirectory the target directory of the current execution
+	 * @return the names of the files generated by other executions relative to the target
+	 * directory
+	 */
+	static Set<String> loadOtherOutputs(File stateFile, File targetDirectory) {
+		Set<String> otherOutputs = new HashSet<>();
+		File[] stateFiles = stateFile.getAbsoluteFile().getParentFile().listFiles((dir, name) -> name.endsWith(STATE_FILE_ENDING));
+		if (null == stateFiles) {
+			return otherOutputs;
+		}
+		String target = targetDirectory.getAbsolutePath();
+		for (File otherStateFile : stateFiles) {
+			if (otherStateFile.equals(stateFile.getAbsoluteFile())) {
+				continue;
+			}
+			MosdlBuildState otherState = load(otherStateFile);
+			if (null != otherState && target.equals(otherState.targetDirectory)) {
+				otherOutputs.addAll(otherState.outputs);
+			}
+		}
+		return otherOutputs;
+	}
+
+	/**
+	 * Stores this state, replacing any previously stored state atomically.
+	 *
+	 * @param stateFile the file to store the state in
+	 * @throws IOException thrown if the state cannot be stored
+	 */
+	void store(File stateFile) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(KEY_FORMAT_VERSION, String.valueOf(FORMAT_VERSION));
+		properties.setProperty(KEY_PLUGIN, plugin);
+		properties.setProperty(KEY_CONFIGURATION, configuration);
+		properties.setProperty(KEY_INPUTS, inputs);
+		properties.setProperty(KEY_TARGET_DIRECTORY, targetDirectory);
+		properties.setProperty(KEY_OUTPUTS, String.join(VALUE_SEPARATOR, outputs));
+		Path target = stateFile.toPath();
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), stateFile.getName(), ".tmp");
+		try {
+			try (OutputStream os = Files.newOutputStream(temp)) {
+				properties.store(os, "MOSDL build state, used for up-to-date checks");
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Adds the names of generated files.
+	 *
+	 * @param names the names of generated files relative to the target directory
+	 */
+	void addOutputs(Collection<String> names) {
+		outputs.addAll(names);
+	}
+
+	/**
+	 * Gets the names of all generated files.
+	 *
+	 * @return the names of generated files relative to the target directory, sorted by name
+	 */
+	SortedSet<String> getOutputs() {
+		return Collections.unmodifiableSortedSet(outputs);
+	}
+
+	/**
+	 * Checks whether a new run would generate the same files as the run this state has been stored
+	 * for.
+	 *
+	 * @param current the state of the new run, without any generated files
+	 * @param targetDirectory the directory containing the generated files
+	 * @return {@code true} if plugin, configuration and inputs are unchanged and all generated files
+	 * still exist, {@code false} otherwise
+	 */
+	boolean isUpToDate(MosdlBuildState current, File targetDirectory) {
+		if (!Objects.equals(plugin, current.plugin)) {
+			logger.debug("MOSDL plugin has changed.");
+			return false;
+		}
+		if (!Objects.equals(configuration, current.configuration)) {
+			logger.debug("MOSDL plugin configuration has changed.");
+			return false;
+		}
+		if (!Objects.equals(this.targetDirectory, current.targetDirectory)) {
+			logger.debug("MOSDL target directory has changed.");
+			return false;
+		}
+		if (!Objects.equals(inputs, current.inputs)) {
+			logger.debug("Service specifications have changed.");
+			return false;
+		}
+		for (String output : outputs) {
+			if (!new File(targetDirectory, output).isFile()) {
+				logger.debug("Generated file '{}' is missing.", output);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the files generated by the run of this state that are not generated by a newer run.
+	 *
+	 * @param current the state of the newer run
+	 * @return the names of the stale files relative to the target directory
+	 */
+	List<String> getStaleOutputs(MosdlBuildState current) {
+		List<String> staleOutputs = new ArrayList<>(outputs);
+		staleOutputs.removeAll(current.outputs);
+		return staleOutputs;
+	}
+
+	private static String computeInputFingerprint(List<File> serviceSpecs, InputDigests inputDigests) throws IOException {
+		MessageDigest digest = Digests.sha256();
+		for (File serviceSpec : serviceSpecs) {
+			Path root = serviceSpec.toPath().toAbsolutePath().normalize();
+			digest.update(root.toString().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			for (Path file : inputDigests.getFiles(serviceSpec)) {
+				digest.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+				inputDigests.get(file).update(digest);
+			}
+		}
+		return Digests.toHex(digest.digest());
+	}
+}
@@ -0,0 +1,440 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.OptionalInt;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resident MOSDL compiler that runs command lines sent by clients in the same warm JVM.
+ * <p>
+ * Starting a JVM and initializing the parsers and JAXB takes much longer than compiling a typical
+ * service specification. A daemon pays this only once. It listens on a loopback TCP port and writes
+ * the port together with a random access token into a daemon file readable only by its owner.
+ * Clients read this file, send the token, their working directory and their command line, and
+ * receive everything the compilation writes to {@code System.out} and {@code System.err}, followed
+ * by the exit status. Several requests are run concurrently, each with its own {@link CliMain}.
+ * <p>
+ * The daemon stops after it has been idle for a configurable time or when a client requests it.
+ * While running, it redirects {@code System.out} and {@code System.err} of the JVM, so it should run
+ * in a JVM of its own. Log messages reach the client only if the logging implementation looks up
+ * {@code System.err} for every message. slf4j-simple, which the command line uses, does so unless
+ * {@code org.slf4j.simpleLogger.cacheOutputStream} is set, which is checked at startup.
+ */
+public class MosdlDaemon {
+
+	private static final Logger logger = LoggerFactory.getLogger(MosdlDaemon.class);
+
+	private static final int PROTOCOL_VERSION = 1;
+	private static final String COMMAND_COMPILE = "compile";
+	private static final String COMMAND_STOP = "stop";
+	private static final byte FRAME_STDOUT = 1;
+	private static final byte FRAME_STDERR = 2;
+	private static final byte FRAME_EXIT = 3;
+	private static final String KEY_PORT = "port";
+	private static final String KEY_TOKEN = "token";
+	private static final String KEY_PID = "pid";
+	private static final int TOKEN_LENGTH = 32;
+	private static final int ACCEPT_POLL_MILLIS = 1000;
+	private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+	private static final int REQUEST_TIMEOUT_MILLIS = 10000;
+	private static final long SHUTDOWN_TIMEOUT_MINUTES = 1;
+	private static final String SLF4J_SIMPLE_CACHE_OUTPUT_STREAM = "org.slf4j.simpleLogger.cacheOutputStream";
+
+	private final File daemonFile;
+	private final int nThreads;
+	private final Duration idleTimeout;
+	private final String token;
+	private final AtomicInteger activeRequests = new AtomicInteger();
+	private volatile long lastActivity;
+	private volatile boolean isStopRequested = false;
+	private volatile ServerSocket serverSocket;
+
+	/**
+	 * Creates a daemon.
+	 *
+	 * @param daemonFile the file the port and access token are written to
+	 * @param nThreads the maximum number of requests run concurrently
+	 * @param idleTimeout the time without any requests after which the daemon stops, or
+	 * {@link Duration#ZERO} to never stop because of inactivity
+	 */
+	public MosdlDaemon(File daemonFile, int nThreads, Duration idleTimeout) {
+		if (nThreads < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		}
+		this.daemonFile = daemonFile;
+		this.nThreads = nThreads;
+		this.idleTimeout = idleTimeout;
+		byte[] tokenBytes = new byte[TOKEN_LENGTH];
+		new SecureRandom().nextBytes(tokenBytes);
+		this.token = Digests.toHex(tokenBytes);
+	}
+
+	/**
+	 * Gets the default daemon file of the current user and MOSDL version.
+	 *
+	 * @return the daemon file in directory {@code .mosdl} of the user's home directory
+	 */
+	public static File getDefaultDaemonFile() {
+		String version = CliMain.class.getPackage().getImplementationVersion();
+		return new File(System.getProperty("user.home"), ".mosdl/daemon-" + (null == version ? "dev" : version) + ".properties");
+	}
+
+	/**
+	 * Runs the daemon until it is stopped or has been idle for too long. Requests still running
+	 * when the daemon stops are completed.
+	 *
+	 * @throws IOException thrown if the daemon cannot listen for requests or its daemon file cannot
+	 * be written
+	 */
+	public void run() throws IOException {
+		if (Boolean.getBoolean(SLF4J_SIMPLE_CACHE_OUTPUT_STREAM)) {
+			logger.warn("Log messages of compilations are not sent to clients, because {} is set.", SLF4J_SIMPLE_CACHE_OUTPUT_STREAM);
+		}
+		PrintStream originalOut = System.out;
+		PrintStream originalErr = System.err;
+		// threads started while running a request inherit its streams
+		InheritableThreadLocal<OutputStream> requestOut = new InheritableThreadLocal<>();
+		InheritableThreadLocal<OutputStream> requestErr = new InheritableThreadLocal<>();
+		ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+		try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+			serverSocket = server;
+			server.setSoTimeout(ACCEPT_POLL_MILLIS);
+			writeDaemonFile(server.getLocalPort());
+			System.setOut(new PrintStream(new RoutingOutputStream(originalOut, requestOut), true));
+			System.setErr(new PrintStream(new RoutingOutputStream(originalErr, requestErr), true));
+			logger.info("MOSDL daemon listening on port {} ({} threads, idle timeout {}).", server.getLocalPort(), nThreads, idleTimeout);
+			lastActivity = System.nanoTime();
+			while (!isStopRequested) {
+				Socket socket;
+				try {
+					socket = server.accept();
+				} catch (SocketTimeoutException ex) {
+					if (isIdle()) {
+						logger.info("MOSDL daemon stopping after being idle for {}.", idleTimeout);
+						break;
+					}
+					continue;
+				} catch (SocketException ex) {
+					if (isStopRequested) {
+						break;
+					}
+					throw ex;
+				}
+				activeRequests.incrementAndGet();
+				executor.submit(() -> {
+					try {
+						handle(socket, requestOut, requestErr);
+					} finally {
+						lastActivity = System.nanoTime();
+						activeRequests.decrementAndGet();
+					}
+				});
+			}
+		} finally {
+			isStopRequested = true;
+			executor.shutdown();
+			try {
+				executor.awaitTermination(SHUTDOWN_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} finally {
+				executor.shutdownNow();
+				System.setOut(originalOut);
+				System.setErr(originalErr);
+				deleteDaemonFile();
+			}
+			logger.info("MOSDL daemon stopped.");
+		}
+	}
+
+	/**
+	 * Stops the daemon. Requests already accepted are completed.
+	 */
+	public void stop() {
+		isStopRequested = true;
+		ServerSocket server = serverSocket;
+		if (null != server) {
+			try {
+				server.close();
+			} catch (IOException ex) {
+				logger.debug("Could not close daemon socket.", ex);
+			}
+		}
+	}
+
+	/**
+	 * Runs a command line in a daemon.
+	 *
+	 * @param daemonFile the daemon file written by the daemon
+	 * @param args the command line arguments, as accepted by {@link CliMain}
+	 * @param workingDirectory the directory relative paths in the command line are resolved against
+	 * @param out receives everything written to {@code System.out} by the compilation
+	 * @param err receives everything written to {@code System.err} by the compilation, e.g. log
+	 * messages
+	 * @return the exit status of the command line or nothing if no daemon is running
+	 * @throws DaemonRejectedException thrown if a daemon is listening, but refuses the request,
+	 * e.g. because the daemon file is stale and another daemon uses its port
+	 * @throws IOException thrown if the connection to the daemon fails while running the command
+	 * line
+	 */
+	public static OptionalInt forward(File daemonFile, String[] args, File workingDirectory, OutputStream out, OutputStream err) throws IOException {
+		return send(daemonFile, COMMAND_COMPILE, args, workingDirectory, out, err);
+	}
+
+	/**
+	 * Requests a daemon to stop.
+	 *
+	 * @param daemonFile the daemon file written by the daemon
+	 * @return {@code true} if a daemon has been requested to stop, {@code false} if no daemon is
+	 * running
+	 * @throws DaemonRejectedException thrown if a daemon is listening, but refuses the request
+	 * @throws IOException thrown if the connection to the daemon fails
+	 */
+	public static boolean requestStop(File daemonFile) throws IOException {
+		return send(daemonFile, COMMAND_STOP, new String[0], new File("").getAbsoluteFile(), OutputStream.nullOutputStream(), OutputStream.nullOutputStream()).isPresent();
+	}
+
+	private static OptionalInt send(File daemonFile, String command, String[] args, File workingDirectory, OutputStream out, OutputStream err) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(daemonFile.toPath())) {
+			properties.load(is);
+		} catch (NoSuchFileException ex) {
+			return OptionalInt.empty();
+		}
+		int port;
+		try {
+			port = Integer.parseInt(properties.getProperty(KEY_PORT, ""));
+		} catch (NumberFormatException ex) {
+			logger.debug("Daemon file '{}' does not contain a port.", daemonFile);
+			return OptionalInt.empty();
+		}
+		try (Socket socket = new Socket()) {
+			try {
+				socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), CONNECT_TIMEOUT_MILLIS);
+			} catch (ConnectException | SocketTimeoutException ex) {
+				// the daemon has terminated without deleting its file
+				logger.debug("No MOSDL daemon listening on port {}.", port);
+				return OptionalInt.empty();
+			}
+			DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			request.writeInt(PROTOCOL_VERSION);
+			request.writeUTF(properties.getProperty(KEY_TOKEN, ""));
+			request.writeUTF(command);
+			request.writeUTF(workingDirectory.getAbsolutePath());
+			request.writeInt(args.length);
+			for (String arg : args) {
+				request.writeUTF(arg);
+			}
+			request.flush();
+
+			DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			boolean isFirstFrame = true;
+			while (true) {
+				byte frameType;
+				try {
+					frameType = response.readByte();
+				} catch (EOFException | SocketException ex) {
+					if (isFirstFrame) {
+						// the daemon closes the connection without a response if the token or protocol version does not
+						// match, which resets the connection if the rest of the request has not been read yet
+						throw new DaemonRejectedException("MOSDL daemon on port " + port + " rejected the request. Daemon file '" + daemonFile + "' may be stale or belong to another daemon.", ex);
+					}
+					throw new IOException("Connection to MOSDL daemon closed unexpectedly.", ex);
+				}
+				isFirstFrame = false;
+				switch (frameType) {
+					case FRAME_STDOUT:
+					case FRAME_STDERR:
+						byte[] content = new byte[response.readInt()];
+						response.readFully(content);
+						OutputStream target = frameType == FRAME_STDOUT ? out : err;
+						target.write(content);
+						target.flush();
+						break;
+					case FRAME_EXIT:
+						return OptionalInt.of(response.readInt());
+					default:
+						throw new IOException("Unknown response from MOSDL daemon: " + frameType);
+				}
+			}
+		}
+	}
+
+	private void handle(Socket socket, InheritableThreadLocal<OutputStream> requestOut, InheritableThreadLocal<OutputStream> requestErr) {
+		try (socket) {
+			// a client must not block a thread by never completing its request
+			socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+			DataInputStream request = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			if (request.readInt() != PROTOCOL_VERSION
+					|| !MessageDigest.isEqual(token.getBytes(StandardCharsets.US_ASCII), request.readUTF().getBytes(StandardCharsets.US_ASCII))) {
+				logger.warn("Rejected MOSDL daemon request with invalid protocol version or token.");
+				return;
+			}
+			String command = request.readUTF();
+			File workingDirectory = new File(request.readUTF());
+			String[] args = new String[request.readInt()];
+			for (int i = 0; i < args.length; i++) {
+				args[i] = request.readUTF();
+			}
+
+			DataOutputStream response = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			int status = 0;
+			if (COMMAND_STOP.equals(command)) {
+				logger.info("MOSDL daemon stop requested.");
+				stop();
+			} else {
+				requestOut.set(new FrameOutputStream(response, FRAME_STDOUT));
+				requestErr.set(new FrameOutputStream(response, FRAME_STDERR));
+				try {
+					new CliMain(exitStatus -> {
+						throw new ExitRequest(exitStatus);
+					}).run(args, workingDirectory, false);
+				} catch (ExitRequest ex) {
+					status = ex.status;
+				} catch (Exception ex) {
+					logger.error("Unexpected failure.", ex);
+					status = -3;
+				} finally {
+					System.out.flush();
+					System.err.flush();
+					requestOut.remove();
+					requestErr.remove();
+				}
+			}
+			synchronized (response) {
+				response.writeByte(FRAME_EXIT);
+				response.writeInt(status);
+				response.flush();
+			}
+		} catch (IOException ex) {
+			logger.warn("MOSDL daemon request failed: {}", ex.getLocalizedMessage());
+		}
+	}
+
+	private boolean isIdle() {
+		return !idleTimeout.isZero() && activeRequests.get() == 0
+				&& System.nanoTime() - lastActivity >= idleTimeout.toNanos();
+	}
+
+	private void writeDaemonFile(int port) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty(KEY_PORT, String.valueOf(port));
+		properties.setProperty(KEY_TOKEN, token);
+		properties.setProperty(KEY_PID, String.valueOf(ProcessHandle.current().pid()));
+		Path target = daemonFile.getAbsoluteFile().toPath();
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), daemonFile.getName(), ".tmp");
+		try {
+			// the token must only be readable by the user running the daemon
+			if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+				Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-------"));
+			}
+			try (OutputStream os = Files.newOutputStream(temp)) {
+				properties.store(os, "MOSDL daemon");
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private void deleteDaemonFile() {
+		// another daemon may have been started meanwhile and replaced the file
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(daemonFile.toPath())) {
+			properties.load(is);
+			if (token.equals(properties.getProperty(KEY_TOKEN))) {
+				Files.delete(daemonFile.toPath());
+			}
+		} catch (IOException ex) {
+			logger.debug("Could not delete daemon file '{}'.", daemonFile, ex);
+		}
+	}
+
+	/**
+	 * Thrown instead of exiting the JVM when a command line run by the daemon terminates.
+	 */
+	private static class ExitRequest extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+		private final int status;
+
+		ExitRequest(int status) {
+			super(null, null, false, false);
+			this.status = status;
+		}
+	}
+
+	/**
+	 * Output stream sending everything written to it as frames of a given type to a client. Several
+	 * threads may write to the same response.
+	 */
+	private static class FrameOutputStream extends OutputStream {
+
+		private final DataOutputStream response;
+		private final byte frameType;
+
+		FrameOutputStream(DataOutputStream response, byte frameType) {
+			this.response = response;
+			this.frameType = frameType;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[]{(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return;
+			}
+			synchronized (response) {
+				response.writeByte(frameType);
+				response.writeInt(len);
+				response.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			synchronized (response) {
+				response.flush();
+			}
+		}
+	}
+}
@@ -2,11 +2,26 @@
 // SPDX-License-Identifier: Apache-2.0
 package de.dlr.gsoc.mcds.mosdl;
 
+import de.dlr.gsoc.mcds.mosdl.generators.DirectorySink;
 import de.dlr.gsoc.mcds.mosdl.generators.GeneratorException;
 import de.dlr.gsoc.mcds.mosdl.generators.MosdlGenerator;
+import de.dlr.gsoc.mcds.mosdl.generators.OutputSink;
 import de.dlr.gsoc.mcds.mosdl.loaders.LoaderException;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -19,12 +34,26 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Main class that is responsible for exposing the MOSDL compiler functionality as Maven plugin.
+ * <p>
+ * The state of each successful run is recorded in the build directory (see
+ * {@link MosdlBuildState}). A run is skipped if the plugin, its configuration and all files of the
+ * service specifications are unchanged and all generated files still exist. Otherwise, all
+ * specifications are compiled again and files generated by the previous run that are no longer
+ * generated are deleted, unless another execution of the project has generated them in the same
+ * target directory.
+ * <p>
+ * Loaded specifications are kept in a {@link SpecificationCache} for the whole Maven session, so
+ * that other executions and modules of the same build compiling the same unchanged specification
+ * do not load it again.
  */
-@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
 public class MosdlMojo extends AbstractMojo {
 
 	private static final Logger logger = LoggerFactory.getLogger(MosdlMojo.class);
 	private static final String GENERATED_SOURCES_SUBDIR = "generated-sources/mosdl/";
+	private static final String BUILD_STATE_SUBDIR = "mosdl-state/";
+	private static final String DEFAULT_EXECUTION_ID = "default";
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
 
 	@Parameter(property = "generate.serviceSpecs", required = true)
 	private List<File> serviceSpecs;
@@ -47,14 +76,35 @@ public class MosdlMojo extends AbstractMojo {
 	@Parameter(property = "generate.doc-type", defaultValue = "BULK")
 	private MosdlGenerator.DocType docType;
 
+	@Parameter(property = "generate.cacheDirectory")
+	private File cacheDirectory;
+
+	@Parameter(property = "generate.parallelism", defaultValue = "1")
+	private int parallelism;
+
+	@Parameter(property = "generate.specCacheSize", defaultValue = "64")
+	private int specCacheSize;
+
+	@Parameter(defaultValue = "${plugin.version}", readonly = true)
+	private String pluginVersion;
+
+	@Parameter(defaultValue = "${mojoExecution.executionId}", readonly = true)
+	private String executionId;
+
 	@Parameter(defaultValue = "${project}", required = true, readonly = true)
 	private MavenProject project;
 
+	@Parameter(defaultValue = "${session}", readonly = true)
+	private MavenSession session;
+
 	@Parameter(defaultValue = "${project.build.directory}")
 	private String projectBuildDir;
 
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
+		if (parallelism < 1) {
+			throw new MojoExecutionException("Parallelism must be at least 1.");
+		}
 		File targetDirectory = new File(projectBuildDir, GENERATED_SOURCES_SUBDIR);
 		targetDirectory.mkdirs();
 		project.addCompileSourceRoot(targetDirectory.toString());
@@ -66,20 +116,249 @@ public class MosdlMojo extends AbstractMojo {
 		boolean isCreateXsdBodyTypes = null != createXsdBodyTypes && createXsdBodyTypes;
 		boolean isSkipValidation = null != skipValidation && skipValidation;
 
-		Runner runner = new MosdlRunner(isSkipValidation, createXml, createMosdl, createXsd, isCreateXsdBodyTypes, docType);
+		// only options affecting the generated files, so that changing e.g. the parallelism does not trigger a new run
+		List<Object> configuration = Arrays.asList(serviceSpecs, targetDirectory, createXml, createMosdl, createXsd, isCreateXsdBodyTypes, isSkipValidation, docType);
+		File stateFile = new File(projectBuildDir, BUILD_STATE_SUBDIR + (null == executionId ? DEFAULT_EXECUTION_ID : executionId) + MosdlBuildState.STATE_FILE_ENDING);
+		// every input file is hashed only once, for the up-to-date check and the specification cache
+		InputDigests inputDigests;
+		MosdlBuildState currentState;
+		try {
+			inputDigests = InputDigests.of(serviceSpecs);
+			currentState = new MosdlBuildState(pluginVersion, configuration, serviceSpecs, inputDigests, targetDirectory);
+		} catch (IOException ex) {
+			throw new MojoExecutionException("Cannot determine state of service specifications.", ex);
+		}
+		MosdlBuildState previousState = MosdlBuildState.load(stateFile);
+		if (null != previousState && previousState.isUpToDate(currentState, targetDirectory)) {
+			logger.info("Generated files are up to date.");
+			return;
+		}
+		// a failing run must never leave a state behind that makes the next run skip compilation
+		stateFile.delete();
+
+		MosdlRunner runner = new MosdlRunner(isSkipValidation, createXml, createMosdl, createXsd, isCreateXsdBodyTypes, docType);
+		runner.setCacheDirectory(cacheDirectory);
+		SpecificationCache cache = getSpecificationCache();
+		String loaderConfiguration = "skipValidation=" + isSkipValidation;
+		SpecLoading loading = serviceFileOrDir -> null == cache
+				? runner.load(serviceFileOrDir)
+				: cache.get(serviceFileOrDir, runner.findSpecFiles(serviceFileOrDir), inputDigests, loaderConfiguration, () -> runner.load(serviceFileOrDir));
+		RecordingSink sink = new RecordingSink(new DirectorySink(targetDirectory));
+		int nThreads = Concurrency.getThreadCount(parallelism, serviceSpecs.size());
+		if (nThreads <= 1) {
+			for (File serviceFileOrDir : serviceSpecs) {
+				logger.info("Compiling service specification in '{}'.", serviceFileOrDir);
+				try {
+					compile(runner, loading, sink, serviceFileOrDir);
+				} catch (Exception ex) {
+					throw toMojoExecutionException(ex);
+				}
+				logger.debug("Compilation of '{}' successful.", serviceFileOrDir);
+			}
+		} else {
+			compileConcurrently(runner, loading, sink, nThreads);
+		}
+
+		currentState.addOutputs(sink.getNames());
+		if (null != previousState) {
+			List<String> staleOutputs = previousState.getStaleOutputs(currentState);
+			// other executions may generate into the same directory
+			staleOutputs.removeAll(MosdlBuildState.loadOtherOutputs(stateFile, targetDirectory));
+			for (String staleOutput : staleOutputs) {
+				File staleFile = new File(targetDirectory, staleOutput);
+				if (staleFile.delete()) {
+					logger.info("Deleted stale generated file '{}'.", staleFile);
+				}
+			}
+		}
+		try {
+			currentState.store(stateFile);
+		} catch (IOException ex) {
+			logger.warn("Could not write MOSDL build state '{}': {}", stateFile, ex.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Compiles all service specifications on a bounded thread pool.
+	 * <p>
+	 * All specifications are compiled even if some of them fail. Everything written to
+	 * {@code System.out} and {@code System.err} while compiling a specification, in particular log
+	 * messages, is recorded and written in the order of the configured specifications once all
+	 * compilations have finished, so that the output of different specifications does not
+	 * interleave. This relies on the logging implementation looking up these streams on every
+	 * message, as the one of Maven does; otherwise messages are written immediately as usual.
+	 */
+	private void compileConcurrently(MosdlRunner runner, SpecLoading loading, OutputSink sink, int nThreads) throws MojoExecutionException {
+		logger.info("Compiling {} service specifications using {} threads.", serviceSpecs.size(), nThreads);
+		List<OutputRecording> recordings = new ArrayList<>();
+		List<Concurrency.Task> tasks = new ArrayList<>();
+		InheritableThreadLocal<OutputStream> recordingOut = new InheritableThreadLocal<>();
+		InheritableThreadLocal<OutputStream> recordingErr = new InheritableThreadLocal<>();
+		PrintStream originalOut = System.out;
+		PrintStream originalErr = System.err;
 		for (File serviceFileOrDir : serviceSpecs) {
-			logger.info("Compiling service specification in '{}'.", serviceFileOrDir);
+			OutputRecording recording = new OutputRecording();
+			recordings.add(recording);
+			tasks.add(() -> {
+				recordingOut.set(recording.stream(originalOut));
+				recordingErr.set(recording.stream(originalErr));
+				try {
+					compile(runner, loading, sink, serviceFileOrDir);
+				} finally {
+					recordingOut.remove();
+					recordingErr.remove();
+				}
+			});
+		}
+		PrintStream routingOut = new PrintStream(new RoutingOutputStream(originalOut, recordingOut), true);
+		PrintStream routingErr = new PrintStream(new RoutingOutputStream(originalErr, recordingErr), true);
+		List<Throwable> failures;
+		System.setOut(routingOut);
+		System.setErr(routingErr);
+		try {
+			failures = Concurrency.invokeAll(tasks, nThreads);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new MojoExecutionException("Interrupted while compiling service specifications.", ex);
+		} finally {
+			// other executions running concurrently may have replaced the streams in the meantime
+			if (System.out == routingOut) {
+				System.setOut(originalOut);
+			}
+			if (System.err == routingErr) {
+				System.setErr(originalErr);
+			}
+		}
+		for (int i = 0; i < failures.size(); i++) {
+			recordings.get(i).replay();
+			if (null == failures.get(i)) {
+				logger.info("Compiled service specification in '{}'.", serviceSpecs.get(i));
+			} else {
+				logger.error("Compilation of service specification in '{}' failed: {}", serviceSpecs.get(i), failures.get(i).getMessage());
+			}
+		}
+		List<Throwable> actualFailures = failures.stream().filter(Objects::nonNull).collect(Collectors.toList());
+		if (actualFailures.size() == 1) {
+			throw toMojoExecutionException(actualFailures.get(0));
+		}
+		Concurrency.throwFailures(failures, "service specifications", MojoExecutionException.class, MojoExecutionException::new);
+	}
+
+	/**
+	 * Gets the specification cache of the current Maven session, creating it on first use. The
+	 * size configured by the first execution of the session applies.
+	 *
+	 * @return the cache or {@code null} if caching is disabled or there is no session
+	 */
+	private SpecificationCache getSpecificationCache() {
+		if (specCacheSize <= 0 || null == session || null == session.getRepositorySession()) {
+			return null;
+		}
+		long memoryLimit = specCacheSize * BYTES_PER_MEGABYTE;
+		return (SpecificationCache) session.getRepositorySession().getData()
+				.computeIfAbsent(SpecificationCache.class, () -> new SpecificationCache(memoryLimit));
+	}
+
+	private static void compile(MosdlRunner runner, SpecLoading loading, OutputSink sink, File serviceFileOrDir) throws LoaderException, GeneratorException {
+		Specification spec = loading.load(serviceFileOrDir);
+		runner.generate(spec, sink);
+	}
+
+	private static MojoExecutionException toMojoExecutionException(Throwable ex) {
+		if (ex instanceof LoaderException) {
+			return new MojoExecutionException("Specification load error.", ex);
+		} else if (ex instanceof GeneratorException) {
+			return new MojoExecutionException("Generator error.", ex);
+		}
+		return new MojoExecutionException("Unexpected failure.", ex);
+	}
+
+	/**
+	 * Records what is written to several streams, keeping the order of all writes, in order to
+	 * write it to these streams later on.
+	 */
+	private static class OutputRecording {
+
+		private final List<OutputStream> targets = new ArrayList<>();
+		private final List<byte[]> contents = new ArrayList<>();
+
+		/**
+		 * Creates a stream whose content is recorded for the given target stream.
+		 */
+		OutputStream stream(OutputStream target) {
+			return new OutputStream() {
+				@Override
+				public void write(int b) {
+					write(new byte[]{(byte) b}, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					record(target, Arrays.copyOfRange(b, off, off + len));
+				}
+			};
+		}
+
+		private synchronized void record(OutputStream target, byte[] content) {
+			targets.add(target);
+			contents.add(content);
+		}
+
+		/**
+		 * Writes everything recorded to the target streams.
+		 */
+		synchronized void replay() {
 			try {
-				runner.execute(targetDirectory, serviceFileOrDir);
-				logger.debug("Compilation of '{}' successful.", serviceFileOrDir);
-			} catch (LoaderException lEx) {
-				throw new MojoExecutionException("Specification load error.", lEx);
-			} catch (GeneratorException gEx) {
-				throw new MojoExecutionException("Generator error.", gEx);
-			} catch (Exception ex) {
-				throw new MojoExecutionException("Unexpected failure.", ex);
+				for (int i = 0; i < targets.size(); i++) {
+					targets.get(i).write(contents.get(i));
+				}
+				for (OutputStream target : new HashSet<>(targets)) {
+					target.flush();
+				}
+			} catch (IOException ex) {
+				logger.warn("Could not write output of service specification: {}", ex.getLocalizedMessage());
 			}
 		}
 	}
 
+	@FunctionalInterface
+	private interface SpecLoading {
+
+		Specification load(File serviceFileOrDir) throws LoaderException;
+	}
+
+	/**
+	 * Output sink recording the names of all files written to or found unchanged in another sink.
+	 */
+	private static class RecordingSink implements OutputSink {
+
+		private final OutputSink sink;
+		private final Set<String> names = ConcurrentHashMap.newKeySet();
+
+		RecordingSink(OutputSink sink) {
+			this.sink = sink;
+		}
+
+		Set<String> getNames() {
+			return names;
+		}
+
+		@Override
+		public boolean write(String name, ByteBuffer content) throws IOException {
+			names.add(name);
+			return sink.write(name, content);
+		}
+
+		@Override
+		public boolean write(String name, ContentWriter contentWriter) throws IOException, GeneratorException {
+			names.add(name);
+			return sink.write(name, contentWriter);
+		}
+
+		@Override
+		public String toString() {
+			return sink.toString();
+		}
+	}
+
 }
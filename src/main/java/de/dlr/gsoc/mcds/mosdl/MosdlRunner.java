@@ -9,6 +9,7 @@ import de.dlr.gsoc.mcds.mosdl.generators.XsdGenerator;
 import de.dlr.gsoc.mcds.mosdl.loaders.MosdlSpecLoader;
 import de.dlr.gsoc.mcds.mosdl.loaders.SpecLoader;
 import de.dlr.gsoc.mcds.mosdl.loaders.XmlSpecLoader;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -16,8 +17,8 @@ import java.util.List;
 /**
  * Class that ties together the following MO specifications loaders:
  * <ul>
- * <li>{@link XmlSpecLoader}
  * <li>{@link MosdlSpecLoader}
+ * <li>{@link XmlSpecLoader}
  * </ul>
  * with the following generators:
  * <ul>
@@ -33,6 +34,8 @@ public class MosdlRunner extends Runner {
 	private final boolean createXsd;
 	private final boolean isCreateXsdBodyTypes;
 	private final MosdlGenerator.DocType docType;
+	private int parallelism = 1;
+	private File cacheDirectory;
 
 	/**
 	 * Creates and configures a new runner for loading and transforming an MO specification.
@@ -59,11 +62,46 @@ public class MosdlRunner extends Runner {
 		this.isCreateXsdBodyTypes = isCreateXsdBodyTypes;
 	}
 
+	/**
+	 * Sets the maximum number of threads used for loading a specification, for running generators
+	 * and for writing MOSDL area files and XSD schema files.
+	 * <p>
+	 * Only the outermost of these levels uses threads, e.g. the files of a generator are written
+	 * sequentially if several generators are run concurrently (see {@link Concurrency}).
+	 *
+	 * @param parallelism the maximum number of threads; {@code 1} (the default) disables
+	 * concurrent loading and generation
+	 * @see #setGeneratorParallelism(int)
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		}
+		this.parallelism = parallelism;
+		setGeneratorParallelism(parallelism);
+	}
+
+	/**
+	 * Sets the directory for caching the results of loading MOSDL files across runs.
+	 *
+	 * @param cacheDirectory the cache directory or {@code null} (the default) to disable caching
+	 * @see MosdlSpecLoader#setCacheDirectory(File)
+	 */
+	public void setCacheDirectory(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
 	@Override
 	public List<SpecLoader> createSpecLoaders() {
+		MosdlSpecLoader mosdlSpecLoader = new MosdlSpecLoader(isSkipValidation);
+		mosdlSpecLoader.setParallelism(parallelism);
+		mosdlSpecLoader.setCacheDirectory(cacheDirectory);
+		XmlSpecLoader xmlSpecLoader = new XmlSpecLoader(isSkipValidation);
+		xmlSpecLoader.setParallelism(parallelism);
+		// MOSDL first, so that directories containing both MOSDL and XML files are loaded as MOSDL as before
 		List<SpecLoader> specLoaders = Arrays.asList(
-				new XmlSpecLoader(isSkipValidation),
-				new MosdlSpecLoader(isSkipValidation));
+				mosdlSpecLoader,
+				xmlSpecLoader);
 		return specLoaders;
 	}
 
@@ -75,10 +113,14 @@ public class MosdlRunner extends Runner {
 			generators.add(new XmlGenerator(isSkipValidation));
 		}
 		if (createMosdl) {
-			generators.add(new MosdlGenerator(docType));
+			MosdlGenerator mosdlGenerator = new MosdlGenerator(docType);
+			mosdlGenerator.setParallelism(parallelism);
+			generators.add(mosdlGenerator);
 		}
 		if (createXsd) {
-			generators.add(new XsdGenerator(docType != MosdlGenerator.DocType.SUPPRESS, isCreateXsdBodyTypes));
+			XsdGenerator xsdGenerator = new XsdGenerator(docType != MosdlGenerator.DocType.SUPPRESS, isCreateXsdBodyTypes);
+			xsdGenerator.setParallelism(parallelism);
+			generators.add(xsdGenerator);
 		}
 		return generators;
 	}
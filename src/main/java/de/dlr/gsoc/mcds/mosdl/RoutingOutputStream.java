@@ -0,0 +1,48 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream writing to the stream set for the current thread, or to an original stream if no
+ * stream is set. Used in place of {@code System.out} and {@code System.err} in order to separate
+ * the output of work running concurrently in the same JVM.
+ */
+class RoutingOutputStream extends OutputStream {
+
+	private final OutputStream original;
+	private final ThreadLocal<OutputStream> target;
+
+	/**
+	 * Creates a routing stream.
+	 *
+	 * @param original the stream written to by threads without a stream of their own
+	 * @param target the stream of each thread
+	 */
+	RoutingOutputStream(OutputStream original, ThreadLocal<OutputStream> target) {
+		this.original = original;
+		this.target = target;
+	}
+
+	private OutputStream current() {
+		OutputStream os = target.get();
+		return null == os ? original : os;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		current().write(b);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		current().write(b, off, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		current().flush();
+	}
+}
@@ -4,12 +4,20 @@ package de.dlr.gsoc.mcds.mosdl;
 
 import de.dlr.gsoc.mcds.mosdl.generators.Generator;
 import de.dlr.gsoc.mcds.mosdl.generators.GeneratorException;
+import de.dlr.gsoc.mcds.mosdl.generators.MemorySink;
+import de.dlr.gsoc.mcds.mosdl.generators.OutputSink;
 import de.dlr.gsoc.mcds.mosdl.loaders.LoaderException;
 import de.dlr.gsoc.mcds.mosdl.loaders.SpecLoader;
+import de.dlr.gsoc.mcds.mosdl.loaders.SpecSource;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import org.ccsds.schema.serviceschema.SpecificationType;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Class tying together MO specification loaders and generators.
@@ -23,9 +31,46 @@ import org.ccsds.schema.serviceschema.SpecificationType;
  * {@link SpecLoader#isLoadable()} returns {@code true}. Afterwards, all generators returned by an
  * implementation of {@link #createGenerators()} are used to generate other representations of the
  * service specification.
+ * <p>
+ * Generators are run one after another by default. They can also be run concurrently (see
+ * {@link #setGeneratorParallelism(int)}), because generators do not modify the specification and
+ * write disjoint outputs.
+ * <p>
+ * Generated files are written into a target directory or any other {@link OutputSink}. Generators
+ * only write files whose content has changed. The numbers of written and unchanged files
+ * are logged after all generators have been run.
  */
 public abstract class Runner {
 
+	private static final Logger logger = LoggerFactory.getLogger(Runner.class);
+
+	private int generatorParallelism = 1;
+
+	/**
+	 * Sets the maximum number of generators that are run concurrently.
+	 * <p>
+	 * When running generators concurrently, all generators are run even if one of them fails, and
+	 * all failures are reported together.
+	 *
+	 * @param generatorParallelism the maximum number of generators run at the same time; {@code 1}
+	 * (the default) runs all generators sequentially
+	 */
+	public void setGeneratorParallelism(int generatorParallelism) {
+		if (generatorParallelism < 1) {
+			throw new IllegalArgumentException("Generator parallelism must be at least 1.");
+		}
+		this.generatorParallelism = generatorParallelism;
+	}
+
+	/**
+	 * Gets the maximum number of generators that are run concurrently.
+	 *
+	 * @return the maximum number of generators run at the same time
+	 */
+	public int getGeneratorParallelism() {
+		return generatorParallelism;
+	}
+
 	/**
 	 * Creates possible MO specification loaders responsible for loading specifications from
 	 * different sources.
@@ -51,20 +96,188 @@ public abstract class Runner {
 	 * meaning of this parameter depends on the concrete service loader.
 	 * @throws LoaderException thrown if a supplied specification cannot be loaded
 	 * @throws GeneratorException thrown if a generator encounters a severe problem. Subsequent
-	 * generators are not run.
+	 * generators are not run, unless generators are run concurrently.
 	 */
 	public void execute(File targetDirectory, File... input) throws LoaderException, GeneratorException {
+		generate(load(input), targetDirectory);
+	}
+
+	/**
+	 * Loads an MO service specification from arbitrary sources using an appropriate loader and
+	 * generates all possible representations.
+	 * <p>
+	 * This allows for loading specifications held in memory or on the class path without writing
+	 * them to files first.
+	 *
+	 * @param targetDirectory the target directory where generators shall put their generated
+	 * service representations
+	 * @param input the input sources making up a single MO service specification. The meaning of
+	 * this parameter depends on the concrete service loader.
+	 * @throws LoaderException thrown if a supplied specification cannot be loaded
+	 * @throws GeneratorException thrown if a generator encounters a severe problem. Subsequent
+	 * generators are not run, unless generators are run concurrently.
+	 * @see SpecLoader#setSources(SpecSource...)
+	 */
+	public void execute(File targetDirectory, SpecSource... input) throws LoaderException, GeneratorException {
+		generate(load(input), targetDirectory);
+	}
+
+	/**
+	 * Loads an MO service specification using an appropriate loader and generates all possible
+	 * representations into an output sink.
+	 *
+	 * @param sink the sink receiving the generated service representations of all generators
+	 * @param input the input files or directories making up a single MO service specification. The
+	 * meaning of this parameter depends on the concrete service loader.
+	 * @throws LoaderException thrown if a supplied specification cannot be loaded
+	 * @throws GeneratorException thrown if a generator encounters a severe problem. Subsequent
+	 * generators are not run, unless generators are run concurrently.
+	 */
+	public void execute(OutputSink sink, File... input) throws LoaderException, GeneratorException {
+		generate(load(input), sink);
+	}
+
+	/**
+	 * Loads an MO service specification from arbitrary sources using an appropriate loader and
+	 * generates all possible representations into an output sink.
+	 * <p>
+	 * Together with an in-memory source and a {@link MemorySink}, a specification can be processed
+	 * without any file system access.
+	 *
+	 * @param sink the sink receiving the generated service representations of all generators
+	 * @param input the input sources making up a single MO service specification. The meaning of
+	 * this parameter depends on the concrete service loader.
+	 * @throws LoaderException thrown if a supplied specification cannot be loaded
+	 * @throws GeneratorException thrown if a generator encounters a severe problem. Subsequent
+	 * generators are not run, unless generators are run concurrently.
+	 * @see SpecLoader#setSources(SpecSource...)
+	 */
+	public void execute(OutputSink sink, SpecSource... input) throws LoaderException, GeneratorException {
+		generate(load(input), sink);
+	}
+
+	/**
+	 * Loads an MO service specification using an appropriate loader and builds its model.
+	 * <p>
+	 * Together with {@link #generate(Specification, File)}, this allows for generating from a
+	 * specification loaded earlier, e.g. from a cache. The model may be shared by several runners.
+	 *
+	 * @param input the input files or directories making up a single MO service specification. The
+	 * meaning of this parameter depends on the concrete service loader.
+	 * @return the model of the loaded specification
+	 * @throws LoaderException thrown if a supplied specification cannot be loaded
+	 */
+	public Specification load(File... input) throws LoaderException {
+		return load(loader -> loader.setInput(input));
+	}
+
+	/**
+	 * Loads an MO service specification from arbitrary sources using an appropriate loader and
+	 * builds its model.
+	 *
+	 * @param input the input sources making up a single MO service specification. The meaning of
+	 * this parameter depends on the concrete service loader.
+	 * @return the model of the loaded specification
+	 * @throws LoaderException thrown if a supplied specification cannot be loaded
+	 * @see #load(File...)
+	 */
+	public Specification load(SpecSource... input) throws LoaderException {
+		return load(loader -> loader.setSources(input));
+	}
+
+	/**
+	 * Finds the files that {@link #load(File...)} would read, using the same loader.
+	 * <p>
+	 * This allows for checking whether a specification has changed without loading it.
+	 *
+	 * @param input the input files or directories making up a single MO service specification
+	 * @return the specification files in loading order
+	 * @throws LoaderException thrown if no loader is found for the input or an input directory
+	 * cannot be searched
+	 * @see SpecLoader#findSpecFiles()
+	 */
+	public List<SpecSource> findSpecFiles(File... input) throws LoaderException {
+		try {
+			return findLoader(loader -> loader.setInput(input)).findSpecFiles();
+		} catch (IOException ex) {
+			throw new LoaderException(ex);
+		}
+	}
+
+	/**
+	 * Generates all possible representations of a loaded MO service specification.
+	 *
+	 * @param spec the model of the specification
+	 * @param targetDirectory the target directory where generators shall put their generated
+	 * service representations
+	 * @throws GeneratorException thrown if a generator encounters a severe problem. Subsequent
+	 * generators are not run, unless generators are run concurrently.
+	 */
+	public void generate(Specification spec, File targetDirectory) throws GeneratorException {
+		generate(spec, targetDirectory, generator -> generator.generate(spec, targetDirectory));
+	}
+
+	/**
+	 * Generates all possible representations of a loaded MO service specification into an output
+	 * sink.
+	 *
+	 * @param spec the model of the specification
+	 * @param sink the sink receiving the generated service representations of all generators
+	 * @throws GeneratorException thrown if a generator encounters a severe problem. Subsequent
+	 * generators are not run, unless generators are run concurrently.
+	 */
+	public void generate(Specification spec, OutputSink sink) throws GeneratorException {
+		generate(spec, sink, generator -> generator.generate(spec, sink));
+	}
+
+	private Specification load(Consumer<SpecLoader> inputSetter) throws LoaderException {
+		// the model is built only once and shared by all generators
+		return Specification.of(findLoader(inputSetter).load());
+	}
+
+	private SpecLoader findLoader(Consumer<SpecLoader> inputSetter) throws LoaderException {
 		List<SpecLoader> specLoaders = createSpecLoaders();
-		specLoaders.forEach(loader -> loader.setInput(input));
+		specLoaders.forEach(inputSetter);
 		Optional<SpecLoader> loader = specLoaders.stream().filter(SpecLoader::isLoadable).findFirst();
 		if (!loader.isPresent()) {
 			throw new LoaderException("No loader found for supplied service description.");
 		}
-		SpecificationType spec = loader.get().load();
+		return loader.get();
+	}
 
+	private void generate(Specification spec, Object target, GeneratorCall generatorCall) throws GeneratorException {
 		List<Generator> generators = createGenerators();
+		int nThreads = Concurrency.getThreadCount(generatorParallelism, generators.size());
+		if (nThreads <= 1) {
+			for (Generator generator : generators) {
+				generatorCall.generate(generator);
+			}
+		} else {
+			generateConcurrently(generators, nThreads, generatorCall);
+		}
+		int nWrittenFiles = 0;
+		int nUnchangedFiles = 0;
+		for (Generator generator : generators) {
+			nWrittenFiles += generator.getWrittenFileCount();
+			nUnchangedFiles += generator.getUnchangedFileCount();
+		}
+		logger.info("Generated files in '{}': {} written, {} unchanged.", target, nWrittenFiles, nUnchangedFiles);
+	}
+
+	private static void generateConcurrently(List<Generator> generators, int nThreads, GeneratorCall generatorCall) throws GeneratorException {
+		List<Concurrency.Task> tasks = new ArrayList<>();
 		for (Generator generator : generators) {
-			generator.generate(spec, targetDirectory);
+			tasks.add(() -> generatorCall.generate(generator));
 		}
+		Concurrency.invokeAll(tasks, nThreads, "generators", GeneratorException.class, GeneratorException::new);
+	}
+
+	/**
+	 * Runs a single generator on the loaded specification, writing to the requested target.
+	 */
+	@FunctionalInterface
+	private interface GeneratorCall {
+
+		void generate(Generator generator) throws GeneratorException;
 	}
 }
@@ -0,0 +1,241 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import de.dlr.gsoc.mcds.mosdl.loaders.LoaderException;
+import de.dlr.gsoc.mcds.mosdl.loaders.SpecSource;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory cache of loaded specifications, shared by all executions of the Maven plugin in the
+ * same Maven session.
+ * <p>
+ * Entries are keyed by the canonical path of a service specification file or directory, a hash of
+ * the names and content hashes of the specification files the loader reads from it (see
+ * {@link Runner#findSpecFiles(File...)}) and the loader configuration. The content hashes are taken
+ * from the {@link InputDigests} of the execution, so that files are not read again. Other files, e.g. generated
+ * files in the same directory, do not affect the key. They hold the immutable
+ * specification model, which may be used by several generators and threads at the same time. A
+ * specification requested by several threads at once is only loaded once.
+ * <p>
+ * The memory held by the cache is limited. The memory needed by an entry is estimated from the
+ * size of its specification files. If the limit is exceeded, the least recently used entries are evicted.
+ * Specifications that exceed the limit on their own are not cached at all.
+ */
+class SpecificationCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpecificationCache.class);
+
+	/**
+	 * Factor for estimating the memory held by a loaded specification from the size of its files.
+	 * The JAXB specification and the model together take about 13 bytes per byte of MOSDL, which
+	 * is rounded up to leave room for differently structured specifications.
+	 */
+	static final int MEMORY_PER_FILE_BYTE = 16;
+
+	private final long memoryLimit;
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long usedMemory = 0;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param memoryLimit the maximum estimated memory in bytes held by all cached specifications
+	 */
+	SpecificationCache(long memoryLimit) {
+		this.memoryLimit = memoryLimit;
+	}
+
+	/**
+	 * Gets the maximum estimated memory held by all cached specifications.
+	 *
+	 * @return the memory limit in bytes
+	 */
+	long getMemoryLimit() {
+		return memoryLimit;
+	}
+
+	/**
+	 * Gets the estimated memory held by all cached specifications.
+	 *
+	 * @return the used memory in bytes
+	 */
+	synchronized long getUsedMemory() {
+		return usedMemory;
+	}
+
+	/**
+	 * Gets the number of cached specifications.
+	 *
+	 * @return the number of entries
+	 */
+	synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Gets a cached specification or loads and caches it.
+	 *
+	 * @param serviceSpec the service specification file or directory
+	 * @param specFiles the specification files the loader reads from {@code serviceSpec}, which
+	 * are hashed in the given order; directories among them are hashed with all files below them
+	 * @param inputDigests the hashes of the files of the execution; files not among them are hashed
+	 * on demand
+	 * @param configuration the loader configuration affecting the loaded specification
+	 * @param loader loads the specification if it is not cached
+	 * @return the cached or loaded specification
+	 * @throws LoaderException thrown if the specification cannot be loaded or its files cannot be
+	 * read
+	 */
+	Specification get(File serviceSpec, List<SpecSource> specFiles, InputDigests inputDigests, String configuration, SpecificationLoader loader) throws LoaderException {
+		Fingerprint fingerprint;
+		try {
+			fingerprint = Fingerprint.of(serviceSpec, specFiles, inputDigests, configuration);
+		} catch (IOException ex) {
+			throw new LoaderException(ex);
+		}
+		long memory = MEMORY_PER_FILE_BYTE * fingerprint.size;
+		if (memory > memoryLimit) {
+			logger.debug("Specification '{}' is too large to be cached.", serviceSpec);
+			return loader.load();
+		}
+
+		Entry entry;
+		boolean isLoading = false;
+		synchronized (this) {
+			entry = entries.get(fingerprint.key);
+			if (null == entry) {
+				entry = new Entry(memory);
+				entries.put(fingerprint.key, entry);
+				usedMemory += memory;
+				evict();
+				isLoading = true;
+			}
+		}
+		if (isLoading) {
+			try {
+				entry.spec.complete(loader.load());
+			} catch (LoaderException | RuntimeException ex) {
+				// failures are not cached, so that the next request loads the specification again
+				remove(fingerprint.key, entry);
+				entry.spec.completeExceptionally(ex);
+				throw ex;
+			}
+		} else {
+			logger.debug("Reusing specification '{}' loaded before in this session.", serviceSpec);
+		}
+		try {
+			return entry.spec.get();
+		} catch (ExecutionException ex) {
+			throw ex.getCause() instanceof LoaderException ? (LoaderException) ex.getCause() : new LoaderException(ex.getCause());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoaderException("Interrupted while waiting for specification '" + serviceSpec + "' to be loaded.", ex);
+		}
+	}
+
+	private synchronized void remove(String key, Entry entry) {
+		if (entries.remove(key, entry)) {
+			usedMemory -= entry.memory;
+		}
+	}
+
+	private void evict() {
+		Iterator<Entry> it = entries.values().iterator();
+		while (usedMemory > memoryLimit && it.hasNext()) {
+			Entry eldest = it.next();
+			it.remove();
+			usedMemory -= eldest.memory;
+		}
+	}
+
+	/**
+	 * Loads a specification that is not cached.
+	 */
+	@FunctionalInterface
+	interface SpecificationLoader {
+
+		Specification load() throws LoaderException;
+	}
+
+	private static class Entry {
+
+		private final CompletableFuture<Specification> spec = new CompletableFuture<>();
+		private final long memory;
+
+		Entry(long memory) {
+			this.memory = memory;
+		}
+	}
+
+	/**
+	 * Cache key and size of the files of a service specification.
+	 */
+	private static class Fingerprint {
+
+		private final String key;
+		private final long size;
+
+		private Fingerprint(String key, long size) {
+			this.key = key;
+			this.size = size;
+		}
+
+		static Fingerprint of(File serviceSpec, List<SpecSource> specFiles, InputDigests inputDigests, String configuration) throws IOException {
+			Path root = serviceSpec.toPath().toAbsolutePath().normalize();
+			MessageDigest digest = Digests.sha256();
+			long size = 0;
+			for (SpecSource specFile : specFiles) {
+				if (specFile.isDirectory()) {
+					List<Path> files;
+					try (Stream<Path> paths = Files.walk(specFile.getPath(), FileVisitOption.FOLLOW_LINKS)) {
+						files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+					}
+					for (Path file : files) {
+						size += update(digest, root, SpecSource.of(file), inputDigests);
+					}
+				} else {
+					size += update(digest, root, specFile, inputDigests);
+				}
+			}
+			return new Fingerprint(serviceSpec.getCanonicalPath() + "|" + configuration + "|" + Digests.toHex(digest.digest()), size);
+		}
+
+		private static long update(MessageDigest digest, Path root, SpecSource specFile, InputDigests inputDigests) throws IOException {
+			// relative names, so that the same directory given by different paths yields the same key
+			Path path = specFile.getPath();
+			boolean isLocalFile = null != path && path.getFileSystem() == root.getFileSystem();
+			String name = isLocalFile ? root.relativize(path.toAbsolutePath().normalize()).toString() : specFile.toString();
+			digest.update(name.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			InputDigests.FileDigest fileDigest;
+			if (isLocalFile) {
+				fileDigest = inputDigests.get(path);
+			} else {
+				try (InputStream is = specFile.openStream()) {
+					fileDigest = InputDigests.FileDigest.of(is);
+				}
+			}
+			fileDigest.update(digest);
+			return fileDigest.getSize();
+		}
+	}
+}
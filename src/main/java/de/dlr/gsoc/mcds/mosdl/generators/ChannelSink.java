@@ -0,0 +1,74 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output sink writing each generated file to a channel supplied by the caller.
+ * <p>
+ * The channel for a file is requested from a {@link ChannelFactory} right before writing the file
+ * and closed afterwards. The factory may be called concurrently for different files.
+ */
+public final class ChannelSink implements OutputSink {
+
+	private final ChannelFactory channelFactory;
+
+	/**
+	 * Creates a sink writing to channels supplied by a factory.
+	 *
+	 * @param channelFactory the factory supplying a channel for each generated file
+	 */
+	public ChannelSink(ChannelFactory channelFactory) {
+		this.channelFactory = channelFactory;
+	}
+
+	@Override
+	public boolean write(String name, ByteBuffer content) throws IOException {
+		try (WritableByteChannel channel = channelFactory.open(name)) {
+			ByteBuffer bytes = content.duplicate();
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The content is streamed to the channel without holding it in memory.
+	 */
+	@Override
+	public boolean write(String name, ContentWriter contentWriter) throws IOException, GeneratorException {
+		try (OutputStream os = Channels.newOutputStream(channelFactory.open(name))) {
+			contentWriter.write(os);
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "channels";
+	}
+
+	/**
+	 * Supplies the channels generated files are written to.
+	 */
+	@FunctionalInterface
+	public interface ChannelFactory {
+
+		/**
+		 * Opens the channel a generated file is written to.
+		 *
+		 * @param name the name of the generated file
+		 * @return an open channel, which is closed after the file has been written
+		 * @throws IOException thrown if the channel cannot be opened
+		 */
+		WritableByteChannel open(String name) throws IOException;
+	}
+}
@@ -0,0 +1,154 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import de.dlr.gsoc.mcds.mosdl.Digests;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Output sink writing generated files into a directory.
+ * <p>
+ * Files are only written if their content has changed. Unchanged files keep their modification
+ * time, so that subsequent build steps do not consider them as changed. Changed files are written
+ * to a temporary file in the same directory first, which then atomically replaces the target file.
+ * Thus, a target file is never left partially written. Missing directories are created.
+ */
+public final class DirectorySink implements OutputSink {
+
+	private static final Logger logger = LoggerFactory.getLogger(DirectorySink.class);
+
+	private final Path directory;
+
+	/**
+	 * Creates a sink writing into a directory.
+	 *
+	 * @param directory the directory to write generated files into
+	 */
+	public DirectorySink(File directory) {
+		this(directory.toPath());
+	}
+
+	/**
+	 * Creates a sink writing into a directory, which may also be located on a file system other
+	 * than the default one.
+	 *
+	 * @param directory the directory to write generated files into
+	 */
+	public DirectorySink(Path directory) {
+		this.directory = directory.normalize();
+	}
+
+	/**
+	 * Gets the directory generated files are written into.
+	 *
+	 * @return the target directory
+	 */
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The file is not written if it already exists with the same content.
+	 */
+	@Override
+	public boolean write(String name, ByteBuffer content) throws IOException {
+		Path target = resolve(name);
+		if (Files.isRegularFile(target) && Files.size(target) == content.remaining()
+				&& ByteBuffer.wrap(Files.readAllBytes(target)).equals(content)) {
+			logger.debug("File '{}' is unchanged.", target);
+			return false;
+		}
+		Path temp = createTempPath(target);
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				ByteBuffer bytes = content.duplicate();
+				while (bytes.hasRemaining()) {
+					channel.write(bytes);
+				}
+			}
+			replace(temp, target);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The content is streamed to a temporary file while computing its hash. The temporary file
+	 * replaces the target file if the target file does not exist or if its size or hash differ.
+	 * Otherwise, the temporary file is deleted.
+	 */
+	@Override
+	public boolean write(String name, ContentWriter contentWriter) throws IOException, GeneratorException {
+		Path target = resolve(name);
+		Path temp = createTempPath(target);
+		try {
+			MessageDigest digest = Digests.sha256();
+			try (OutputStream os = new DigestOutputStream(Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), digest)) {
+				contentWriter.write(os);
+			}
+			if (Files.isRegularFile(target) && Files.size(target) == Files.size(temp)
+					&& Arrays.equals(digest.digest(), hash(target))) {
+				logger.debug("File '{}' is unchanged.", target);
+				return false;
+			}
+			replace(temp, target);
+			return true;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return directory.toString();
+	}
+
+	private Path resolve(String name) throws IOException {
+		Path target = directory.resolve(name).normalize();
+		if (!target.startsWith(directory) || target.equals(directory)) {
+			throw new IOException("File name '" + name + "' does not denote a file inside directory '" + directory + "'.");
+		}
+		Files.createDirectories(target.getParent());
+		return target;
+	}
+
+	private static void replace(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException ex) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		logger.debug("Wrote file '{}'.", target);
+	}
+
+	private static Path createTempPath(Path target) {
+		// a hidden sibling, so that it is on the same file system and can be moved atomically
+		return target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+	}
+
+	private static byte[] hash(Path file) throws IOException {
+		MessageDigest digest = Digests.sha256();
+		Digests.update(digest, file);
+		return digest.digest();
+	}
+}
@@ -4,9 +4,13 @@ package de.dlr.gsoc.mcds.mosdl.generators;
 
 import de.dlr.gsoc.mcds.mosdl.InteractionStage;
 import de.dlr.gsoc.mcds.mosdl.InteractionType;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
 import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import jakarta.xml.bind.JAXBElement;
 import org.ccsds.schema.serviceschema.AnyTypeReference;
 import org.ccsds.schema.serviceschema.InvokeOperationType;
@@ -22,10 +26,21 @@ import org.ccsds.schema.serviceschema.SubmitOperationType;
 /**
  * Base class for any generator that generates artifacts from an MO service specification.
  * <p>
- * Usually a generator should be configured when creating it.
+ * Usually a generator should be configured when creating it. Generators work on the immutable
+ * {@link Specification} model, which is built once from the loaded specification. The static
+ * helpers of this class work on the JAXB representation and are kept for callers that do not use
+ * the model.
+ * <p>
+ * Generated files are written to an {@link OutputSink}, e.g. a directory, memory or an archive.
+ * When writing into a directory, files are only written if their content has changed (see
+ * {@link DirectorySink}). Unchanged files keep their modification time, so that subsequent build
+ * steps do not consider them as changed.
  */
 public abstract class Generator {
 
+	private final AtomicInteger nWrittenFiles = new AtomicInteger();
+	private final AtomicInteger nUnchangedFiles = new AtomicInteger();
+
 	/**
 	 * Convenience method to get the interaction pattern of an operation.
 	 *
@@ -51,13 +66,129 @@ public abstract class Generator {
 
 	/**
 	 * Performs generation of artifacts based on a supplied MO service specification.
+	 * <p>
+	 * This is a convenience method that builds the specification model and generates the artifacts
+	 * from it. When running several generators on the same specification, build the model only
+	 * once and use {@link #generate(Specification, File)} instead.
 	 *
 	 * @param spec the specification to create artifacts for
 	 * @param targetDirectory the directory where to put the generated artifacts. Depending on the
 	 * generator it can also be possible to supply a file here.
 	 * @throws GeneratorException thrown if any error occurs during generating the artifacts
 	 */
-	public abstract void generate(SpecificationType spec, File targetDirectory) throws GeneratorException;
+	public void generate(SpecificationType spec, File targetDirectory) throws GeneratorException {
+		generate(Specification.of(spec), targetDirectory);
+	}
+
+	/**
+	 * Performs generation of artifacts based on a supplied MO service specification, writing them
+	 * to an output sink.
+	 * <p>
+	 * This is a convenience method that builds the specification model and generates the artifacts
+	 * from it. When running several generators on the same specification, build the model only
+	 * once and use {@link #generate(Specification, OutputSink)} instead.
+	 *
+	 * @param spec the specification to create artifacts for
+	 * @param sink the sink receiving the generated artifacts
+	 * @throws GeneratorException thrown if any error occurs during generating the artifacts
+	 */
+	public void generate(SpecificationType spec, OutputSink sink) throws GeneratorException {
+		generate(Specification.of(spec), sink);
+	}
+
+	/**
+	 * Performs generation of artifacts based on the model of an MO service specification.
+	 * <p>
+	 * The default implementation writes the artifacts with a {@link DirectorySink}.
+	 *
+	 * @param spec the specification model to create artifacts for
+	 * @param targetDirectory the directory where to put the generated artifacts. Depending on the
+	 * generator it can also be possible to supply a file here.
+	 * @throws GeneratorException thrown if any error occurs during generating the artifacts
+	 */
+	public void generate(Specification spec, File targetDirectory) throws GeneratorException {
+		generate(spec, new DirectorySink(targetDirectory));
+	}
+
+	/**
+	 * Performs generation of artifacts based on the model of an MO service specification, writing
+	 * them to an output sink.
+	 * <p>
+	 * Implementations must not modify the specification the model has been built from, because
+	 * several generators may work on the same model concurrently. They should write their files
+	 * with {@link #writeFile(OutputSink, String, ByteBuffer)} or
+	 * {@link #writeFile(OutputSink, String, OutputSink.ContentWriter)}.
+	 *
+	 * @param spec the specification model to create artifacts for
+	 * @param sink the sink receiving the generated artifacts
+	 * @throws GeneratorException thrown if any error occurs during generating the artifacts
+	 */
+	public abstract void generate(Specification spec, OutputSink sink) throws GeneratorException;
+
+	/**
+	 * Gets the number of files written by this generator, because they did not exist or their
+	 * content has changed.
+	 *
+	 * @return the number of files written since this generator has been created
+	 */
+	public int getWrittenFileCount() {
+		return nWrittenFiles.get();
+	}
+
+	/**
+	 * Gets the number of files not written by this generator, because they already existed with the
+	 * same content.
+	 *
+	 * @return the number of unchanged files since this generator has been created
+	 */
+	public int getUnchangedFileCount() {
+		return nUnchangedFiles.get();
+	}
+
+	/**
+	 * Writes a generated file to an output sink and counts it as written or unchanged.
+	 * <p>
+	 * This method may be called concurrently for different files.
+	 *
+	 * @param sink the sink to write to
+	 * @param name the name of the file relative to the sink
+	 * @param content the complete content of the file; its position and limit are not modified
+	 * @throws GeneratorException thrown if the file cannot be written
+	 */
+	protected final void writeFile(OutputSink sink, String name, ByteBuffer content) throws GeneratorException {
+		try {
+			count(sink.write(name, content));
+		} catch (IOException ex) {
+			throw new GeneratorException(ex);
+		}
+	}
+
+	/**
+	 * Writes a generated file to an output sink without necessarily holding the complete content
+	 * in memory, and counts it as written or unchanged.
+	 * <p>
+	 * This method may be called concurrently for different files.
+	 *
+	 * @param sink the sink to write to
+	 * @param name the name of the file relative to the sink
+	 * @param contentWriter writes the complete content of the file to the stream it is supplied
+	 * @throws GeneratorException thrown if the file cannot be written or the content writer fails
+	 */
+	protected final void writeFile(OutputSink sink, String name, OutputSink.ContentWriter contentWriter) throws GeneratorException {
+		try {
+			count(sink.write(name, contentWriter));
+		} catch (IOException ex) {
+			throw new GeneratorException(ex);
+		}
+	}
+
+	private void count(boolean isWritten) {
+		if (isWritten) {
+			nWrittenFiles.incrementAndGet();
+		} else {
+			nUnchangedFiles.incrementAndGet();
+		}
+	}
 
 	/**
 	 * Convenience class for holding details about a single message of an operation.
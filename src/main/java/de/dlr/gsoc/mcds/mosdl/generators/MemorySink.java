@@ -0,0 +1,61 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Output sink keeping generated files in memory.
+ * <p>
+ * This allows for passing generated files on to the next processing step, e.g. a validator,
+ * without writing them to the file system. Writing a file with a name that has already been
+ * written replaces its content.
+ */
+public final class MemorySink implements OutputSink {
+
+	private final Map<String, byte[]> files = new ConcurrentSkipListMap<>();
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Returns {@code false} if a file with the same name and content has been written before.
+	 */
+	@Override
+	public boolean write(String name, ByteBuffer content) {
+		byte[] bytes = new byte[content.remaining()];
+		content.duplicate().get(bytes);
+		return !Arrays.equals(bytes, files.put(name, bytes));
+	}
+
+	/**
+	 * Gets all files written to this sink.
+	 * <p>
+	 * The returned map is an unmodifiable view sorted by file name. The contained arrays must not
+	 * be modified.
+	 *
+	 * @return a map from file name to file content
+	 */
+	public Map<String, byte[]> getFiles() {
+		return Collections.unmodifiableMap(files);
+	}
+
+	/**
+	 * Gets the content of a single file written to this sink.
+	 *
+	 * @param name the name of the file
+	 * @return the content of the file, which must not be modified, or {@code null} if no file with
+	 * this name has been written
+	 */
+	public byte[] getContent(String name) {
+		return files.get(name);
+	}
+
+	@Override
+	public String toString() {
+		return "memory";
+	}
+}
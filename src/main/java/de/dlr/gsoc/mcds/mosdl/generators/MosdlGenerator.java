@@ -2,50 +2,39 @@
 // SPDX-License-Identifier: Apache-2.0
 package de.dlr.gsoc.mcds.mosdl.generators;
 
+import de.dlr.gsoc.mcds.mosdl.Concurrency;
 import de.dlr.gsoc.mcds.mosdl.InteractionStage;
 import de.dlr.gsoc.mcds.mosdl.InteractionType;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileOutputStream;
+import de.dlr.gsoc.mcds.mosdl.model.Area;
+import de.dlr.gsoc.mcds.mosdl.model.CapabilitySet;
+import de.dlr.gsoc.mcds.mosdl.model.DataType;
+import de.dlr.gsoc.mcds.mosdl.model.EnumerationItem;
+import de.dlr.gsoc.mcds.mosdl.model.ErrorDefinition;
+import de.dlr.gsoc.mcds.mosdl.model.ExtraInformation;
+import de.dlr.gsoc.mcds.mosdl.model.Field;
+import de.dlr.gsoc.mcds.mosdl.model.Message;
+import de.dlr.gsoc.mcds.mosdl.model.Operation;
+import de.dlr.gsoc.mcds.mosdl.model.OperationError;
+import de.dlr.gsoc.mcds.mosdl.model.Service;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
+import de.dlr.gsoc.mcds.mosdl.model.TypeRef;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import org.ccsds.schema.serviceschema.AreaType;
-import org.ccsds.schema.serviceschema.AttributeType;
-import org.ccsds.schema.serviceschema.CapabilitySetType;
-import org.ccsds.schema.serviceschema.CompositeType;
-import org.ccsds.schema.serviceschema.ElementReferenceWithCommentType;
-import org.ccsds.schema.serviceschema.EnumerationType;
-import org.ccsds.schema.serviceschema.ErrorDefinitionType;
-import org.ccsds.schema.serviceschema.ErrorReferenceType;
-import org.ccsds.schema.serviceschema.FundamentalType;
-import org.ccsds.schema.serviceschema.InvokeOperationType;
-import org.ccsds.schema.serviceschema.NamedElementReferenceWithCommentType;
-import org.ccsds.schema.serviceschema.OperationType;
-import org.ccsds.schema.serviceschema.ProgressOperationType;
-import org.ccsds.schema.serviceschema.PubSubOperationType;
-import org.ccsds.schema.serviceschema.RequestOperationType;
-import org.ccsds.schema.serviceschema.ServiceType;
-import org.ccsds.schema.serviceschema.SpecificationType;
-import org.ccsds.schema.serviceschema.SubmitOperationType;
-import org.ccsds.schema.serviceschema.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Class for generating MOSDL files from an MO service specification.
  * <p>
- * Each area is put in its own file.
+ * Each area is put in its own file. Area files are independent of each other and can be written
+ * concurrently (see {@link #setParallelism(int)}).
  */
 public class MosdlGenerator extends Generator {
 
@@ -58,12 +47,10 @@ public class MosdlGenerator extends Generator {
 			"Attribute", "Composite", "Element"));
 	private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("area", "service", "composite", "enum", "attribute", "fundamental", "error", "extends", "import", "throws", "abstract", "capability", "send", "submit", "request", "invoke", "progress", "pubsub"));
 	private static final Map<InteractionStage, String> stageToTagMap = new HashMap<>();
+	private static final Map<InteractionType, String> interactionToKeywordMap = new EnumMap<>(InteractionType.class);
 
 	private final DocType docType;
-	private Writer currentWriter = null;
-	private int currentIndent = 0;
-	private AreaType currentArea;
-	private ServiceType currentService;
+	private int parallelism = 1;
 
 	static {
 		for (InteractionStage stage : InteractionStage.values()) {
@@ -72,6 +59,9 @@ public class MosdlGenerator extends Generator {
 					.reduce("", (s1, s2) -> s2);
 			stageToTagMap.put(stage, tagName);
 		}
+		for (InteractionType interaction : InteractionType.values()) {
+			interactionToKeywordMap.put(interaction, interaction.name().toLowerCase());
+		}
 	}
 
 	/**
@@ -103,496 +93,506 @@ public class MosdlGenerator extends Generator {
 		this.docType = docType;
 	}
 
-	@Override
-	public void generate(SpecificationType spec, File targetDirectory) throws GeneratorException {
-		logger.debug("Generating MOSDL file(s) into directory '{}'.", targetDirectory);
-		for (AreaType area : spec.getArea()) {
-			currentArea = area;
-			File targetFile = new File(targetDirectory, area.getName() + MOSDL_SPEC_FILE_ENDING);
-			logger.debug("Generating MOSDL file '{}'.", targetFile);
-			try {
-				currentWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(targetFile), StandardCharsets.UTF_8));
-				writeDoc(area.getComment());
-				writeLine("area ", getId(area.getName()), " [", area.getNumber(), area.getVersion() == 1 ? "" : "." + area.getVersion(), "]");
-				writeLine();
-				// TODO: imports
-				for (ServiceType service : area.getService()) {
-					currentService = service;
-					writeDoc(service.getComment());
-					writeLine("service ", getId(service.getName()), " [", service.getNumber(), "] {");
-					indent();
-					for (CapabilitySetType cs : service.getCapabilitySet()) {
-						writeDoc(cs.getComment());
-						writeLine("capability [", cs.getNumber(), "] {");
-						indent();
-						for (OperationType op : cs.getSendIPOrSubmitIPOrRequestIP()) {
-							InteractionType interaction = getInteractionType(op);
-							List<MessageDetails> messages = MessageDetails.fromOp(op);
-							List<Object> errors = getErrorsFromOp(op, interaction);
-							boolean hasErrorDoc = errors.stream().anyMatch(e -> hasErrorDoc(e));
-							writeOpDoc(op, messages, errors, hasErrorDoc);
-							writeIndent();
-							write(interaction.name().toLowerCase(), " ");
-							if (op.isSupportInReplay()) {
-								write("*");
-							}
-							write(getId(op.getName()), " [", op.getNumber(), "] ");
-							indent();
-							switch (interaction) {
-								case SEND:
-									writeMessage(null, messages.get(0));
-									break;
-								case SUBMIT:
-									writeMessage(null, messages.get(0));
-									break;
-								case REQUEST:
-									writeMessage(null, messages.get(0));
-									writeMessage("-> ", messages.get(1));
-									break;
-								case INVOKE:
-									writeMessage(null, messages.get(0));
-									writeMessage("-> ", messages.get(1));
-									writeMessage("-> ", messages.get(2));
-									break;
-								case PROGRESS:
-									writeMessage(null, messages.get(0));
-									writeMessage("-> ", messages.get(1));
-									writeMessage("-> ", messages.get(2));
-									write("*");
-									writeMessage("-> ", messages.get(3));
-									break;
-								case PUBSUB:
-									write(" <- ");
-									writeMessage(null, messages.get(0));
-									break;
-							}
-							if (!errors.isEmpty()) {
-								writeLine();
-								writeIndent();
-								write("throws");
-								boolean isMultiline = hasErrorDoc && docType == DocType.INLINE;
-								if (isMultiline) {
-									indent();
-									writeLine();
-									Iterator<Object> errorIter = errors.iterator();
-									while (errorIter.hasNext()) {
-										Object error = errorIter.next();
-										if (error instanceof ErrorReferenceType) {
-											writeDoc(((ErrorReferenceType) error).getComment());
-										} else if (error instanceof ErrorDefinitionType) {
-											writeDoc(((ErrorDefinitionType) error).getComment());
-										}
-										writeIndent();
-										writeOpError(error);
-										if (errorIter.hasNext()) {
-											write(",");
-											writeLine();
-										}
-									}
-									outdent();
-								} else {
-									write(" ");
-									Iterator<Object> errorIter = errors.iterator();
-									while (errorIter.hasNext()) {
-										Object error = errorIter.next();
-										writeOpError(error);
-										if (errorIter.hasNext()) {
-											write(", ");
-										}
-									}
-								}
-							}
-							outdent();
-							writeLine();
-							writeLine();
-						}
-						outdent();
-						writeLine("}");
-						writeLine();
-					}
-					if (null != service.getDataTypes()) {
-						for (Object dataType : service.getDataTypes().getCompositeOrEnumeration()) {
-							writeDataType(dataType);
-							writeLine();
-						}
-					}
-					writeErrors(service.getErrors());
-					outdent();
-					writeLine("}");
-					writeLine();
-					currentService = null;
-				}
+	/**
+	 * Sets the maximum number of area files written concurrently.
+	 * <p>
+	 * The content of the generated files does not depend on this setting.
+	 *
+	 * @param parallelism the maximum number of threads; {@code 1} (the default) writes all area
+	 * files sequentially
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		}
+		this.parallelism = parallelism;
+	}
 
-				if (null != area.getDataTypes()) {
-					for (Object dataType : area.getDataTypes().getFundamentalOrAttributeOrComposite()) {
-						writeDataType(dataType);
-						writeLine();
-					}
-				}
+	/**
+	 * Gets the maximum number of area files written concurrently.
+	 *
+	 * @return the maximum number of threads
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
 
-				writeErrors(area.getErrors());
-				currentArea = null;
-				currentWriter.close();
-				logger.debug("Generated MOSDL file '{}", targetFile);
-			} catch (IOException ex) {
-				throw new GeneratorException(ex);
+	@Override
+	public void generate(Specification spec, OutputSink sink) throws GeneratorException {
+		logger.debug("Generating MOSDL file(s) into '{}'.", sink);
+		List<Area> areas = spec.getAreas();
+		int nThreads = Concurrency.getThreadCount(parallelism, areas.size());
+		if (nThreads <= 1) {
+			for (Area area : areas) {
+				generateAreaFile(area, sink);
 			}
+		} else {
+			generateAreaFilesConcurrently(areas, nThreads, sink);
 		}
-		logger.debug("Generated all MOSDL files for the supplied specification into directory '{}'.", targetDirectory);
+		logger.debug("Generated all MOSDL files for the supplied specification into '{}'.", sink);
 	}
 
-	private void writeMessage(String prefix, MessageDetails msg) throws IOException {
-		if (null != prefix || (docType == DocType.INLINE && null != msg.getComment())) {
-			writeLine();
+	private void generateAreaFilesConcurrently(List<Area> areas, int nThreads, OutputSink sink) throws GeneratorException {
+		List<Concurrency.Task> tasks = new ArrayList<>();
+		for (Area area : areas) {
+			tasks.add(() -> generateAreaFile(area, sink));
 		}
-		if (docType == DocType.INLINE) {
-			writeDoc(msg.getComment());
+		Concurrency.invokeAll(tasks, nThreads, "MOSDL files", GeneratorException.class, GeneratorException::new);
+	}
+
+	private void generateAreaFile(Area area, OutputSink sink) throws GeneratorException {
+		String filename = area.getName() + MOSDL_SPEC_FILE_ENDING;
+		logger.debug("Generating MOSDL file '{}'.", filename);
+		try {
+			TextEmitter out = new TextEmitter();
+			new AreaWriter(area, out).writeArea();
+			writeFile(sink, filename, out.encode());
+		} catch (IOException ex) {
+			throw new GeneratorException(ex);
+		}
+		logger.debug("Generated MOSDL file '{}", filename);
+	}
+
+	private static String getId(String id) {
+		if (KEYWORDS.contains(id)) {
+			return "\"" + id + "\"";
+		}
+		return id;
+	}
+
+	/**
+	 * Writer context for a single area file.
+	 * <p>
+	 * It holds all state needed while writing an area, so that several areas can be written at
+	 * the same time by separate instances.
+	 */
+	private class AreaWriter {
+
+		private final Area currentArea;
+		private final TextEmitter out;
+		private final TextEmitter docBuffer = new TextEmitter(1024);
+		private Service currentService;
+
+		AreaWriter(Area area, TextEmitter out) {
+			this.currentArea = area;
+			this.out = out;
 		}
-		if (null != prefix) {
-			writeIndent();
+
+		void writeArea() {
+			writeDoc(currentArea.getComment());
+			out.startLine().append("area ").append(getId(currentArea.getName())).append(" [").append(currentArea.getNumber());
+			if (currentArea.getVersion() != 1) {
+				out.append('.').append(currentArea.getVersion());
+			}
+			out.append(']').endLine();
+			out.endLine();
+			// TODO: imports
+			for (Service service : currentArea.getServices()) {
+				currentService = service;
+				writeDoc(service.getComment());
+				out.startLine().append("service ").append(getId(service.getName())).append(" [").append(service.getNumber()).append("] {").endLine();
+				out.indent();
+				for (CapabilitySet cs : service.getCapabilitySets()) {
+					writeDoc(cs.getComment());
+					out.startLine().append("capability [").append(cs.getNumber()).append("] {").endLine();
+					out.indent();
+					for (Operation op : cs.getOperations()) {
+						writeOperation(op);
+					}
+					out.outdent();
+					out.startLine().append('}').endLine();
+					out.endLine();
+				}
+				for (DataType dataType : service.getDataTypes()) {
+					writeDataType(dataType);
+					out.endLine();
+				}
+				writeErrors(service.getErrors());
+				out.outdent();
+				out.startLine().append('}').endLine();
+				out.endLine();
+				currentService = null;
+			}
+
+			for (DataType dataType : currentArea.getDataTypes()) {
+				writeDataType(dataType);
+				out.endLine();
+			}
+
+			writeErrors(currentArea.getErrors());
 		}
-		write(prefix, "(");
-		boolean isMultiline = docType == DocType.INLINE && msg.getFields().stream().anyMatch(field -> null != field.getComment());
-		if (isMultiline) {
-			writeLine();
-			indent();
+
+		private void writeOperation(Operation op) {
+			InteractionType interaction = op.getInteractionType();
+			List<Message> messages = op.getMessages();
+			List<OperationError> errors = op.getErrors();
+			boolean hasErrorDoc = false;
+			for (OperationError error : errors) {
+				hasErrorDoc |= error.hasDoc();
+			}
+			writeOpDoc(op, messages, errors, hasErrorDoc);
+			out.startLine().append(interactionToKeywordMap.get(interaction)).append(' ');
+			if (op.isSupportInReplay()) {
+				out.append('*');
+			}
+			out.append(getId(op.getName())).append(" [").append(op.getNumber()).append("] ");
+			out.indent();
+			switch (interaction) {
+				case SEND:
+					writeMessage(null, messages.get(0));
+					break;
+				case SUBMIT:
+					writeMessage(null, messages.get(0));
+					break;
+				case REQUEST:
+					writeMessage(null, messages.get(0));
+					writeMessage("-> ", messages.get(1));
+					break;
+				case INVOKE:
+					writeMessage(null, messages.get(0));
+					writeMessage("-> ", messages.get(1));
+					writeMessage("-> ", messages.get(2));
+					break;
+				case PROGRESS:
+					writeMessage(null, messages.get(0));
+					writeMessage("-> ", messages.get(1));
+					writeMessage("-> ", messages.get(2));
+					out.append('*');
+					writeMessage("-> ", messages.get(3));
+					break;
+				case PUBSUB:
+					out.append(" <- ");
+					writeMessage(null, messages.get(0));
+					break;
+			}
+			if (!errors.isEmpty()) {
+				out.endLine();
+				out.startLine().append("throws");
+				boolean isMultiline = hasErrorDoc && docType == DocType.INLINE;
+				if (isMultiline) {
+					out.indent();
+					out.endLine();
+					for (int i = 0; i < errors.size(); i++) {
+						OperationError error = errors.get(i);
+						writeDoc(error.getComment());
+						out.startLine();
+						writeOpError(error);
+						if (i < errors.size() - 1) {
+							out.append(',').endLine();
+						}
+					}
+					out.outdent();
+				} else {
+					out.append(' ');
+					for (int i = 0; i < errors.size(); i++) {
+						writeOpError(errors.get(i));
+						if (i < errors.size() - 1) {
+							out.append(", ");
+						}
+					}
+				}
+			}
+			out.outdent();
+			out.endLine();
+			out.endLine();
 		}
-		Iterator<NamedElementReferenceWithCommentType> fieldIter = msg.getFields().iterator();
-		while (fieldIter.hasNext()) {
-			NamedElementReferenceWithCommentType field = fieldIter.next();
+
+		private void writeMessage(String prefix, Message msg) {
+			if (null != prefix || (docType == DocType.INLINE && null != msg.getComment())) {
+				out.endLine();
+			}
 			if (docType == DocType.INLINE) {
-				writeDoc(field.getComment());
+				writeDoc(msg.getComment());
+			}
+			if (null != prefix) {
+				out.startLine();
+			}
+			out.append(prefix).append('(');
+			List<Field> fields = msg.getFields();
+			boolean isMultiline = false;
+			if (docType == DocType.INLINE) {
+				for (Field field : fields) {
+					isMultiline |= null != field.getComment();
+				}
 			}
 			if (isMultiline) {
-				writeIndent();
+				out.endLine();
+				out.indent();
 			}
-			write(getId(field.getName()), ": ", resolveType(field.getType(), field.isCanBeNull()));
-			if (fieldIter.hasNext()) {
-				write(", ");
+			for (int i = 0; i < fields.size(); i++) {
+				Field field = fields.get(i);
+				if (docType == DocType.INLINE) {
+					writeDoc(field.getComment());
+				}
+				if (isMultiline) {
+					out.startLine();
+				}
+				out.append(getId(field.getName())).append(": ");
+				appendType(out, field.getType(), field.isCanBeNull());
+				if (i < fields.size() - 1) {
+					out.append(", ");
+				}
+				if (isMultiline) {
+					out.endLine();
+				}
 			}
 			if (isMultiline) {
-				writeLine();
+				out.outdent();
+				out.startLine();
 			}
+			out.append(')');
 		}
-		if (isMultiline) {
-			outdent();
-			writeIndent();
-		}
-		write(")");
-	}
 
-	private void writeDataType(Object dataType) throws IOException {
-		if (dataType instanceof CompositeType) {
-			CompositeType composite = (CompositeType) dataType;
-			writeDoc(composite.getComment());
-			boolean isAbstract = null == composite.getShortFormPart() || 0 == composite.getShortFormPart();
-			writeIndent();
-			if (isAbstract) {
-				write("abstract ");
-			}
-			write("composite ", getId(composite.getName()));
-			if (!isAbstract) {
-				write(" [", composite.getShortFormPart(), "]");
-			}
-			if (!isAbstract && null != composite.getExtends()) {
-				write(" extends ", resolveType(composite.getExtends().getType()));
-			}
-			write(" {");
-			writeLine();
-			indent();
-			for (NamedElementReferenceWithCommentType field : composite.getField()) {
-				writeDoc(field.getComment());
-				writeLine(getId(field.getName()), ": ", resolveType(field.getType(), field.isCanBeNull()));
-			}
-			outdent();
-			writeLine("}");
-		} else if (dataType instanceof EnumerationType) {
-			EnumerationType enumeration = (EnumerationType) dataType;
-			writeDoc(enumeration.getComment());
-			writeLine("enum ", getId(enumeration.getName()), " [", enumeration.getShortFormPart(), "] {");
-			indent();
-			for (EnumerationType.Item item : enumeration.getItem()) {
-				writeDoc(item.getComment());
-				writeLine(getId(item.getValue()), " [", item.getNvalue(), "]");
-			}
-			outdent();
-			writeLine("}");
-		} else if (dataType instanceof AttributeType) {
-			AttributeType attribute = (AttributeType) dataType;
-			writeDoc(attribute.getComment());
-			writeLine("attribute ", getId(attribute.getName()), " [", attribute.getShortFormPart(), "]");
-		} else if (dataType instanceof FundamentalType) {
-			FundamentalType fundamental = (FundamentalType) dataType;
-			String extension = "";
-			if (null != fundamental.getExtends()) {
-				extension = " extends " + resolveType(fundamental.getExtends().getType());
-			}
-			writeDoc(fundamental.getComment());
-			writeLine("fundamental ", getId(fundamental.getName()), extension);
+		private void writeDataType(DataType dataType) {
+			switch (dataType.getKind()) {
+				case COMPOSITE:
+					writeDoc(dataType.getComment());
+					boolean isAbstract = dataType.isAbstract();
+					out.startLine();
+					if (isAbstract) {
+						out.append("abstract ");
+					}
+					out.append("composite ").append(getId(dataType.getName()));
+					if (!isAbstract) {
+						out.append(" [").append(dataType.getShortFormPart()).append(']');
+					}
+					if (!isAbstract && null != dataType.getExtendsType()) {
+						out.append(" extends ");
+						appendType(out, dataType.getExtendsType(), false);
+					}
+					out.append(" {").endLine();
+					out.indent();
+					for (Field field : dataType.getFields()) {
+						writeDoc(field.getComment());
+						out.startLine().append(getId(field.getName())).append(": ");
+						appendType(out, field.getType(), field.isCanBeNull());
+						out.endLine();
+					}
+					out.outdent();
+					out.startLine().append('}').endLine();
+					break;
+				case ENUMERATION:
+					writeDoc(dataType.getComment());
+					out.startLine().append("enum ").append(getId(dataType.getName())).append(" [").append(dataType.getShortFormPart()).append("] {").endLine();
+					out.indent();
+					for (EnumerationItem item : dataType.getItems()) {
+						writeDoc(item.getComment());
+						out.startLine().append(getId(item.getValue())).append(" [").append(item.getNvalue()).append(']').endLine();
+					}
+					out.outdent();
+					out.startLine().append('}').endLine();
+					break;
+				case ATTRIBUTE:
+					writeDoc(dataType.getComment());
+					out.startLine().append("attribute ").append(getId(dataType.getName())).append(" [").append(dataType.getShortFormPart()).append(']').endLine();
+					break;
+				case FUNDAMENTAL:
+					writeDoc(dataType.getComment());
+					out.startLine().append("fundamental ").append(getId(dataType.getName()));
+					if (null != dataType.getExtendsType()) {
+						out.append(" extends ");
+						appendType(out, dataType.getExtendsType(), false);
+					}
+					out.endLine();
+					break;
+			}
 		}
-	}
 
-	private void writeErrors(List<ErrorDefinitionType> errorList) throws IOException {
-		if (null == errorList) {
-			return;
-		}
-		for (ErrorDefinitionType error : errorList) {
-			writeDoc(error.getComment());
-			writeIndent();
-			writeError(error, true);
-			writeLine();
-			writeLine();
+		private void writeErrors(List<ErrorDefinition> errorList) {
+			for (ErrorDefinition error : errorList) {
+				writeDoc(error.getComment());
+				out.startLine();
+				writeError(error, true);
+				out.endLine();
+				out.endLine();
+			}
 		}
-	}
 
-	private String resolveType(TypeReference typeRef) {
-		return resolveType(typeRef, false);
-	}
+		private void appendType(TextEmitter target, TypeRef typeRef, boolean isCanBeNull) {
+			boolean isFundamental = MAL_AREA.equals(typeRef.getArea())
+					&& null == typeRef.getService()
+					&& MAL_FUNDAMENTALS.contains(typeRef.getName());
+			boolean isSameArea = currentArea.getName().equals(typeRef.getArea());
+			boolean isSameService = null != currentService && currentService.getName().equals(typeRef.getService());
 
-	private String resolveType(TypeReference typeRef, boolean isCanBeNull) {
-		boolean isFundamental = MAL_AREA.equals(typeRef.getArea())
-				&& null == typeRef.getService()
-				&& MAL_FUNDAMENTALS.contains(typeRef.getName());
-		boolean isSameArea = null != currentArea && currentArea.getName().equals(typeRef.getArea());
-		boolean isSameService = null != currentService && currentService.getName().equals(typeRef.getService());
-
-		StringBuilder sb = new StringBuilder();
-		if (typeRef.isList()) {
-			sb.append("List");
-			if (isCanBeNull) {
-				sb.append("?");
+			if (typeRef.isList()) {
+				target.append("List");
+				if (isCanBeNull) {
+					target.append('?');
+				}
+				target.append('<');
+			}
+			if (!isFundamental && !(isSameArea && isSameService)) { // Simple check for same area alone can lead to wrong type references if a type with same name is present in the service and the area.
+				target.append(getId(typeRef.getArea()));
+				target.append("::");
+			}
+			if (null != typeRef.getService() && !isSameService) {
+				target.append(getId(typeRef.getService()));
+				target.append('.');
+			}
+			target.append(getId(typeRef.getName()));
+			if (!typeRef.isList() && isCanBeNull) {
+				target.append('?');
+			}
+			if (typeRef.isList()) {
+				target.append('>');
 			}
-			sb.append("<");
-		}
-		if (!isFundamental && !(isSameArea && isSameService)) { // Simple check for same area alone can lead to wrong type references if a type with same name is present in the service and the area.
-			sb.append(getId(typeRef.getArea()));
-			sb.append("::");
-		}
-		if (null != typeRef.getService() && !isSameService) {
-			sb.append(getId(typeRef.getService()));
-			sb.append(".");
-		}
-		sb.append(getId(typeRef.getName()));
-		if (!typeRef.isList() && isCanBeNull) {
-			sb.append("?");
-		}
-		if (typeRef.isList()) {
-			sb.append(">");
-		}
-		return sb.toString();
-	}
-
-	private void writeOpError(Object error) throws IOException {
-		if (error instanceof ErrorReferenceType) {
-			writeError((ErrorReferenceType) error);
-		} else if (error instanceof ErrorDefinitionType) {
-			writeError((ErrorDefinitionType) error, false);
 		}
-	}
-
-	private void writeError(ErrorReferenceType errorRef) throws IOException {
-		write(resolveType(errorRef.getType()));
-		writeErrorExtraInfo(errorRef.getExtraInformation(), false);
-	}
 
-	private void writeError(ErrorDefinitionType error, boolean isAreaOrServiceLevel) throws IOException {
-		write("error ", getId(error.getName()), " [", error.getNumber(), "]");
-		writeErrorExtraInfo(error.getExtraInformation(), isAreaOrServiceLevel);
-	}
-
-	private void writeErrorExtraInfo(ElementReferenceWithCommentType extraInfo, boolean isAreaOrServiceLevel) throws IOException {
-		if (null != extraInfo) {
-			if ((isAreaOrServiceLevel || docType == DocType.INLINE) && null != extraInfo.getComment()) {
-				write(":");
-				writeLine();
-				indent();
-				writeDoc(extraInfo.getComment());
-				writeIndent();
-				write(resolveType(extraInfo.getType()));
-				outdent();
+		private void writeOpError(OperationError error) {
+			if (error.isReference()) {
+				appendType(out, error.getReference(), false);
+				writeErrorExtraInfo(error.getExtraInformation(), false);
 			} else {
-				write(": ", resolveType(extraInfo.getType()));
+				writeError(error.getDefinition(), false);
 			}
 		}
-	}
 
-	private void writeOpDoc(OperationType op, List<MessageDetails> messages, List<Object> errors, boolean hasErrorDoc) throws IOException {
-		switch (docType) {
-			case SUPPRESS:
-				return;
-			case INLINE:
-				writeDoc(op.getComment());
-				return;
-			case BULK:
-			// continue
-			default:
-			// continue
+		private void writeError(ErrorDefinition error, boolean isAreaOrServiceLevel) {
+			out.append("error ").append(getId(error.getName())).append(" [").append(error.getNumber()).append(']');
+			writeErrorExtraInfo(error.getExtraInformation(), isAreaOrServiceLevel);
 		}
 
-		StringBuilder sb = new StringBuilder(null == op.getComment() ? "" : op.getComment());
-		for (MessageDetails msg : messages) {
-			if (null != msg.getComment() || !msg.getFields().isEmpty()) {
-				sb.append(System.lineSeparator());
-			}
-			// write message doc
-			if (null != msg.getComment()) {
-				sb.append(System.lineSeparator());
-				sb.append("@");
-				sb.append(stageToTagMap.get(msg.getStage()));
-				sb.append(": ");
-				sb.append(msg.getComment());
-			}
-			for (NamedElementReferenceWithCommentType field : msg.getFields()) {
-				// write message field doc
-				if (null != field.getComment()) {
-					sb.append(System.lineSeparator());
-					sb.append("@");
-					sb.append(stageToTagMap.get(msg.getStage()));
-					sb.append("param ");
-					sb.append(field.getName());
-					sb.append(": ");
-					sb.append(field.getComment());
+		private void writeErrorExtraInfo(ExtraInformation extraInfo, boolean isAreaOrServiceLevel) {
+			if (null != extraInfo) {
+				if ((isAreaOrServiceLevel || docType == DocType.INLINE) && null != extraInfo.getComment()) {
+					out.append(':').endLine();
+					out.indent();
+					writeDoc(extraInfo.getComment());
+					out.startLine();
+					appendType(out, extraInfo.getType(), false);
+					out.outdent();
+				} else {
+					out.append(": ");
+					appendType(out, extraInfo.getType(), false);
 				}
 			}
 		}
 
-		if (hasErrorDoc) {
-			sb.append(System.lineSeparator());
-		}
-		for (Object error : errors) {
-			// write error doc
-			String errorName;
-			String errorComment;
-			String extraComment;
-			if (error instanceof ErrorReferenceType) {
-				ErrorReferenceType errRef = (ErrorReferenceType) error;
-				errorName = resolveType(errRef.getType());
-				errorComment = errRef.getComment();
-				extraComment = null == errRef.getExtraInformation() ? null : errRef.getExtraInformation().getComment();
-			} else if (error instanceof ErrorDefinitionType) {
-				ErrorDefinitionType errDef = (ErrorDefinitionType) error;
-				errorName = errDef.getName();
-				errorComment = errDef.getComment();
-				extraComment = null == errDef.getExtraInformation() ? null : errDef.getExtraInformation().getComment();
-			} else {
-				continue;
-			}
-			if (null != errorComment) {
-				sb.append(System.lineSeparator());
-				sb.append("@error ");
-				sb.append(errorName);
-				sb.append(": ");
-				sb.append(errorComment);
-			}
-			if (null != extraComment) {
-				sb.append(System.lineSeparator());
-				sb.append("@errorinfo ");
-				sb.append(errorName);
-				sb.append(": ");
-				sb.append(extraComment);
+		private void writeOpDoc(Operation op, List<Message> messages, List<OperationError> errors, boolean hasErrorDoc) {
+			switch (docType) {
+				case SUPPRESS:
+					return;
+				case INLINE:
+					writeDoc(op.getComment());
+					return;
+				case BULK:
+				// continue
+				default:
+				// continue
 			}
-		}
 
-		String doc = sb.toString();
-		if (doc.trim().isEmpty()) {
-			return;
-		}
-		writeDoc(doc);
-	}
-
-	private List<Object> getErrorsFromOp(OperationType op, InteractionType interaction) {
-		List<Object> errors;
-		switch (interaction) {
-			case SEND:
-				return Collections.emptyList();
-			case SUBMIT:
-				errors = ((SubmitOperationType) op).getErrors();
-				break;
-			case REQUEST:
-				errors = ((RequestOperationType) op).getErrors();
-				break;
-			case INVOKE:
-				errors = ((InvokeOperationType) op).getErrors();
-				break;
-			case PROGRESS:
-				errors = ((ProgressOperationType) op).getErrors();
-				break;
-			case PUBSUB:
-				errors = ((PubSubOperationType) op).getErrors();
-				break;
-			default:
-				return Collections.emptyList();
-		}
-		if (null == errors) {
-			return Collections.emptyList();
-		}
-		return errors;
-	}
+			TextEmitter sb = docBuffer;
+			sb.reset();
+			sb.append(op.getComment());
+			for (Message msg : messages) {
+				if (null != msg.getComment() || !msg.getFields().isEmpty()) {
+					sb.endLine();
+				}
+				// write message doc
+				if (null != msg.getComment()) {
+					sb.endLine();
+					sb.append('@');
+					sb.append(stageToTagMap.get(msg.getStage()));
+					sb.append(": ");
+					sb.append(msg.getComment());
+				}
+				for (Field field : msg.getFields()) {
+					// write message field doc
+					if (null != field.getComment()) {
+						sb.endLine();
+						sb.append('@');
+						sb.append(stageToTagMap.get(msg.getStage()));
+						sb.append("param ");
+						sb.append(field.getName());
+						sb.append(": ");
+						sb.append(field.getComment());
+					}
+				}
+			}
 
-	private boolean hasErrorDoc(Object error) {
-		if (error instanceof ErrorDefinitionType) {
-			ErrorDefinitionType e = (ErrorDefinitionType) error;
-			return null != e.getComment() || (null != e.getExtraInformation() && null != e.getExtraInformation().getComment());
-		} else if (error instanceof ErrorReferenceType) {
-			ErrorReferenceType e = (ErrorReferenceType) error;
-			return null != e.getComment() || (null != e.getExtraInformation() && null != e.getExtraInformation().getComment());
-		}
-		return false;
-	}
+			if (hasErrorDoc) {
+				sb.endLine();
+			}
+			for (OperationError error : errors) {
+				// write error doc
+				String errorComment = error.getComment();
+				String extraComment = null == error.getExtraInformation() ? null : error.getExtraInformation().getComment();
+				if (null != errorComment) {
+					sb.endLine();
+					sb.append("@error ");
+					appendErrorName(sb, error);
+					sb.append(": ");
+					sb.append(errorComment);
+				}
+				if (null != extraComment) {
+					sb.endLine();
+					sb.append("@errorinfo ");
+					appendErrorName(sb, error);
+					sb.append(": ");
+					sb.append(extraComment);
+				}
+			}
 
-	private void writeDoc(CharSequence doc) throws IOException {
-		if (docType == DocType.SUPPRESS || null == doc) {
-			return;
-		}
-		if (doc.toString().contains("\n")) {
-			writeLine("\"\"\"");
-			String[] docLines = doc.toString().trim().split("\\r\\n|\\n");
-			for (String line : docLines) {
-				writeLine(line);
+			if (isBlank(sb, 0, sb.length())) {
+				return;
 			}
-			writeLine("\"\"\"");
-		} else {
-			writeLine("/// ", doc);
+			writeDoc(sb);
 		}
-	}
 
-	private void writeLine(Object... text) throws IOException {
-		if (null != text && text.length != 0) {
-			writeIndent();
-			write(text);
+		private void appendErrorName(TextEmitter target, OperationError error) {
+			if (error.isReference()) {
+				appendType(target, error.getReference(), false);
+			} else {
+				target.append(error.getDefinition().getName());
+			}
 		}
-		write(System.lineSeparator());
-	}
-
-	private void writeIndent() throws IOException {
-		write(String.join("", Collections.nCopies(currentIndent, "\t")));
-	}
-
-	private void indent() {
-		currentIndent++;
-	}
 
-	private void outdent() {
-		currentIndent--;
-		if (currentIndent < 0) {
-			currentIndent = 0;
+		private void writeDoc(CharSequence doc) {
+			if (docType == DocType.SUPPRESS || null == doc) {
+				return;
+			}
+			int start = 0;
+			int end = doc.length();
+			if (indexOf(doc, '\n', start, end) < 0) {
+				out.startLine().append("/// ").append(doc).endLine();
+				return;
+			}
+			// same as String.trim()
+			while (start < end && doc.charAt(start) <= ' ') {
+				start++;
+			}
+			while (end > start && doc.charAt(end - 1) <= ' ') {
+				end--;
+			}
+			out.startLine().append("\"\"\"").endLine();
+			int lineStart = start;
+			for (int lineBreak = indexOf(doc, '\n', lineStart, end); lineBreak >= 0; lineBreak = indexOf(doc, '\n', lineStart, end)) {
+				int lineEnd = lineBreak > lineStart && '\r' == doc.charAt(lineBreak - 1) ? lineBreak - 1 : lineBreak;
+				out.startLine().append(doc, lineStart, lineEnd).endLine();
+				lineStart = lineBreak + 1;
+			}
+			out.startLine().append(doc, lineStart, end).endLine();
+			out.startLine().append("\"\"\"").endLine();
 		}
 	}
 
-	private void write(Object... text) throws IOException {
-		if (null == text) {
-			return;
-		}
-		for (Object cs : text) {
-			currentWriter.append(Objects.toString(cs, ""));
+	private static int indexOf(CharSequence text, char c, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (c == text.charAt(i)) {
+				return i;
+			}
 		}
+		return -1;
 	}
 
-	private String getId(String id) {
-		if (KEYWORDS.contains(id)) {
-			return "\"" + id + "\"";
+	private static boolean isBlank(CharSequence text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (text.charAt(i) > ' ') {
+				return false;
+			}
 		}
-		return id;
+		return true;
 	}
 
 }
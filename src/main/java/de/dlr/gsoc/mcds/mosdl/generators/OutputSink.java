@@ -0,0 +1,70 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Destination of the files generated by a {@link Generator}.
+ * <p>
+ * Generated files are identified by a name relative to the sink, using '/' as separator, e.g.
+ * {@code "area.mosdl"}. Available implementations write files into a directory
+ * ({@link DirectorySink}), keep them in memory ({@link MemorySink}), write them as entries of a zip
+ * or jar archive ({@link ZipSink}) or to channels supplied by the caller ({@link ChannelSink}).
+ * <p>
+ * Implementations must be thread-safe, because generators may write several files concurrently.
+ */
+public interface OutputSink {
+
+	/**
+	 * Writes a generated file.
+	 *
+	 * @param name the name of the file relative to this sink
+	 * @param content the complete content of the file; its position and limit are not modified
+	 * @return {@code true} if the file has been written, {@code false} if the sink already
+	 * contained the file with the same content
+	 * @throws IOException thrown if the file cannot be written
+	 */
+	boolean write(String name, ByteBuffer content) throws IOException;
+
+	/**
+	 * Writes a generated file whose content is streamed.
+	 * <p>
+	 * The default implementation collects the content in memory and writes it with
+	 * {@link #write(String, ByteBuffer)}. Implementations should override this method if they can
+	 * store the content without holding all of it in memory.
+	 *
+	 * @param name the name of the file relative to this sink
+	 * @param contentWriter writes the complete content of the file to the stream it is supplied
+	 * @return {@code true} if the file has been written, {@code false} if the sink already
+	 * contained the file with the same content
+	 * @throws IOException thrown if the file cannot be written
+	 * @throws GeneratorException thrown if the content writer fails
+	 */
+	default boolean write(String name, ContentWriter contentWriter) throws IOException, GeneratorException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		contentWriter.write(os);
+		return write(name, ByteBuffer.wrap(os.toByteArray()));
+	}
+
+	/**
+	 * Writes the content of a generated file.
+	 *
+	 * @see OutputSink#write(String, ContentWriter)
+	 */
+	@FunctionalInterface
+	interface ContentWriter {
+
+		/**
+		 * Writes the complete content of a file.
+		 *
+		 * @param os the stream to write to; it is closed by the caller
+		 * @throws IOException thrown if writing to the stream fails
+		 * @throws GeneratorException thrown if the content cannot be generated
+		 */
+		void write(OutputStream os) throws IOException, GeneratorException;
+	}
+}
@@ -0,0 +1,232 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffer for emitting indented text, e.g. a generated source file.
+ * <p>
+ * Text is appended to a growable character buffer without creating intermediate strings: Numbers
+ * are converted digit by digit, indentation is copied from a shared prefix of tabs and character
+ * sequences are copied directly. The complete text is encoded as UTF-8 once with
+ * {@link #encode()}. An emitter can be {@link #reset()} and reused for the next file.
+ * <p>
+ * Lines are started with {@link #startLine()}, which emits the current indentation, and ended with
+ * {@link #endLine()}, which emits the platform line separator. Instances are not thread-safe.
+ */
+public final class TextEmitter implements CharSequence {
+
+	private static final int DEFAULT_CAPACITY = 8192;
+	private static final char INDENT_CHAR = '\t';
+	private static final char[] INDENT_PREFIX = new char[64];
+	private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+
+	private char[] buffer;
+	private int length = 0;
+	private int indent = 0;
+
+	static {
+		Arrays.fill(INDENT_PREFIX, INDENT_CHAR);
+	}
+
+	/**
+	 * Creates an empty emitter with a default initial capacity.
+	 */
+	public TextEmitter() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty emitter.
+	 *
+	 * @param initialCapacity the number of characters the emitter can hold before growing
+	 */
+	public TextEmitter(int initialCapacity) {
+		this.buffer = new char[Math.max(16, initialCapacity)];
+	}
+
+	/**
+	 * Appends a character sequence.
+	 *
+	 * @param text the text to append; {@code null} appends nothing
+	 * @return this emitter
+	 */
+	public TextEmitter append(CharSequence text) {
+		return null == text ? this : append(text, 0, text.length());
+	}
+
+	/**
+	 * Appends a part of a character sequence.
+	 *
+	 * @param text the text to append a part of
+	 * @param start the index of the first character to append
+	 * @param end the index after the last character to append
+	 * @return this emitter
+	 */
+	public TextEmitter append(CharSequence text, int start, int end) {
+		int count = end - start;
+		ensureCapacity(count);
+		if (text instanceof String) {
+			((String) text).getChars(start, end, buffer, length);
+		} else if (text instanceof TextEmitter) {
+			System.arraycopy(((TextEmitter) text).buffer, start, buffer, length, count);
+		} else {
+			for (int i = start; i < end; i++) {
+				buffer[length + i - start] = text.charAt(i);
+			}
+		}
+		length += count;
+		return this;
+	}
+
+	/**
+	 * Appends a single character.
+	 *
+	 * @param c the character to append
+	 * @return this emitter
+	 */
+	public TextEmitter append(char c) {
+		ensureCapacity(1);
+		buffer[length++] = c;
+		return this;
+	}
+
+	/**
+	 * Appends the decimal representation of a number.
+	 *
+	 * @param value the number to append
+	 * @return this emitter
+	 */
+	public TextEmitter append(long value) {
+		if (Long.MIN_VALUE == value) {
+			return append(Long.toString(value));
+		}
+		if (value < 0) {
+			append('-');
+			value = -value;
+		}
+		int digits = 1;
+		for (long rest = value / 10; rest > 0; rest /= 10) {
+			digits++;
+		}
+		ensureCapacity(digits);
+		for (int i = length + digits - 1; i >= length; i--) {
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		length += digits;
+		return this;
+	}
+
+	/**
+	 * Appends the decimal representation of a number or nothing.
+	 *
+	 * @param value the number to append; {@code null} appends nothing
+	 * @return this emitter
+	 */
+	public TextEmitter append(Long value) {
+		return null == value ? this : append(value.longValue());
+	}
+
+	/**
+	 * Starts a new line by appending the current indentation.
+	 *
+	 * @return this emitter
+	 */
+	public TextEmitter startLine() {
+		int remaining = indent;
+		ensureCapacity(remaining);
+		while (remaining > 0) {
+			int count = Math.min(remaining, INDENT_PREFIX.length);
+			System.arraycopy(INDENT_PREFIX, 0, buffer, length, count);
+			length += count;
+			remaining -= count;
+		}
+		return this;
+	}
+
+	/**
+	 * Ends the current line by appending the platform line separator.
+	 *
+	 * @return this emitter
+	 */
+	public TextEmitter endLine() {
+		ensureCapacity(LINE_SEPARATOR.length);
+		System.arraycopy(LINE_SEPARATOR, 0, buffer, length, LINE_SEPARATOR.length);
+		length += LINE_SEPARATOR.length;
+		return this;
+	}
+
+	/**
+	 * Increases the indentation of subsequently started lines by one level.
+	 */
+	public void indent() {
+		indent++;
+	}
+
+	/**
+	 * Decreases the indentation of subsequently started lines by one level, but not below zero.
+	 */
+	public void outdent() {
+		if (indent > 0) {
+			indent--;
+		}
+	}
+
+	/**
+	 * Discards all text and resets the indentation, keeping the allocated buffer.
+	 */
+	public void reset() {
+		length = 0;
+		indent = 0;
+	}
+
+	/**
+	 * Encodes the text as UTF-8.
+	 *
+	 * @return a buffer containing the encoded text between its position and limit
+	 * @throws CharacterCodingException never, because unencodable characters are replaced
+	 */
+	public ByteBuffer encode() throws CharacterCodingException {
+		// unencodable characters are replaced just like by an OutputStreamWriter
+		return StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE)
+				.encode(CharBuffer.wrap(buffer, 0, length));
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return buffer[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toString().substring(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, length);
+	}
+
+	private void ensureCapacity(int additional) {
+		if (length + additional > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+		}
+	}
+}
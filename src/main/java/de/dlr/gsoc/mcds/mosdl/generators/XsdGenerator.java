@@ -2,23 +2,38 @@
 // SPDX-License-Identifier: Apache-2.0
 package de.dlr.gsoc.mcds.mosdl.generators;
 
+import de.dlr.gsoc.mcds.mosdl.Concurrency;
 import de.dlr.gsoc.mcds.mosdl.InteractionStage;
+import de.dlr.gsoc.mcds.mosdl.model.Area;
+import de.dlr.gsoc.mcds.mosdl.model.CapabilitySet;
+import de.dlr.gsoc.mcds.mosdl.model.DataType;
+import de.dlr.gsoc.mcds.mosdl.model.EnumerationItem;
+import de.dlr.gsoc.mcds.mosdl.model.Field;
+import de.dlr.gsoc.mcds.mosdl.model.Message;
+import de.dlr.gsoc.mcds.mosdl.model.Operation;
+import de.dlr.gsoc.mcds.mosdl.model.Service;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
+import de.dlr.gsoc.mcds.mosdl.model.TypeRef;
 import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import org.apache.ws.commons.schema.XmlSchema;
 import org.apache.ws.commons.schema.XmlSchemaAnnotated;
 import org.apache.ws.commons.schema.XmlSchemaAnnotation;
@@ -43,18 +58,6 @@ import org.apache.ws.commons.schema.XmlSchemaSimpleTypeRestriction;
 import org.apache.ws.commons.schema.XmlSchemaType;
 import org.apache.ws.commons.schema.constants.Constants;
 import org.apache.ws.commons.schema.utils.NamespaceMap;
-import org.ccsds.schema.serviceschema.AreaType;
-import org.ccsds.schema.serviceschema.AttributeType;
-import org.ccsds.schema.serviceschema.CapabilitySetType;
-import org.ccsds.schema.serviceschema.CompositeType;
-import org.ccsds.schema.serviceschema.EnumerationType;
-import org.ccsds.schema.serviceschema.FundamentalType;
-import org.ccsds.schema.serviceschema.NamedElementReferenceWithCommentType;
-import org.ccsds.schema.serviceschema.ObjectFactory;
-import org.ccsds.schema.serviceschema.OperationType;
-import org.ccsds.schema.serviceschema.ServiceType;
-import org.ccsds.schema.serviceschema.SpecificationType;
-import org.ccsds.schema.serviceschema.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -65,7 +68,8 @@ import org.w3c.dom.Text;
  * Class for generating MO XSD files describing data structures of an MO specification.
  * <p>
  * Each separate namespace is put in its own file, i.e. one file for each area and/or service that
- * define data structures.
+ * define data structures. All schemas are built first and then serialized, which can be done
+ * concurrently (see {@link #setParallelism(int)}).
  */
 public class XsdGenerator extends Generator {
 
@@ -73,6 +77,7 @@ public class XsdGenerator extends Generator {
 
 	private static final String META_KEY_FILENAME = "filename";
 	private static final String META_KEY_IMPORTS = "imports";
+	private static final String META_KEY_DOCUMENTATION = "documentation";
 	private static final String XSD_FILE_ENDING = ".xsd";
 	private static final String MAL_AREA_NAME = "MAL";
 	// Mismatch between 5.2.1 and 3.7.3.2.1! urn:ccsds:schema:mo:malxml vs. http://www.ccsds.org/schema/malxml/MAL (latter seems to be more common and is used by NASA implementation)
@@ -82,40 +87,36 @@ public class XsdGenerator extends Generator {
 	private static final QName XSD_MAL_ATTRIBUTE = new QName(MALXML_NAMESPACE, "Attribute");
 	private static final QName XSD_MAL_COMPOSITE = new QName(MALXML_NAMESPACE, "Composite");
 	private static final QName XSD_MAL_BODY = new QName(MALXML_NAMESPACE, "Body");
-	private static final Map<String, QName> ATTRIBUTE_XSD_MAPPING = new HashMap<>();
-	private static final NamespaceMap NAMESPACE_MAP = new NamespaceMap();
-	private static final Map<String, String> WRITE_OPTIONS = new HashMap<>();
+	private static final Map<String, QName> ATTRIBUTE_XSD_MAPPING = Map.ofEntries(
+			Map.entry("Blob", Constants.XSD_HEXBIN),
+			Map.entry("Boolean", Constants.XSD_BOOLEAN),
+			Map.entry("Duration", Constants.XSD_DURATION),
+			Map.entry("Float", Constants.XSD_FLOAT),
+			Map.entry("Double", Constants.XSD_DOUBLE),
+			Map.entry("Identifier", Constants.XSD_STRING),
+			Map.entry("Octet", Constants.XSD_BYTE),
+			Map.entry("UOctet", Constants.XSD_UNSIGNEDBYTE),
+			Map.entry("Short", Constants.XSD_SHORT),
+			Map.entry("UShort", Constants.XSD_UNSIGNEDSHORT),
+			Map.entry("Integer", Constants.XSD_INT),
+			Map.entry("UInteger", Constants.XSD_UNSIGNEDINT),
+			Map.entry("Long", Constants.XSD_LONG),
+			Map.entry("ULong", Constants.XSD_UNSIGNEDLONG),
+			Map.entry("String", Constants.XSD_STRING),
+			Map.entry("Time", Constants.XSD_DATETIME),
+			Map.entry("FineTime", Constants.XSD_DATETIME),
+			Map.entry("URI", Constants.XSD_ANYURI));
+	// only read by the serializer, which creates its own transformer for each schema
+	private static final Map<String, String> WRITE_OPTIONS = Map.of("omit-xml-declaration", "no", "indent", "yes");
+	// both serialization paths write this separator, so that the output does not depend on the platform
+	private static final String LINE_SEPARATOR = "\n";
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+	private static final ThreadLocal<XMLOutputFactory> XML_OUTPUT_FACTORY = ThreadLocal.withInitial(XMLOutputFactory::newFactory);
 	private final boolean isIncludeDoc;
 	private final boolean isCreateBodyTypes;
-	private final Document documentationDocument;
-
-	static {
-		ATTRIBUTE_XSD_MAPPING.put("Blob", Constants.XSD_HEXBIN);
-		ATTRIBUTE_XSD_MAPPING.put("Boolean", Constants.XSD_BOOLEAN);
-		ATTRIBUTE_XSD_MAPPING.put("Duration", Constants.XSD_DURATION);
-		ATTRIBUTE_XSD_MAPPING.put("Float", Constants.XSD_FLOAT);
-		ATTRIBUTE_XSD_MAPPING.put("Double", Constants.XSD_DOUBLE);
-		ATTRIBUTE_XSD_MAPPING.put("Identifier", Constants.XSD_STRING);
-		ATTRIBUTE_XSD_MAPPING.put("Octet", Constants.XSD_BYTE);
-		ATTRIBUTE_XSD_MAPPING.put("UOctet", Constants.XSD_UNSIGNEDBYTE);
-		ATTRIBUTE_XSD_MAPPING.put("Short", Constants.XSD_SHORT);
-		ATTRIBUTE_XSD_MAPPING.put("UShort", Constants.XSD_UNSIGNEDSHORT);
-		ATTRIBUTE_XSD_MAPPING.put("Integer", Constants.XSD_INT);
-		ATTRIBUTE_XSD_MAPPING.put("UInteger", Constants.XSD_UNSIGNEDINT);
-		ATTRIBUTE_XSD_MAPPING.put("Long", Constants.XSD_LONG);
-		ATTRIBUTE_XSD_MAPPING.put("ULong", Constants.XSD_UNSIGNEDLONG);
-		ATTRIBUTE_XSD_MAPPING.put("String", Constants.XSD_STRING);
-		ATTRIBUTE_XSD_MAPPING.put("Time", Constants.XSD_DATETIME);
-		ATTRIBUTE_XSD_MAPPING.put("FineTime", Constants.XSD_DATETIME);
-		ATTRIBUTE_XSD_MAPPING.put("URI", Constants.XSD_ANYURI);
-
-		NAMESPACE_MAP.add("xs", Constants.URI_2001_SCHEMA_XSD);
-		NAMESPACE_MAP.add("malxml", MALXML_NAMESPACE);
-
-		System.setProperty("org.apache.ws.commons.schema.protectReadOnlyCollections", "true");
-		WRITE_OPTIONS.put("omit-xml-declaration", "no");
-		WRITE_OPTIONS.put("indent", "yes");
-	}
+	private final DocumentBuilder documentBuilder;
+	private int parallelism = 1;
+	private boolean isStreaming = false;
 
 	/**
 	 * Creates a new XML Schema generator.
@@ -130,95 +131,225 @@ public class XsdGenerator extends Generator {
 		this.isCreateBodyTypes = isCreateBodyTypes;
 		if (isIncludeDoc) {
 			try {
-				documentationDocument = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+				documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
 			} catch (ParserConfigurationException ex) {
 				throw new RuntimeException(ex);
 			}
 		} else {
-			documentationDocument = null;
+			documentBuilder = null;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of schema files written concurrently.
+	 * <p>
+	 * The content of the generated files does not depend on this setting.
+	 *
+	 * @param parallelism the maximum number of threads; {@code 1} (the default) writes all schema
+	 * files sequentially
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
 		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Gets the maximum number of schema files written concurrently.
+	 *
+	 * @return the maximum number of threads
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Enables or disables streaming mode.
+	 * <p>
+	 * By default, the complete schema of each namespace is built as an XML Schema object model,
+	 * including DOM nodes for all documentation annotations, before it is serialized. In streaming
+	 * mode, each schema file is written directly to an {@link XMLStreamWriter} while traversing the
+	 * specification. Only the namespaces to import are determined beforehand. Thus, memory usage
+	 * while generating is bounded by the largest single type instead of all schemas. The generated
+	 * files are XML-equivalent in both modes, i.e. they only differ in formatting.
+	 *
+	 * @param isStreaming {@code true} to enable streaming mode, {@code false} (the default) to
+	 * build complete schemas
+	 */
+	public void setStreaming(boolean isStreaming) {
+		this.isStreaming = isStreaming;
+	}
+
+	/**
+	 * Determines whether streaming mode is enabled.
+	 *
+	 * @return {@code true} if streaming mode is enabled, {@code false} otherwise
+	 * @see #setStreaming(boolean)
+	 */
+	public boolean isStreaming() {
+		return isStreaming;
 	}
 
 	@Override
-	public void generate(SpecificationType spec, File targetDirectory) throws GeneratorException {
-		logger.debug("Generating XSD file(s) into directory '{}'.", targetDirectory);
+	public void generate(Specification spec, OutputSink sink) throws GeneratorException {
+		logger.debug("Generating XSD file(s) into '{}'.", sink);
 
-		int nFiles = 0;
-		try {
-			XmlSchemaCollection schemaCollection = new XmlSchemaCollection();
-			for (AreaType area : spec.getArea()) {
-				if (null != area.getDataTypes()) {
-					logger.debug("Generating schema for area '{}'.", area.getName());
-					XmlSchema schema = getOrCreateSchema(schemaCollection, area, null);
-					if (MAL_AREA_NAME.equals(area.getName())) {
-						// XSD type and element for message body as defined in CCSDS 524.3-B-1, 3.7.3.2 need to be added explicitly.
-						XmlSchemaType xsdType = addExtraMalBodyType(schema);
-						addCorrespondingElement(schema, xsdType, false);
-					}
-					for (Object dataType : area.getDataTypes().getFundamentalOrAttributeOrComposite()) {
+		Map<String, SchemaFileWriter> schemaFiles = isStreaming ? collectSchemaStreams(spec) : buildSchemas(spec);
+		int nThreads = Concurrency.getThreadCount(parallelism, schemaFiles.size());
+		if (nThreads <= 1) {
+			for (Map.Entry<String, SchemaFileWriter> schemaFile : schemaFiles.entrySet()) {
+				schemaFile.getValue().write(sink, schemaFile.getKey());
+			}
+		} else {
+			writeSchemasConcurrently(schemaFiles, nThreads, sink);
+		}
+		logger.debug("Generated {} XSD file(s) for the supplied specification(s) into '{}'.", schemaFiles.size(), sink);
+	}
+
+	/**
+	 * Builds the XML Schema object models of all namespaces.
+	 *
+	 * @param spec the specification to build the schemas for
+	 * @return writers for all schema files in the order of their creation, keyed by file name
+	 */
+	private Map<String, SchemaFileWriter> buildSchemas(Specification spec) {
+		XmlSchemaCollection schemaCollection = new XmlSchemaCollection();
+		for (Area area : spec.getAreas()) {
+			if (!area.getDataTypes().isEmpty()) {
+				logger.debug("Generating schema for area '{}'.", area.getName());
+				XmlSchema schema = getOrCreateSchema(schemaCollection, area, null);
+				if (MAL_AREA_NAME.equals(area.getName())) {
+					// XSD type and element for message body as defined in CCSDS 524.3-B-1, 3.7.3.2 need to be added explicitly.
+					XmlSchemaType xsdType = addExtraMalBodyType(schema);
+					addCorrespondingElement(schema, xsdType, false);
+				}
+				for (DataType dataType : area.getDataTypes()) {
+					addDataType(schema, dataType);
+				}
+			}
+			for (Service service : area.getServices()) {
+				XmlSchema schema = null;
+				if (!service.getDataTypes().isEmpty()) {
+					logger.debug("Generating schema for service '{}' of area '{}'.", service.getName(), area.getName());
+					schema = getOrCreateSchema(schemaCollection, area, service);
+					for (DataType dataType : service.getDataTypes()) {
 						addDataType(schema, dataType);
 					}
 				}
-				for (ServiceType service : area.getService()) {
-					XmlSchema schema = null;
-					if (null != service.getDataTypes()) {
-						logger.debug("Generating schema for service '{}' of area '{}'.", service.getName(), area.getName());
-						schema = getOrCreateSchema(schemaCollection, area, service);
-						for (Object dataType : service.getDataTypes().getCompositeOrEnumeration()) {
-							addDataType(schema, dataType);
-						}
-					}
-					if (isCreateBodyTypes) {
-						for (CapabilitySetType cs : service.getCapabilitySet()) {
-							for (OperationType op : cs.getSendIPOrSubmitIPOrRequestIP()) {
-								// TODO: Implement handling of error message bodies.
-								for (MessageDetails msgDetails : MessageDetails.fromOp(op)) {
-									if (null == schema) {
-										schema = getOrCreateSchema(schemaCollection, area, service);
-									}
-									XmlSchemaType xsdType = addMessageBody(schema, op, msgDetails);
-//									addCorrespondingElement(schema, xsdType, false); // TODO: Remove element, only needed for easier testing
+				if (isCreateBodyTypes) {
+					for (CapabilitySet cs : service.getCapabilitySets()) {
+						for (Operation op : cs.getOperations()) {
+							// TODO: Implement handling of error message bodies.
+							for (Message msgDetails : op.getMessages()) {
+								if (null == schema) {
+									schema = getOrCreateSchema(schemaCollection, area, service);
 								}
+								XmlSchemaType xsdType = addMessageBody(schema, op, msgDetails);
+//								addCorrespondingElement(schema, xsdType, false); // TODO: Remove element, only needed for easier testing
 							}
 						}
 					}
 				}
 			}
+		}
+
+		// Schemas are complete after adding their imports, so that they are only read while being written.
+		Map<String, SchemaFileWriter> schemaFiles = new LinkedHashMap<>();
+		for (XmlSchema schema : schemaCollection.getXmlSchemas()) {
+			Map<Object, Object> metaInfo = schema.getMetaInfoMap();
+			if (null == metaInfo) {
+				continue;
+			}
+			String filename = (String) metaInfo.get(META_KEY_FILENAME);
+			if (null == filename) {
+				continue;
+			}
+			addImports(schema);
+			schemaFiles.put(filename + XSD_FILE_ENDING, (sink, name) -> writeSchema(schema, sink, name));
+		}
+		return schemaFiles;
+	}
 
-			for (XmlSchema schema : schemaCollection.getXmlSchemas()) {
-				Map<Object, Object> metaInfo = schema.getMetaInfoMap();
-				if (null == metaInfo) {
-					continue;
-				}
-				String filename = (String) metaInfo.get(META_KEY_FILENAME);
-				if (null == filename) {
-					continue;
-				}
-				File targetFile = new File(targetDirectory, filename + XSD_FILE_ENDING);
-
-				@SuppressWarnings("unchecked")
-				Set<String> schemaImports = (Set<String>) metaInfo.get(META_KEY_IMPORTS);
-				if (null != schemaImports) {
-					schemaImports.add(MALXML_NAMESPACE); // always add import for MAL types
-					for (String namespace : schemaImports) {
-						// remove import if it would import the target namespace of the current schema
-						if (Objects.equals(namespace, schema.getTargetNamespace())) {
-							continue;
+	/**
+	 * Determines the schema files to stream without building any schema.
+	 * <p>
+	 * Schema files are created for the same areas and services as by
+	 * {@link #buildSchemas(Specification)}.
+	 *
+	 * @param spec the specification to stream the schemas for
+	 * @return writers for all schema files, keyed by file name
+	 */
+	private Map<String, SchemaFileWriter> collectSchemaStreams(Specification spec) {
+		Map<String, SchemaFileWriter> schemaFiles = new LinkedHashMap<>();
+		for (Area area : spec.getAreas()) {
+			if (!area.getDataTypes().isEmpty()) {
+				schemaFiles.put(area.getName() + XSD_FILE_ENDING, (sink, name) -> new SchemaStreamWriter(area, null).write(sink, name));
+			}
+			for (Service service : area.getServices()) {
+				boolean hasMessages = false;
+				if (isCreateBodyTypes) {
+					for (CapabilitySet cs : service.getCapabilitySets()) {
+						for (Operation op : cs.getOperations()) {
+							hasMessages |= !op.getMessages().isEmpty();
 						}
-						XmlSchemaImport xsdImport = new XmlSchemaImport(schema);
-						xsdImport.setNamespace(namespace);
 					}
 				}
-				logger.debug("Writing schema file '{}'.", targetFile);
-				try (OutputStream os = new BufferedOutputStream(new FileOutputStream(targetFile))) {
-					schema.write(os, WRITE_OPTIONS);
+				if (!service.getDataTypes().isEmpty() || hasMessages) {
+					schemaFiles.put(area.getName() + service.getName() + XSD_FILE_ENDING, (sink, name) -> new SchemaStreamWriter(area, service).write(sink, name));
 				}
-				nFiles++;
 			}
-		} catch (IOException ex) {
+		}
+		return schemaFiles;
+	}
+
+	private void writeSchemasConcurrently(Map<String, SchemaFileWriter> schemaFiles, int nThreads, OutputSink sink) throws GeneratorException {
+		List<Concurrency.Task> tasks = new ArrayList<>();
+		for (Map.Entry<String, SchemaFileWriter> schemaFile : schemaFiles.entrySet()) {
+			tasks.add(() -> schemaFile.getValue().write(sink, schemaFile.getKey()));
+		}
+		Concurrency.invokeAll(tasks, nThreads, "XSD files", GeneratorException.class, GeneratorException::new);
+	}
+
+	private void writeSchema(XmlSchema schema, OutputSink sink, String filename) throws GeneratorException {
+		logger.debug("Writing schema file '{}'.", filename);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		try {
+			schema.write(os, WRITE_OPTIONS);
+		} catch (UnsupportedEncodingException ex) {
 			throw new GeneratorException(ex);
 		}
-		logger.debug("Generated {} XSD file(s) for the supplied specification(s) into directory '{}'.", nFiles, targetDirectory);
+		byte[] content = os.toByteArray();
+		if (!LINE_SEPARATOR.equals(System.lineSeparator())) {
+			// the transformer used by the serializer always indents with the platform line separator
+			content = new String(content, StandardCharsets.UTF_8).replace(System.lineSeparator(), LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+		}
+		writeFile(sink, filename, ByteBuffer.wrap(content));
+	}
+
+	/**
+	 * Add imports for all namespaces referenced by a schema.
+	 * <p>
+	 * The namespaces have been collected while building the schema. The MAL namespace is always
+	 * imported, the target namespace of the schema itself never.
+	 *
+	 * @param schema the completely built schema to add the imports to
+	 */
+	private static void addImports(XmlSchema schema) {
+		@SuppressWarnings("unchecked")
+		Set<String> schemaImports = (Set<String>) schema.getMetaInfoMap().get(META_KEY_IMPORTS);
+		if (null == schemaImports) {
+			return;
+		}
+		schemaImports.add(MALXML_NAMESPACE); // always add import for MAL types
+		for (String namespace : schemaImports) {
+			// remove import if it would import the target namespace of the current schema
+			if (Objects.equals(namespace, schema.getTargetNamespace())) {
+				continue;
+			}
+			XmlSchemaImport xsdImport = new XmlSchemaImport(schema);
+			xsdImport.setNamespace(namespace);
+		}
 	}
 
 	/**
@@ -231,7 +362,7 @@ public class XsdGenerator extends Generator {
 	 * @return an XML schema suitable for adding the transformed data structures of given area
 	 * and/or service
 	 */
-	private static XmlSchema getOrCreateSchema(XmlSchemaCollection schemaCollection, AreaType area, ServiceType service) {
+	private XmlSchema getOrCreateSchema(XmlSchemaCollection schemaCollection, Area area, Service service) {
 		String serviceName = null == service ? null : service.getName();
 		String namespace = toNamespace(area.getName(), serviceName);
 		XmlSchema schema = schemaCollection.schemaForNamespace(namespace);
@@ -242,9 +373,17 @@ public class XsdGenerator extends Generator {
 			schema.setElementFormDefault(XmlSchemaForm.QUALIFIED);
 			schema.setAttributeFormDefault(XmlSchemaForm.QUALIFIED);
 			schema.setInputEncoding(StandardCharsets.UTF_8.name());
-			schema.setNamespaceContext(NAMESPACE_MAP);
+			// each schema gets its own namespace context, because the serializer may add to it
+			NamespaceMap namespaceContext = new NamespaceMap();
+			namespaceContext.add("xs", Constants.URI_2001_SCHEMA_XSD);
+			namespaceContext.add("malxml", MALXML_NAMESPACE);
+			schema.setNamespaceContext(namespaceContext);
 			schema.addMetaInfo(META_KEY_FILENAME, filename);
 			schema.addMetaInfo(META_KEY_IMPORTS, new LinkedHashSet<String>());
+			if (isIncludeDoc) {
+				// each schema gets its own document, so that schemas do not share DOM nodes when written concurrently
+				schema.addMetaInfo(META_KEY_DOCUMENTATION, documentBuilder.newDocument());
+			}
 		}
 		return schema;
 	}
@@ -263,24 +402,24 @@ public class XsdGenerator extends Generator {
 	 * @param schema the schema to add all required elements to
 	 * @param dataType the MAL data structure to process
 	 */
-	private void addDataType(XmlSchema schema, Object dataType) {
+	private void addDataType(XmlSchema schema, DataType dataType) {
 		XmlSchemaComplexType xsdType;
-		if (dataType instanceof CompositeType) {
-			CompositeType composite = (CompositeType) dataType;
-			boolean isAbstract = null == composite.getShortFormPart() || 0 == composite.getShortFormPart();
-			xsdType = addCompositeType(schema, composite, isAbstract);
-		} else if (dataType instanceof EnumerationType) {
-			EnumerationType enumeration = (EnumerationType) dataType;
-			xsdType = addEnumerationType(schema, enumeration);
-		} else if (dataType instanceof AttributeType) {
-			AttributeType attribute = (AttributeType) dataType;
-			xsdType = addAttributeType(schema, attribute);
-		} else if (dataType instanceof FundamentalType) {
-			FundamentalType fundamental = (FundamentalType) dataType;
-			xsdType = addFundamentalType(schema, fundamental);
-		} else {
-			logger.warn("Unsupported data type '{}' cannot be mapped to XML Schema type.", null == dataType ? "null" : dataType.getClass());
-			return;
+		switch (dataType.getKind()) {
+			case COMPOSITE:
+				xsdType = addCompositeType(schema, dataType, dataType.isAbstract());
+				break;
+			case ENUMERATION:
+				xsdType = addEnumerationType(schema, dataType);
+				break;
+			case ATTRIBUTE:
+				xsdType = addAttributeType(schema, dataType);
+				break;
+			case FUNDAMENTAL:
+				xsdType = addFundamentalType(schema, dataType);
+				break;
+			default:
+				logger.warn("Unsupported data type '{}' cannot be mapped to XML Schema type.", dataType);
+				return;
 		}
 		XmlSchemaComplexType xsdListType = addCorrespondingListType(schema, xsdType);
 		// add elements for use in message bodies
@@ -296,31 +435,31 @@ public class XsdGenerator extends Generator {
 	 * @param isAbstract {@code true} if the composite is abstract, {@code false} otherwise
 	 * @return the newly added schema type
 	 */
-	private XmlSchemaComplexType addCompositeType(XmlSchema schema, CompositeType composite, boolean isAbstract) {
+	private XmlSchemaComplexType addCompositeType(XmlSchema schema, DataType composite, boolean isAbstract) {
 		XmlSchemaComplexType xsdType = new XmlSchemaComplexType(schema, true);
 		xsdType.setName(composite.getName());
 		xsdType.setAbstract(isAbstract);
-		addDoc(xsdType, composite.getComment());
+		addDoc(schema, xsdType, composite.getComment());
 		XmlSchemaComplexContent xsdContent = new XmlSchemaComplexContent();
 		xsdType.setContentModel(xsdContent);
 		XmlSchemaComplexContentExtension xsdExtension = new XmlSchemaComplexContentExtension();
 		xsdContent.setContent(xsdExtension);
 		QName xsdBaseTypeName = XSD_MAL_COMPOSITE;
-		if (null != composite.getExtends()) {
-			xsdBaseTypeName = toQName(schema, composite.getExtends().getType());
+		if (null != composite.getExtendsType()) {
+			xsdBaseTypeName = toQName(schema, composite.getExtendsType());
 		}
 		xsdExtension.setBaseTypeName(xsdBaseTypeName);
 
 		XmlSchemaSequence xsdSequence = new XmlSchemaSequence();
 		xsdExtension.setParticle(xsdSequence);
 		List<XmlSchemaSequenceMember> xsdSequenceItems = xsdSequence.getItems();
-		for (NamedElementReferenceWithCommentType field : composite.getField()) {
+		for (Field field : composite.getFields()) {
 			XmlSchemaElement xsdSeqElem = new XmlSchemaElement(schema, false);
 			xsdSequenceItems.add(xsdSeqElem);
 			xsdSeqElem.setName(field.getName());
 			xsdSeqElem.setNillable(field.isCanBeNull());
 			xsdSeqElem.setSchemaTypeName(toQName(schema, field.getType()));
-			addDoc(xsdSeqElem, field.getComment());
+			addDoc(schema, xsdSeqElem, field.getComment());
 		}
 		return xsdType;
 	}
@@ -332,10 +471,10 @@ public class XsdGenerator extends Generator {
 	 * @param enumeration the MAL Enumeration for which the corresponding schema type shall be added
 	 * @return the newly added schema type
 	 */
-	private XmlSchemaComplexType addEnumerationType(XmlSchema schema, EnumerationType enumeration) {
+	private XmlSchemaComplexType addEnumerationType(XmlSchema schema, DataType enumeration) {
 		XmlSchemaComplexType xsdType = new XmlSchemaComplexType(schema, true);
 		xsdType.setName(enumeration.getName());
-		addDoc(xsdType, enumeration.getComment());
+		addDoc(schema, xsdType, enumeration.getComment());
 		XmlSchemaComplexContent xsdContent = new XmlSchemaComplexContent();
 		xsdType.setContentModel(xsdContent);
 		XmlSchemaComplexContentExtension xsdExtension = new XmlSchemaComplexContentExtension();
@@ -349,10 +488,10 @@ public class XsdGenerator extends Generator {
 		XmlSchemaSimpleTypeRestriction xsdRestriction = new XmlSchemaSimpleTypeRestriction();
 		xsdRestriction.setBaseTypeName(Constants.XSD_STRING);
 		List<XmlSchemaFacet> xsdRestrictionFacets = xsdRestriction.getFacets();
-		for (EnumerationType.Item item : enumeration.getItem()) {
+		for (EnumerationItem item : enumeration.getItems()) {
 			XmlSchemaEnumerationFacet xsdEnumFacet = new XmlSchemaEnumerationFacet(item.getValue(), false);
 			xsdRestrictionFacets.add(xsdEnumFacet);
-			addDoc(xsdEnumFacet, item.getComment());
+			addDoc(schema, xsdEnumFacet, item.getComment());
 		}
 		xsdEnumType.setContent(xsdRestriction);
 
@@ -370,10 +509,10 @@ public class XsdGenerator extends Generator {
 	 * @param attribute the MAL Attribute for which the corresponding schema type shall be added
 	 * @return the newly added schema type
 	 */
-	private XmlSchemaComplexType addAttributeType(XmlSchema schema, AttributeType attribute) {
+	private XmlSchemaComplexType addAttributeType(XmlSchema schema, DataType attribute) {
 		XmlSchemaComplexType xsdType = new XmlSchemaComplexType(schema, true);
 		xsdType.setName(attribute.getName());
-		addDoc(xsdType, attribute.getComment());
+		addDoc(schema, xsdType, attribute.getComment());
 		XmlSchemaComplexContent xsdContent = new XmlSchemaComplexContent();
 		xsdType.setContentModel(xsdContent);
 		XmlSchemaComplexContentExtension xsdExtension = new XmlSchemaComplexContentExtension();
@@ -398,13 +537,13 @@ public class XsdGenerator extends Generator {
 	 * @param enumeration the MAL Fundamental for which the corresponding schema type shall be added
 	 * @return the newly added schema type
 	 */
-	private XmlSchemaComplexType addFundamentalType(XmlSchema schema, FundamentalType fundamental) {
+	private XmlSchemaComplexType addFundamentalType(XmlSchema schema, DataType fundamental) {
 		XmlSchemaComplexType xsdType = new XmlSchemaComplexType(schema, true);
 		xsdType.setName(fundamental.getName());
 		xsdType.setAbstract(true);
-		addDoc(xsdType, fundamental.getComment());
+		addDoc(schema, xsdType, fundamental.getComment());
 
-		if (null == fundamental.getExtends()) {
+		if (null == fundamental.getExtendsType()) {
 			return xsdType;
 		}
 
@@ -412,7 +551,7 @@ public class XsdGenerator extends Generator {
 		xsdType.setContentModel(xsdContent);
 		XmlSchemaComplexContentExtension xsdExtension = new XmlSchemaComplexContentExtension();
 		xsdContent.setContent(xsdExtension);
-		xsdExtension.setBaseTypeName(toQName(schema, fundamental.getExtends().getType()));
+		xsdExtension.setBaseTypeName(toQName(schema, fundamental.getExtendsType()));
 
 		// PENDING: Not sure whether the attribute should go in the base type or in each Composite (5.6.8).
 		if ("Composite".equals(fundamental.getName())) {
@@ -510,11 +649,11 @@ public class XsdGenerator extends Generator {
 	 * @param msgDetails the details of one of the messages belonging to a certain operation
 	 * @return the newly added schema type
 	 */
-	private XmlSchemaType addMessageBody(XmlSchema schema, OperationType op, MessageDetails msgDetails) {
+	private XmlSchemaType addMessageBody(XmlSchema schema, Operation op, Message msgDetails) {
 		XmlSchemaComplexType xsdType = new XmlSchemaComplexType(schema, true);
 		String xsdTypeName = String.format("%s_%s_%s", op.getName(), msgDetails.getStage().name(), XSD_MAL_BODY.getLocalPart());
 		xsdType.setName(xsdTypeName);
-		addDoc(xsdType, msgDetails.getComment());
+		addDoc(schema, xsdType, msgDetails.getComment());
 		XmlSchemaComplexContent xsdContent = new XmlSchemaComplexContent();
 		xsdType.setContentModel(xsdContent);
 		XmlSchemaComplexContentRestriction xsdRestriction = new XmlSchemaComplexContentRestriction();
@@ -525,57 +664,39 @@ public class XsdGenerator extends Generator {
 		xsdRestriction.setParticle(xsdSequence);
 		List<XmlSchemaSequenceMember> xsdSequenceItems = xsdSequence.getItems();
 
-		List<NamedElementReferenceWithCommentType> fields;
-		if (msgDetails.getStage() == InteractionStage.PUBSUB_PUBLISH || msgDetails.getStage() == InteractionStage.PUBSUB_NOTIFY) {
+		if (isPubSub(msgDetails)) {
 			// According to MAL Tables 3-27 and 3-29: Add extra message fields for PUBLISH and NOTIFY and transform given message fields to lists.
-			fields = new ArrayList<>();
-			ObjectFactory of = new ObjectFactory();
 			if (msgDetails.getStage() == InteractionStage.PUBSUB_NOTIFY) {
-				TypeReference subscriptionIdType = of.createTypeReference();
-				subscriptionIdType.setArea(MAL_AREA_NAME);
-				subscriptionIdType.setName("Identifier");
-				NamedElementReferenceWithCommentType subscriptionIdField = of.createNamedElementReferenceWithCommentType();
-				subscriptionIdField.setName("subscriptionId");
-				subscriptionIdField.setType(subscriptionIdType);
-				fields.add(subscriptionIdField);
-			}
-
-			TypeReference updateHeaderListType = of.createTypeReference();
-			updateHeaderListType.setArea(MAL_AREA_NAME);
-			updateHeaderListType.setName("UpdateHeader");
-			updateHeaderListType.setList(Boolean.TRUE);
-			NamedElementReferenceWithCommentType updateHeadersField = of.createNamedElementReferenceWithCommentType();
-			updateHeadersField.setName("updateHeaders");
-			updateHeadersField.setType(updateHeaderListType);
-			fields.add(updateHeadersField);
-			for (NamedElementReferenceWithCommentType field : msgDetails.getFields()) {
-				// deeply copy field and always set list to true
-				TypeReference typeRefCopy = of.createTypeReference();
-				TypeReference typeRef = field.getType();
-				typeRefCopy.setArea(typeRef.getArea());
-				typeRefCopy.setService(typeRef.getService());
-				typeRefCopy.setName(typeRef.getName());
-				typeRefCopy.setList(Boolean.TRUE);
-				NamedElementReferenceWithCommentType fieldCopy = of.createNamedElementReferenceWithCommentType();
-				fieldCopy.setName(field.getName());
-				fieldCopy.setComment(field.getComment());
-				fieldCopy.setCanBeNull(field.isCanBeNull());
-				fieldCopy.setType(typeRefCopy);
-				fields.add(fieldCopy);
+				addBodyElement(schema, xsdSequenceItems, toQName(schema, MAL_AREA_NAME, null, "Identifier", false), null);
+			}
+			addBodyElement(schema, xsdSequenceItems, toQName(schema, MAL_AREA_NAME, null, "UpdateHeader", true), null);
+			for (Field field : msgDetails.getFields()) {
+				TypeRef typeRef = field.getType();
+				addBodyElement(schema, xsdSequenceItems, toQName(schema, typeRef.getArea(), typeRef.getService(), typeRef.getName(), true), field.getComment());
 			}
 		} else {
-			fields = msgDetails.getFields();
-		}
-
-		for (NamedElementReferenceWithCommentType field : fields) {
-			XmlSchemaElement xsdSeqElem = new XmlSchemaElement(schema, false);
-			xsdSeqElem.getRef().setTargetQName(toQName(schema, field.getType()));
-			xsdSequenceItems.add(xsdSeqElem);
-			addDoc(xsdSeqElem, field.getComment());
+			for (Field field : msgDetails.getFields()) {
+				addBodyElement(schema, xsdSequenceItems, toQName(schema, field.getType()), field.getComment());
+			}
 		}
 		return xsdType;
 	}
 
+	/**
+	 * Add a reference to a top-level element to the sequence of a message body type.
+	 *
+	 * @param schema the schema containing the message body type
+	 * @param xsdSequenceItems the items of the sequence of the message body type
+	 * @param elementName the qualified name of the referenced element
+	 * @param docText the documentation of the message field, may be {@code null}
+	 */
+	private void addBodyElement(XmlSchema schema, List<XmlSchemaSequenceMember> xsdSequenceItems, QName elementName, String docText) {
+		XmlSchemaElement xsdSeqElem = new XmlSchemaElement(schema, false);
+		xsdSeqElem.getRef().setTargetQName(elementName);
+		xsdSequenceItems.add(xsdSeqElem);
+		addDoc(schema, xsdSeqElem, docText);
+	}
+
 	/**
 	 * Create an XML namespace from a MAL area and service name.
 	 *
@@ -591,6 +712,20 @@ public class XsdGenerator extends Generator {
 		return namespace;
 	}
 
+	/**
+	 * Create an XML namespace from a MAL type reference.
+	 *
+	 * @param typeRef the MAL type reference
+	 * @return the XML namespace of the referenced type
+	 */
+	private static String toNamespace(TypeRef typeRef) {
+		return toNamespace(typeRef.getArea(), typeRef.getService());
+	}
+
+	private static boolean isPubSub(Message msgDetails) {
+		return msgDetails.getStage() == InteractionStage.PUBSUB_PUBLISH || msgDetails.getStage() == InteractionStage.PUBSUB_NOTIFY;
+	}
+
 	/**
 	 * Create an XML qualified name from a MAL type reference and adds namespace to the set of
 	 * namespaces to be imported.
@@ -599,10 +734,25 @@ public class XsdGenerator extends Generator {
 	 * @param typeRef the MAL type reference
 	 * @return the XML qualified name corresponding to the MAL type reference
 	 */
-	private static QName toQName(XmlSchema schema, TypeReference typeRef) {
-		String namespace = toNamespace(typeRef.getArea(), typeRef.getService());
-		String typeName = typeRef.getName();
-		if (typeRef.isList()) {
+	private static QName toQName(XmlSchema schema, TypeRef typeRef) {
+		return toQName(schema, typeRef.getArea(), typeRef.getService(), typeRef.getName(), typeRef.isList());
+	}
+
+	/**
+	 * Create an XML qualified name from the parts of a MAL type reference and adds namespace to the
+	 * set of namespaces to be imported.
+	 *
+	 * @param schema the schema that holds the set of namespaces to be imported
+	 * @param areaName the MAL area name of the referenced type
+	 * @param serviceName the MAL service name of the referenced type, may be {@code null}
+	 * @param name the name of the referenced type
+	 * @param isList {@code true} if a list of the type is referenced, {@code false} otherwise
+	 * @return the XML qualified name corresponding to the MAL type reference
+	 */
+	private static QName toQName(XmlSchema schema, String areaName, String serviceName, String name, boolean isList) {
+		String namespace = toNamespace(areaName, serviceName);
+		String typeName = name;
+		if (isList) {
 			typeName += "List";
 		}
 
@@ -621,11 +771,12 @@ public class XsdGenerator extends Generator {
 	/**
 	 * Add a simple documentation annotation element to a given schema element.
 	 *
+	 * @param schema the schema containing the schema element
 	 * @param annotatableElement the schema element to add the documentation element to
 	 * @param docText the text to be used as documentation. May be {@code null}, in which case no
 	 * annotation is added
 	 */
-	private void addDoc(XmlSchemaAnnotated annotatableElement, String docText) {
+	private void addDoc(XmlSchema schema, XmlSchemaAnnotated annotatableElement, String docText) {
 		if (!isIncludeDoc || null == docText) {
 			return;
 		}
@@ -634,6 +785,7 @@ public class XsdGenerator extends Generator {
 		XmlSchemaDocumentation xsdDoc = new XmlSchemaDocumentation();
 		xsdAnnotation.getItems().add(xsdDoc);
 
+		Document documentationDocument = (Document) schema.getMetaInfoMap().get(META_KEY_DOCUMENTATION);
 		Text textNode = documentationDocument.createTextNode(docText);
 		DocumentFragment docFragment = documentationDocument.createDocumentFragment();
 		docFragment.appendChild(textNode);
@@ -641,4 +793,457 @@ public class XsdGenerator extends Generator {
 
 	}
 
+
+	/**
+	 * Writes a single schema file.
+	 */
+	@FunctionalInterface
+	private interface SchemaFileWriter {
+
+		void write(OutputSink sink, String filename) throws GeneratorException;
+	}
+
+	/**
+	 * Writer for streaming the schema of a single area or service namespace.
+	 * <p>
+	 * It produces the same schema content in the same order as the XML Schema object model built
+	 * by this generator. Before writing, the referenced namespaces are collected in the order of
+	 * their first reference, so that imports and namespace prefixes ({@code ns0}, {@code ns1}, ...)
+	 * match those assigned when serializing the object model.
+	 */
+	private class SchemaStreamWriter {
+
+		private static final String INDENT = "    ";
+		private static final int MAX_DEPTH = 16;
+
+		private final Area area;
+		private final Service service;
+		private final String targetNamespace;
+		private final Map<String, String> prefixes = new HashMap<>();
+		private final boolean[] hasChildElements = new boolean[MAX_DEPTH];
+		private final List<String> pendingAttributes = new ArrayList<>();
+		private XMLStreamWriter out;
+		private String pendingElement;
+		private int depth = 0;
+
+		SchemaStreamWriter(Area area, Service service) {
+			this.area = area;
+			this.service = service;
+			this.targetNamespace = toNamespace(area.getName(), null == service ? null : service.getName());
+		}
+
+		void write(OutputSink sink, String filename) throws GeneratorException {
+			logger.debug("Streaming schema file '{}'.", filename);
+			Set<String> namespaces = collectReferencedNamespaces();
+			prefixes.put(Constants.URI_2001_SCHEMA_XSD, "xs");
+			prefixes.put(MALXML_NAMESPACE, "malxml");
+			prefixes.putIfAbsent(targetNamespace, "");
+			int nPrefixes = 0;
+			for (String namespace : namespaces) {
+				if (!prefixes.containsKey(namespace)) {
+					prefixes.put(namespace, "ns" + nPrefixes++);
+				}
+			}
+			namespaces.add(MALXML_NAMESPACE); // always add import for MAL types
+			namespaces.remove(targetNamespace);
+
+			writeFile(sink, filename, os -> {
+				try {
+					BufferedOutputStream bos = new BufferedOutputStream(os);
+					// StAX cannot write the standalone declaration, which the serializer of the object model emits
+					bos.write((XML_DECLARATION + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+					out = XML_OUTPUT_FACTORY.get().createXMLStreamWriter(bos, StandardCharsets.UTF_8.name());
+					try {
+						writeSchemaElement(namespaces);
+						out.writeEndDocument();
+						out.writeCharacters(LINE_SEPARATOR);
+						out.flush();
+					} finally {
+						out.close();
+					}
+				} catch (XMLStreamException ex) {
+					throw new GeneratorException(ex);
+				}
+			});
+		}
+
+		private Set<String> collectReferencedNamespaces() {
+			Set<String> namespaces = new LinkedHashSet<>();
+			for (DataType dataType : getDataTypes()) {
+				if (null != dataType.getExtendsType()) {
+					namespaces.add(toNamespace(dataType.getExtendsType()));
+				}
+				for (Field field : dataType.getFields()) {
+					namespaces.add(toNamespace(field.getType()));
+				}
+			}
+			if (null != service && isCreateBodyTypes) {
+				for (CapabilitySet cs : service.getCapabilitySets()) {
+					for (Operation op : cs.getOperations()) {
+						for (Message msgDetails : op.getMessages()) {
+							if (isPubSub(msgDetails)) {
+								namespaces.add(MALXML_NAMESPACE);
+							}
+							for (Field field : msgDetails.getFields()) {
+								namespaces.add(toNamespace(field.getType()));
+							}
+						}
+					}
+				}
+			}
+			return namespaces;
+		}
+
+		private void writeSchemaElement(Set<String> imports) throws XMLStreamException {
+			out.writeStartElement("xs", "schema", Constants.URI_2001_SCHEMA_XSD);
+			out.writeNamespace("xs", Constants.URI_2001_SCHEMA_XSD);
+			for (Map.Entry<String, String> prefix : prefixes.entrySet()) {
+				if (prefix.getValue().isEmpty()) {
+					out.writeDefaultNamespace(prefix.getKey());
+				}
+			}
+			out.writeNamespace("malxml", MALXML_NAMESPACE);
+			for (int i = 0; i < prefixes.size(); i++) {
+				String prefix = "ns" + i;
+				for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+					if (prefix.equals(entry.getValue())) {
+						out.writeNamespace(prefix, entry.getKey());
+					}
+				}
+			}
+			out.writeAttribute("attributeFormDefault", "qualified");
+			out.writeAttribute("elementFormDefault", "qualified");
+			out.writeAttribute("targetNamespace", targetNamespace);
+			depth = 1;
+			hasChildElements[0] = false;
+
+			for (String namespace : imports) {
+				start("import");
+				attribute("namespace", namespace);
+				end();
+			}
+			if (null == service && MAL_AREA_NAME.equals(area.getName())) {
+				// XSD type and element for message body as defined in CCSDS 524.3-B-1, 3.7.3.2 need to be added explicitly.
+				writeExtraMalBodyType();
+			}
+			for (DataType dataType : getDataTypes()) {
+				writeDataType(dataType);
+			}
+			if (null != service && isCreateBodyTypes) {
+				for (CapabilitySet cs : service.getCapabilitySets()) {
+					for (Operation op : cs.getOperations()) {
+						// error message bodies are not handled yet, see TODO in buildSchemas()
+						for (Message msgDetails : op.getMessages()) {
+							writeMessageBody(op, msgDetails);
+						}
+					}
+				}
+			}
+			end();
+		}
+
+		private List<DataType> getDataTypes() {
+			return null == service ? area.getDataTypes() : service.getDataTypes();
+		}
+
+		private void writeDataType(DataType dataType) throws XMLStreamException {
+			boolean isAbstract;
+			switch (dataType.getKind()) {
+				case COMPOSITE:
+					isAbstract = dataType.isAbstract();
+					writeCompositeType(dataType, isAbstract);
+					break;
+				case ENUMERATION:
+					isAbstract = false;
+					writeEnumerationType(dataType);
+					break;
+				case ATTRIBUTE:
+					isAbstract = false;
+					writeAttributeType(dataType);
+					break;
+				case FUNDAMENTAL:
+					isAbstract = true;
+					writeFundamentalType(dataType);
+					break;
+				default:
+					logger.warn("Unsupported data type '{}' cannot be mapped to XML Schema type.", dataType);
+					return;
+			}
+			String listName = dataType.getName() + "List";
+			writeCorrespondingListType(dataType.getName(), isAbstract);
+			// add elements for use in message bodies
+			writeCorrespondingElement(dataType.getName(), qName(targetNamespace, dataType.getName()), true);
+			writeCorrespondingElement(listName, qName(targetNamespace, listName), true);
+		}
+
+		private void writeCompositeType(DataType composite, boolean isAbstract) throws XMLStreamException {
+			start("complexType");
+			if (isAbstract) {
+				attribute("abstract", "true");
+			}
+			attribute("name", composite.getName());
+			writeDoc(composite.getComment());
+			start("complexContent");
+			start("extension");
+			attribute("base", null == composite.getExtendsType() ? qName(XSD_MAL_COMPOSITE) : qName(composite.getExtendsType()));
+			start("sequence");
+			for (Field field : composite.getFields()) {
+				start("element");
+				attribute("name", field.getName());
+				if (field.isCanBeNull()) {
+					attribute("nillable", "true");
+				}
+				attribute("type", qName(field.getType()));
+				writeDoc(field.getComment());
+				end();
+			}
+			end();
+			end();
+			end();
+			end();
+		}
+
+		private void writeEnumerationType(DataType enumeration) throws XMLStreamException {
+			String enumName = enumeration.getName() + "Enum";
+			start("complexType");
+			attribute("name", enumeration.getName());
+			writeDoc(enumeration.getComment());
+			start("complexContent");
+			start("extension");
+			attribute("base", qName(XSD_MAL_ELEMENT));
+			start("sequence");
+			start("element");
+			attribute("name", enumeration.getName());
+			attribute("type", qName(targetNamespace, enumName));
+			end();
+			end();
+			end();
+			end();
+			end();
+
+			start("simpleType");
+			attribute("name", enumName);
+			start("restriction");
+			attribute("base", qName(Constants.XSD_STRING));
+			for (EnumerationItem item : enumeration.getItems()) {
+				start("enumeration");
+				attribute("value", item.getValue());
+				writeDoc(item.getComment());
+				end();
+			}
+			end();
+			end();
+		}
+
+		private void writeAttributeType(DataType attribute) throws XMLStreamException {
+			start("complexType");
+			attribute("name", attribute.getName());
+			writeDoc(attribute.getComment());
+			start("complexContent");
+			start("extension");
+			attribute("base", qName(XSD_MAL_ATTRIBUTE));
+			start("sequence");
+			start("element");
+			attribute("name", attribute.getName());
+			// map attribute to XSD type - unknown attributes are mapped to anyType
+			attribute("type", qName(ATTRIBUTE_XSD_MAPPING.getOrDefault(attribute.getName(), Constants.XSD_ANYTYPE)));
+			end();
+			end();
+			end();
+			end();
+			end();
+		}
+
+		private void writeFundamentalType(DataType fundamental) throws XMLStreamException {
+			start("complexType");
+			attribute("abstract", "true");
+			attribute("name", fundamental.getName());
+			writeDoc(fundamental.getComment());
+			if (null != fundamental.getExtendsType()) {
+				start("complexContent");
+				start("extension");
+				attribute("base", qName(fundamental.getExtendsType()));
+				// PENDING: Not sure whether the attribute should go in the base type or in each Composite (5.6.8).
+				if ("Composite".equals(fundamental.getName())) {
+					start("attribute");
+					attribute("name", "type");
+					attribute("type", qName(Constants.XSD_LONG));
+					end();
+				}
+				end();
+				end();
+			}
+			end();
+		}
+
+		private void writeCorrespondingListType(String name, boolean isAbstract) throws XMLStreamException {
+			start("complexType");
+			if (isAbstract) {
+				attribute("abstract", "true");
+			}
+			attribute("name", name + "List");
+			start("complexContent");
+			start("extension");
+			attribute("base", qName(XSD_MAL_COMPOSITE));
+			start("sequence");
+			start("element");
+			attribute("maxOccurs", "unbounded");
+			attribute("minOccurs", "0");
+			attribute("name", name);
+			attribute("nillable", "true");
+			attribute("type", qName(targetNamespace, name));
+			end();
+			end();
+			end();
+			end();
+			end();
+		}
+
+		private void writeCorrespondingElement(String name, String typeName, boolean isNillable) throws XMLStreamException {
+			start("element");
+			attribute("name", name);
+			if (isNillable) {
+				attribute("nillable", "true");
+			}
+			attribute("type", typeName);
+			end();
+		}
+
+		private void writeExtraMalBodyType() throws XMLStreamException {
+			start("complexType");
+			attribute("name", XSD_MAL_BODY.getLocalPart());
+			start("sequence");
+			start("any");
+			attribute("maxOccurs", "unbounded");
+			attribute("minOccurs", "0");
+			attribute("processContents", "lax");
+			end();
+			end();
+			end();
+			writeCorrespondingElement(XSD_MAL_BODY.getLocalPart(), qName(XSD_MAL_BODY), false);
+		}
+
+		private void writeMessageBody(Operation op, Message msgDetails) throws XMLStreamException {
+			start("complexType");
+			attribute("name", op.getName() + "_" + msgDetails.getStage().name() + "_" + XSD_MAL_BODY.getLocalPart());
+			writeDoc(msgDetails.getComment());
+			start("complexContent");
+			start("restriction");
+			attribute("base", qName(XSD_MAL_BODY));
+			start("sequence");
+			if (isPubSub(msgDetails)) {
+				// According to MAL Tables 3-27 and 3-29: Add extra message fields for PUBLISH and NOTIFY and transform given message fields to lists.
+				if (msgDetails.getStage() == InteractionStage.PUBSUB_NOTIFY) {
+					writeBodyElement(qName(MALXML_NAMESPACE, "Identifier"), null);
+				}
+				writeBodyElement(qName(MALXML_NAMESPACE, "UpdateHeaderList"), null);
+				for (Field field : msgDetails.getFields()) {
+					writeBodyElement(qName(toNamespace(field.getType()), field.getType().getName() + "List"), field.getComment());
+				}
+			} else {
+				for (Field field : msgDetails.getFields()) {
+					writeBodyElement(qName(field.getType()), field.getComment());
+				}
+			}
+			end();
+			end();
+			end();
+			end();
+		}
+
+		private void writeBodyElement(String elementName, String docText) throws XMLStreamException {
+			start("element");
+			attribute("ref", elementName);
+			writeDoc(docText);
+			end();
+		}
+
+		private void writeDoc(String docText) throws XMLStreamException {
+			if (!isIncludeDoc || null == docText) {
+				return;
+			}
+			start("annotation");
+			start("documentation");
+			flushPending();
+			out.writeCharacters(docText);
+			end();
+			end();
+		}
+
+		private String qName(TypeRef typeRef) {
+			return qName(toNamespace(typeRef), typeRef.isList() ? typeRef.getName() + "List" : typeRef.getName());
+		}
+
+		private String qName(QName name) {
+			return qName(name.getNamespaceURI(), name.getLocalPart());
+		}
+
+		private String qName(String namespace, String localName) {
+			String prefix = prefixes.get(namespace);
+			return prefix.isEmpty() ? localName : prefix + ":" + localName;
+		}
+
+		/**
+		 * Starts an element in the schema namespace. The element is written when its first child
+		 * or its end is written, so that elements without content are written as empty elements.
+		 */
+		private void start(String localName) throws XMLStreamException {
+			flushPending();
+			pendingElement = localName;
+		}
+
+		private void attribute(String name, String value) {
+			pendingAttributes.add(name);
+			pendingAttributes.add(value);
+		}
+
+		private void end() throws XMLStreamException {
+			if (null != pendingElement) {
+				writeIndent();
+				out.writeEmptyElement("xs", pendingElement, Constants.URI_2001_SCHEMA_XSD);
+				writePendingAttributes();
+				hasChildElements[depth - 1] = true;
+				return;
+			}
+			depth--;
+			if (hasChildElements[depth]) {
+				writeIndent();
+			}
+			out.writeEndElement();
+			if (depth > 0) {
+				hasChildElements[depth - 1] = true;
+			}
+		}
+
+		private void flushPending() throws XMLStreamException {
+			if (null == pendingElement) {
+				return;
+			}
+			if (depth >= MAX_DEPTH) {
+				throw new XMLStreamException("Schema elements are nested too deeply.");
+			}
+			writeIndent();
+			out.writeStartElement("xs", pendingElement, Constants.URI_2001_SCHEMA_XSD);
+			writePendingAttributes();
+			hasChildElements[depth - 1] = true;
+			hasChildElements[depth] = false;
+			depth++;
+		}
+
+		private void writePendingAttributes() throws XMLStreamException {
+			for (int i = 0; i < pendingAttributes.size(); i += 2) {
+				out.writeAttribute(pendingAttributes.get(i), pendingAttributes.get(i + 1));
+			}
+			pendingAttributes.clear();
+			pendingElement = null;
+		}
+
+		private void writeIndent() throws XMLStreamException {
+			out.writeCharacters(LINE_SEPARATOR);
+			for (int i = 0; i < depth; i++) {
+				out.writeCharacters(INDENT);
+			}
+		}
+	}
+
 }
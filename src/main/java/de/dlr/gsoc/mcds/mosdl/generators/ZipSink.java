@@ -0,0 +1,77 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Output sink writing generated files as entries of a zip or jar archive to a stream.
+ * <p>
+ * Entries are written in the order the files are written, one at a time. Each file name must only
+ * be written once. The archive is complete after the sink has been closed.
+ */
+public final class ZipSink implements OutputSink, Closeable {
+
+	private final ZipOutputStream zos;
+	private final WritableByteChannel channel;
+
+	/**
+	 * Creates a sink writing a zip archive.
+	 *
+	 * @param os the stream to write the archive to; it is closed when closing the sink
+	 */
+	public ZipSink(OutputStream os) {
+		this(new ZipOutputStream(os));
+	}
+
+	/**
+	 * Creates a sink writing a jar archive.
+	 *
+	 * @param os the stream to write the archive to; it is closed when closing the sink
+	 * @param manifest the manifest written as first entry of the archive
+	 * @throws IOException thrown if the manifest cannot be written
+	 */
+	public ZipSink(OutputStream os, Manifest manifest) throws IOException {
+		this(new JarOutputStream(os, manifest));
+	}
+
+	private ZipSink(ZipOutputStream zos) {
+		this.zos = zos;
+		this.channel = Channels.newChannel(zos);
+	}
+
+	@Override
+	public synchronized boolean write(String name, ByteBuffer content) throws IOException {
+		zos.putNextEntry(new ZipEntry(name));
+		ByteBuffer bytes = content.duplicate();
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		zos.closeEntry();
+		return true;
+	}
+
+	/**
+	 * Finishes the archive and closes the underlying stream.
+	 *
+	 * @throws IOException thrown if the archive cannot be finished
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		zos.close();
+	}
+
+	@Override
+	public String toString() {
+		return "zip archive";
+	}
+}
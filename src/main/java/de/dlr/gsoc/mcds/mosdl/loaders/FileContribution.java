@@ -0,0 +1,127 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import java.util.List;
+import org.ccsds.schema.serviceschema.AreaDataTypeList;
+import org.ccsds.schema.serviceschema.AreaType;
+import org.ccsds.schema.serviceschema.SpecificationType;
+
+/**
+ * The contribution of a single MOSDL file to a specification.
+ * <p>
+ * Each MOSDL file describes exactly one area. Either this area is new, or the file adds services,
+ * data types and errors to an area of the same name defined by a previously loaded file. In the
+ * latter case the file may also change the area number and always replaces the area
+ * documentation. This class captures exactly these changes so that they can be stored and applied
+ * again later without parsing the file.
+ */
+class FileContribution {
+
+	private final AreaType area;
+	private final boolean isNewArea;
+	private final boolean hasExplicitNumber;
+	private final int serviceOffset;
+	private final int dataTypeOffset;
+	private final int errorOffset;
+
+	/**
+	 * Starts capturing the contribution of a file to an area.
+	 * <p>
+	 * Must be called before any element of the file is added to the area.
+	 *
+	 * @param area the area the file contributes to
+	 * @param isNewArea {@code true} if the area has been created by the file, {@code false} if it
+	 * already existed
+	 * @param hasExplicitNumber {@code true} if the file explicitly specifies an area number,
+	 * {@code false} otherwise
+	 */
+	FileContribution(AreaType area, boolean isNewArea, boolean hasExplicitNumber) {
+		this.area = area;
+		this.isNewArea = isNewArea;
+		this.hasExplicitNumber = hasExplicitNumber;
+		this.serviceOffset = area.getService().size();
+		this.dataTypeOffset = null == area.getDataTypes() ? 0 : area.getDataTypes().getFundamentalOrAttributeOrComposite().size();
+		this.errorOffset = area.getErrors().size();
+	}
+
+	boolean isNewArea() {
+		return isNewArea;
+	}
+
+	boolean hasExplicitNumber() {
+		return hasExplicitNumber;
+	}
+
+	/**
+	 * Creates a stand-alone area that contains only the elements contributed by the file.
+	 * <p>
+	 * The returned area shares its child elements with the area of the loaded specification.
+	 *
+	 * @return an area containing the contributed elements
+	 */
+	AreaType toFragment() {
+		AreaType fragment = new AreaType();
+		fragment.setName(area.getName());
+		fragment.setNumber(area.getNumber());
+		fragment.setVersion(area.getVersion());
+		fragment.setComment(area.getComment());
+		fragment.getService().addAll(tail(area.getService(), serviceOffset));
+		if (null != area.getDataTypes()) {
+			List<Object> dataTypes = tail(area.getDataTypes().getFundamentalOrAttributeOrComposite(), dataTypeOffset);
+			if (!dataTypes.isEmpty()) {
+				fragment.setDataTypes(new AreaDataTypeList());
+				fragment.getDataTypes().getFundamentalOrAttributeOrComposite().addAll(dataTypes);
+			}
+		}
+		fragment.getErrors().addAll(tail(area.getErrors(), errorOffset));
+		return fragment;
+	}
+
+	/**
+	 * Applies a previously captured contribution to a specification.
+	 * <p>
+	 * The contribution is only applied if the specification is in the same state regarding the
+	 * contributed area as when the contribution was captured, i.e. the area must not exist yet
+	 * for a new area and must already exist otherwise. The specification is left untouched if
+	 * this precondition does not hold.
+	 *
+	 * @param spec the specification to apply the contribution to
+	 * @param existingArea the area of the specification with the same name as the contributed
+	 * area or {@code null} if there is no such area
+	 * @param fragment the contributed elements as returned by {@link #toFragment()}
+	 * @param isNewArea {@code true} if the contribution created the area, {@code false} otherwise
+	 * @param hasExplicitNumber {@code true} if the contribution explicitly specified the area
+	 * number, {@code false} otherwise
+	 * @return {@code true} if the contribution has been applied, {@code false} otherwise
+	 */
+	static boolean mergeInto(SpecificationType spec, AreaType existingArea, AreaType fragment, boolean isNewArea, boolean hasExplicitNumber) {
+		if (isNewArea) {
+			if (null != existingArea) {
+				return false;
+			}
+			spec.getArea().add(fragment);
+			return true;
+		}
+		if (null == existingArea) {
+			return false;
+		}
+		if (hasExplicitNumber) {
+			existingArea.setNumber(fragment.getNumber());
+		}
+		existingArea.setComment(fragment.getComment());
+		existingArea.getService().addAll(fragment.getService());
+		if (null != fragment.getDataTypes()) {
+			if (null == existingArea.getDataTypes()) {
+				existingArea.setDataTypes(new AreaDataTypeList());
+			}
+			existingArea.getDataTypes().getFundamentalOrAttributeOrComposite().addAll(fragment.getDataTypes().getFundamentalOrAttributeOrComposite());
+		}
+		existingArea.getErrors().addAll(fragment.getErrors());
+		return true;
+	}
+
+	private static <T> List<T> tail(List<T> list, int offset) {
+		return list.subList(offset, list.size());
+	}
+}
@@ -0,0 +1,143 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * ANTLR character stream directly backed by a memory-mapped file.
+ * <p>
+ * In contrast to the streams created by {@link org.antlr.v4.runtime.CharStreams}, the file
+ * content is neither decoded nor copied to the heap. This only works for files that contain
+ * ASCII characters exclusively, because only then each byte of a UTF-8 encoded file corresponds to
+ * exactly one code point. Use {@link #map(Path)} to create a stream, which checks this
+ * precondition.
+ * <p>
+ * The file must not be modified while the stream is in use. The mapping is released when the
+ * stream is garbage collected.
+ */
+class MappedCharStream implements CharStream {
+
+	private final ByteBuffer buffer;
+	private final int size;
+	private final String sourceName;
+	private int position = 0;
+
+	private MappedCharStream(ByteBuffer buffer, String sourceName) {
+		this.buffer = buffer;
+		this.size = buffer.limit();
+		this.sourceName = sourceName;
+	}
+
+	/**
+	 * Creates a character stream for a file by mapping it into memory.
+	 *
+	 * @param file the file to map, expected to be UTF-8 encoded
+	 * @return the character stream or {@code null} if the file cannot be mapped because it is too
+	 * large or contains non-ASCII characters
+	 * @throws IOException thrown if the file cannot be read
+	 */
+	static MappedCharStream map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			if (fileSize > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+			for (int i = 0; i < buffer.limit(); i++) {
+				if (buffer.get(i) < 0) {
+					// non-ASCII byte, i.e. part of a multi-byte UTF-8 sequence or a byte order mark
+					return null;
+				}
+			}
+			return new MappedCharStream(buffer, file.toString());
+		}
+	}
+
+	@Override
+	public String getText(Interval interval) {
+		int startIdx = Math.min(interval.a, size);
+		int len = Math.min(interval.b - interval.a + 1, size - startIdx);
+		if (len <= 0) {
+			return "";
+		}
+		byte[] bytes = new byte[len];
+		ByteBuffer view = buffer.duplicate();
+		view.position(startIdx);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.US_ASCII);
+	}
+
+	@Override
+	public void consume() {
+		if (size - position == 0) {
+			throw new IllegalStateException("cannot consume EOF");
+		}
+		position++;
+	}
+
+	@Override
+	public int LA(int i) {
+		int offset;
+		switch (Integer.signum(i)) {
+			case -1:
+				offset = position + i;
+				if (offset < 0) {
+					return IntStream.EOF;
+				}
+				return buffer.get(offset);
+			case 0:
+				// undefined
+				return 0;
+			default:
+				offset = position + i - 1;
+				if (offset >= size) {
+					return IntStream.EOF;
+				}
+				return buffer.get(offset);
+		}
+	}
+
+	@Override
+	public int mark() {
+		return -1;
+	}
+
+	@Override
+	public void release(int marker) {
+		// the whole file is always available
+	}
+
+	@Override
+	public int index() {
+		return position;
+	}
+
+	@Override
+	public void seek(int index) {
+		position = index;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String getSourceName() {
+		return null == sourceName || sourceName.isEmpty() ? IntStream.UNKNOWN_SOURCE_NAME : sourceName;
+	}
+
+	@Override
+	public String toString() {
+		return getText(Interval.of(0, size - 1));
+	}
+}
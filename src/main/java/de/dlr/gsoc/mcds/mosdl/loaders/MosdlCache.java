@@ -0,0 +1,306 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import de.dlr.gsoc.mcds.mosdl.CompilerFingerprint;
+import de.dlr.gsoc.mcds.mosdl.Digests;
+import de.dlr.gsoc.mcds.mosdl.JaxbRegistry;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import org.ccsds.schema.serviceschema.AreaType;
+import org.ccsds.schema.serviceschema.ObjectFactory;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent on-disk cache for the contributions of single MOSDL files to a specification.
+ * <p>
+ * The result of loading a MOSDL file depends on its content, on the compiler and on the files
+ * loaded before it: Automatically assigned numbers continue after the highest numbers already
+ * present, and a file either creates a new area or extends an existing one. Therefore, each entry
+ * is keyed by a hash of the compiler version and the file content together with the numbering
+ * state in effect when the file is loaded. Whether the area already existed is stored with the
+ * entry and checked when restoring it. Any change to a file that shifts automatically assigned
+ * numbers thus invalidates the entries of all files loaded after it, while all other files are
+ * still restored from the cache.
+ * <p>
+ * The size of the cache is limited by deleting the least recently used entries after a load (see
+ * {@link #prune(long)}), so that entries of files that have been changed or deleted eventually
+ * disappear. The cache directory may be deleted at any time.
+ */
+class MosdlCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(MosdlCache.class);
+
+	private static final int FORMAT_VERSION = 1;
+	private static final String ENTRY_FILE_ENDING = ".entry";
+	private static final String KEY_SEPARATOR = "_";
+	private static final String COMPILER_FINGERPRINT = FORMAT_VERSION + "/" + CompilerFingerprint.get();
+
+	private final Path directory;
+	private final Set<String> knownContentHashes = new HashSet<>();
+	private final Set<Path> usedEntryFiles = new HashSet<>();
+
+	/**
+	 * Opens a cache in the given directory, creating the directory if necessary.
+	 *
+	 * @param directory the cache directory
+	 * @throws IOException thrown if the cache directory cannot be created or read
+	 */
+	MosdlCache(File directory) throws IOException {
+		this.directory = directory.toPath();
+		Files.createDirectories(this.directory);
+		try (Stream<Path> entries = Files.list(this.directory)) {
+			entries.map(p -> p.getFileName().toString())
+					.filter(name -> name.endsWith(ENTRY_FILE_ENDING) && name.contains(KEY_SEPARATOR))
+					.forEach(name -> knownContentHashes.add(name.substring(0, name.indexOf(KEY_SEPARATOR))));
+		}
+	}
+
+	/**
+	 * Computes the content hash of a MOSDL file.
+	 * <p>
+	 * The hash also covers the {@link CompilerFingerprint} so that entries created by a different
+	 * compiler are never used.
+	 *
+	 * @param content the file content
+	 * @return the content hash as hexadecimal string
+	 */
+	String hash(byte[] content) {
+		MessageDigest digest = Digests.sha256();
+		digest.update(COMPILER_FINGERPRINT.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(content);
+		return Digests.toHex(digest.digest());
+	}
+
+	/**
+	 * Determines whether the cache might contain an entry for a file.
+	 * <p>
+	 * If this method returns {@code false}, {@link #restore(String, String, SpecificationType, SymbolTable)} is
+	 * guaranteed to return {@code null} for the given content hash.
+	 *
+	 * @param contentHash the content hash of the file
+	 * @return {@code true} if there is at least one entry for the content hash, {@code false}
+	 * otherwise
+	 */
+	boolean mayContain(String contentHash) {
+		return knownContentHashes.contains(contentHash);
+	}
+
+	/**
+	 * Restores the contribution of a file from the cache and applies it to a specification.
+	 *
+	 * @param contentHash the content hash of the file
+	 * @param numberingState the numbering state in effect before loading the file
+	 * @param spec the specification to apply the contribution to
+	 * @param symbols the symbol table of the specification, used to look up existing areas
+	 * @return the restored area or area extension that has been applied to the specification or
+	 * {@code null} if there is no matching entry
+	 */
+	AreaType restore(String contentHash, String numberingState, SpecificationType spec, SymbolTable symbols) {
+		Path entryFile = getEntryFile(contentHash, numberingState);
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entryFile)))) {
+			if (in.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			boolean isNewArea = in.readBoolean();
+			boolean hasExplicitNumber = in.readBoolean();
+			SpecificationType entrySpec = unmarshal(in);
+			if (entrySpec.getArea().size() != 1) {
+				return null;
+			}
+			AreaType fragment = entrySpec.getArea().get(0);
+			if (!FileContribution.mergeInto(spec, symbols.getArea(fragment.getName()), fragment, isNewArea, hasExplicitNumber)) {
+				return null;
+			}
+			usedEntryFiles.add(entryFile);
+			return fragment;
+		} catch (NoSuchFileException ex) {
+			return null;
+		} catch (IOException | JAXBException ex) {
+			logger.debug("Ignoring unreadable MOSDL cache entry '{}'.", entryFile, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the contribution of a file in the cache.
+	 * <p>
+	 * Failures are logged, but otherwise ignored, because the cache is only an optimization.
+	 *
+	 * @param contentHash the content hash of the file
+	 * @param numberingState the numbering state in effect before loading the file
+	 * @param contribution the contribution of the file
+	 */
+	void store(String contentHash, String numberingState, FileContribution contribution) {
+		Path entryFile = getEntryFile(contentHash, numberingState);
+		Path tempFile = null;
+		try {
+			tempFile = Files.createTempFile(directory, contentHash, ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeBoolean(contribution.isNewArea());
+				out.writeBoolean(contribution.hasExplicitNumber());
+				SpecificationType entrySpec = new SpecificationType();
+				entrySpec.getArea().add(contribution.toFragment());
+				marshal(entrySpec, out);
+			}
+			// atomic move so that concurrent compiler runs never see partially written entries
+			Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			knownContentHashes.add(contentHash);
+			usedEntryFiles.add(entryFile);
+		} catch (IOException | JAXBException ex) {
+			logger.warn("Could not write MOSDL cache entry '{}': {}", entryFile, ex.getLocalizedMessage());
+			if (null != tempFile) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException ex2) {
+					// ignore, nothing sensible left to do
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries until all entries take up at most the given size.
+	 * <p>
+	 * Entries restored or stored by this instance are marked as used now and are never deleted.
+	 * Failures are logged, but otherwise ignored, because the cache is only an optimization.
+	 *
+	 * @param maxSize the maximum size of all entries in bytes
+	 */
+	void prune(long maxSize) {
+		FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+		for (Path entryFile : usedEntryFiles) {
+			try {
+				Files.setLastModifiedTime(entryFile, now);
+			} catch (IOException ex) {
+				logger.debug("Could not mark MOSDL cache entry '{}' as used.", entryFile, ex);
+			}
+		}
+		List<Path> entryFiles;
+		Map<Path, BasicFileAttributes> attributes = new HashMap<>();
+		long size = 0;
+		try (Stream<Path> entries = Files.list(directory)) {
+			entryFiles = entries.filter(p -> p.getFileName().toString().endsWith(ENTRY_FILE_ENDING)).collect(Collectors.toList());
+			for (Path entryFile : entryFiles) {
+				BasicFileAttributes entryAttributes = Files.readAttributes(entryFile, BasicFileAttributes.class);
+				attributes.put(entryFile, entryAttributes);
+				size += entryAttributes.size();
+			}
+		} catch (IOException ex) {
+			// another compiler run may just have deleted an entry, pruning is repeated after the next load anyway
+			logger.debug("Could not determine size of MOSDL cache '{}'.", directory, ex);
+			return;
+		}
+		if (size <= maxSize) {
+			return;
+		}
+		entryFiles.sort(Comparator.comparing(entryFile -> attributes.get(entryFile).lastModifiedTime()));
+		int nDeletedEntries = 0;
+		for (Path entryFile : entryFiles) {
+			if (size <= maxSize) {
+				break;
+			}
+			if (usedEntryFiles.contains(entryFile)) {
+				continue;
+			}
+			try {
+				Files.deleteIfExists(entryFile);
+				size -= attributes.get(entryFile).size();
+				nDeletedEntries++;
+			} catch (IOException ex) {
+				logger.debug("Could not delete MOSDL cache entry '{}'.", entryFile, ex);
+			}
+		}
+		logger.debug("Deleted {} least recently used MOSDL cache entries.", nDeletedEntries);
+	}
+
+	private Path getEntryFile(String contentHash, String numberingState) {
+		return directory.resolve(contentHash + KEY_SEPARATOR + numberingState + ENTRY_FILE_ENDING);
+	}
+
+	private static void marshal(SpecificationType spec, OutputStream out) throws JAXBException, IOException {
+		Writer writer = new WhitespaceEscapingWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		try (JaxbRegistry.Lease<Marshaller> marshaller = JaxbRegistry.leaseMarshaller()) {
+			marshaller.get().marshal(new ObjectFactory().createSpecification(spec), writer);
+		}
+		writer.flush();
+	}
+
+	private static SpecificationType unmarshal(InputStream in) throws JAXBException {
+		try (JaxbRegistry.Lease<Unmarshaller> unmarshaller = JaxbRegistry.leaseUnmarshaller()) {
+			return (SpecificationType) ((JAXBElement) unmarshaller.get().unmarshal(in)).getValue();
+		}
+	}
+
+	/**
+	 * Writer that replaces tabs and carriage returns by character references.
+	 * <p>
+	 * Documentation is stored in attributes, whose whitespace would otherwise be normalized when
+	 * reading a cache entry. Character references are equivalent in element content, so all
+	 * occurrences can be replaced.
+	 */
+	private static class WhitespaceEscapingWriter extends FilterWriter {
+
+		WhitespaceEscapingWriter(Writer out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			if ('\t' == c) {
+				out.write("&#9;");
+			} else if ('\r' == c) {
+				out.write("&#13;");
+			} else {
+				out.write(c);
+			}
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			for (int i = off; i < off + len; i++) {
+				write(cbuf[i]);
+			}
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			for (int i = off; i < off + len; i++) {
+				write(str.charAt(i));
+			}
+		}
+	}
+}
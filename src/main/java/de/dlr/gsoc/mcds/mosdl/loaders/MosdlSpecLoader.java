@@ -2,34 +2,52 @@
 // SPDX-License-Identifier: Apache-2.0
 package de.dlr.gsoc.mcds.mosdl.loaders;
 
+import de.dlr.gsoc.mcds.mosdl.Concurrency;
 import de.dlr.gsoc.mcds.mosdl.InteractionStage;
 import de.dlr.gsoc.mcds.mosdl.MOSDLBaseListener;
 import de.dlr.gsoc.mcds.mosdl.MOSDLLexer;
 import de.dlr.gsoc.mcds.mosdl.MOSDLParser;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import jakarta.xml.bind.JAXBElement;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenFactory;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.UnbufferedCharStream;
+import org.antlr.v4.runtime.UnbufferedTokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ErrorNode;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.ccsds.schema.serviceschema.AnyTypeReference;
@@ -66,15 +84,48 @@ import org.slf4j.LoggerFactory;
  * All MOSDL files comprising a single specification need to be supplied in the call to
  * {@link #setInput(File...)}. MOSDL files need to have '.mosdl' file ending and have to conform to
  * the MO service description language. Alternatively, directories containing MOSDL files may be
- * supplied.
+ * supplied. These are searched recursively and the files found are loaded in the order of their
+ * relative paths (see {@link #setIncludes(String...)} and {@link #setExcludes(String...)}).
+ * <p>
+ * Specifications can also be loaded without writing them to files first by supplying MOSDL content
+ * held in memory, class path resources or paths on other file systems like zip archives (see
+ * {@link #setSources(SpecSource...)}).
+ * <p>
+ * Files can be lexed and parsed concurrently (see {@link #setParallelism(int)}), but the resulting
+ * parse trees are always processed in input order. Therefore, the loaded specification - including
+ * all automatically assigned numbers - does not depend on the degree of parallelism.
+ * <p>
+ * By default, files are parsed using the two-stage strategy recommended by ANTLR: Parsing is first
+ * attempted with the faster but weaker SLL prediction mode, bailing out on the first error. Only if
+ * this fails, the file is parsed again with full LL prediction and regular error reporting (see
+ * {@link #setTwoStageParsing(boolean)}).
+ * <p>
+ * Optionally, the contribution of each file to the specification is stored in a persistent cache
+ * and restored in subsequent runs as long as neither the file nor any file loaded before it has
+ * changed in a way that affects numbering (see {@link #setCacheDirectory(File)}).
  */
 public class MosdlSpecLoader implements SpecLoader {
 
 	private static final Logger logger = LoggerFactory.getLogger(MosdlSpecLoader.class);
 
 	private static final String MOSDL_SPEC_FILE_ENDING = ".mosdl";
+	private static final int CHAR_STREAM_BUFFER_SIZE = 4096;
+	private static final long DEFAULT_MEMORY_MAPPING_THRESHOLD = 1024 * 1024;
+	private static final long DEFAULT_CACHE_SIZE_LIMIT = 256L * 1024 * 1024;
 	private final boolean isLaxMode;
-	private File[] files = {};
+	private SpecSource[] sources = {};
+	private int parallelism = 1;
+	private boolean isTwoStageParsing = true;
+	private boolean isStreaming = false;
+	private final AtomicInteger llFallbackCounter = new AtomicInteger();
+	private File cacheDirectory;
+	private long cacheSizeLimit = DEFAULT_CACHE_SIZE_LIMIT;
+	private int cacheHitCounter;
+	private List<String> includes = List.of();
+	private List<String> excludes = List.of();
+	private boolean isFollowLinks = true;
+	private long memoryMappingThreshold = DEFAULT_MEMORY_MAPPING_THRESHOLD;
+	private List<SpecSource> discoveredFiles;
 
 	/**
 	 * Create a new MOSDL loader instance.
@@ -95,66 +146,567 @@ public class MosdlSpecLoader implements SpecLoader {
 	 */
 	@Override
 	public void setInput(File... input) {
-		this.files = input;
+		setSources(Arrays.stream(input).map(SpecSource::of).toArray(SpecSource[]::new));
+	}
+
+	/**
+	 * Sets the input sources that comprise a single MO service specification in MOSDL format.
+	 * <p>
+	 * Path sources may denote directories on any file system, which are searched recursively like
+	 * input directories on the default file system. All other sources need to have a name with the
+	 * '.mosdl' file ending.
+	 *
+	 * @param sources a set of MOSDL sources that comprise an MO service specification
+	 */
+	@Override
+	public void setSources(SpecSource... sources) {
+		this.sources = sources;
+		this.discoveredFiles = null;
 	}
 
 	@Override
 	public File[] getInput() {
-		return files;
+		return Arrays.stream(sources).map(SpecSource::toFile).filter(Objects::nonNull).toArray(File[]::new);
+	}
+
+	/**
+	 * Sets the maximum number of MOSDL files that are lexed and parsed concurrently.
+	 *
+	 * @param parallelism the maximum number of files parsed at the same time; {@code 1} (the
+	 * default) parses all files sequentially
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Gets the maximum number of MOSDL files that are lexed and parsed concurrently.
+	 *
+	 * @return the maximum number of files parsed at the same time
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Enables or disables two-stage parsing.
+	 * <p>
+	 * If enabled, each file is first parsed with SLL prediction and a bail-out error strategy. Only
+	 * if this first stage fails, the file is parsed again with full LL prediction. Both stages
+	 * produce the same parse tree for valid input, but the first stage is considerably faster. If
+	 * disabled, every file is parsed with full LL prediction right away.
+	 *
+	 * @param isTwoStageParsing {@code true} (the default) to enable two-stage parsing,
+	 * {@code false} to always use full LL prediction
+	 */
+	public void setTwoStageParsing(boolean isTwoStageParsing) {
+		this.isTwoStageParsing = isTwoStageParsing;
+	}
+
+	/**
+	 * Determines whether two-stage parsing is enabled.
+	 *
+	 * @return {@code true} if two-stage parsing is enabled, {@code false} otherwise
+	 * @see #setTwoStageParsing(boolean)
+	 */
+	public boolean isTwoStageParsing() {
+		return isTwoStageParsing;
+	}
+
+	/**
+	 * Enables or disables streaming mode.
+	 * <p>
+	 * By default, a complete parse tree is built for each file before its content is added to the
+	 * specification. In streaming mode, each top-level element of a file (service, data type,
+	 * error) is added to the specification as soon as it has been parsed and then discarded.
+	 * Neither the file content nor all its tokens are kept in memory. Thus, memory usage while
+	 * loading is bounded by the size of the largest top-level element instead of the size of the
+	 * largest file. The loaded specification is the same in both modes.
+	 * <p>
+	 * Streaming mode always parses files sequentially with full LL prediction, i.e.
+	 * {@link #setParallelism(int)} and {@link #setTwoStageParsing(boolean)} have no effect.
+	 *
+	 * @param isStreaming {@code true} to enable streaming mode, {@code false} (the default) to
+	 * build complete parse trees
+	 */
+	public void setStreaming(boolean isStreaming) {
+		this.isStreaming = isStreaming;
+	}
+
+	/**
+	 * Determines whether streaming mode is enabled.
+	 *
+	 * @return {@code true} if streaming mode is enabled, {@code false} otherwise
+	 * @see #setStreaming(boolean)
+	 */
+	public boolean isStreaming() {
+		return isStreaming;
+	}
+
+	/**
+	 * Gets the number of files of the last call to {@link #load()} for which SLL parsing failed and
+	 * full LL parsing was necessary.
+	 * <p>
+	 * Files with syntax errors always need the second stage, so a non-zero count is expected in
+	 * this case.
+	 *
+	 * @return the number of files parsed a second time with full LL prediction
+	 */
+	public int getLlFallbackCount() {
+		return llFallbackCounter.get();
+	}
+
+	/**
+	 * Sets the directory used to cache the results of loading single MOSDL files across runs.
+	 * <p>
+	 * A cached result is only used if the file content, the compiler version and the numbering
+	 * state resulting from all files loaded before are unchanged. Hence, the loaded specification
+	 * is always the same as without cache. The cache is not used in lax mode.
+	 *
+	 * @param cacheDirectory the cache directory, which is created if necessary, or {@code null}
+	 * (the default) to disable caching
+	 */
+	public void setCacheDirectory(File cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Gets the directory used to cache the results of loading single MOSDL files across runs.
+	 *
+	 * @return the cache directory or {@code null} if caching is disabled
+	 */
+	public File getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * Sets the maximum size of the cache directory.
+	 * <p>
+	 * After each load, the least recently used cache entries are deleted until the cache does not
+	 * exceed this size. Entries used by the load itself are always kept.
+	 *
+	 * @param cacheSizeLimit the maximum size of all cache entries in bytes, 256 MiB by default
+	 */
+	public void setCacheSizeLimit(long cacheSizeLimit) {
+		if (cacheSizeLimit < 0) {
+			throw new IllegalArgumentException("Cache size limit must not be negative.");
+		}
+		this.cacheSizeLimit = cacheSizeLimit;
+	}
+
+	/**
+	 * Gets the maximum size of the cache directory.
+	 *
+	 * @return the maximum size of all cache entries in bytes
+	 */
+	public long getCacheSizeLimit() {
+		return cacheSizeLimit;
+	}
+
+	/**
+	 * Gets the number of files of the last call to {@link #load()} that have been restored from
+	 * the cache without parsing them.
+	 *
+	 * @return the number of files restored from the cache
+	 */
+	public int getCacheHitCount() {
+		return cacheHitCounter;
+	}
+
+	/**
+	 * Sets glob patterns restricting the MOSDL files loaded from input directories.
+	 * <p>
+	 * Input directories are searched recursively. A file in an input directory is only loaded if
+	 * its path relative to the input directory matches at least one of the patterns. The pattern
+	 * syntax is described in {@link java.nio.file.FileSystem#getPathMatcher(String)}, e.g.
+	 * {@code "common/**"} matches all files below the subdirectory 'common'. Files given directly
+	 * as input are always loaded.
+	 *
+	 * @param includes the glob patterns; no patterns (the default) include all MOSDL files
+	 */
+	public void setIncludes(String... includes) {
+		this.includes = List.of(includes);
+		this.discoveredFiles = null;
+	}
+
+	/**
+	 * Sets glob patterns excluding MOSDL files in input directories from loading.
+	 * <p>
+	 * A file in an input directory is not loaded if its path relative to the input directory
+	 * matches any of the patterns (see {@link #setIncludes(String...)}).
+	 *
+	 * @param excludes the glob patterns; no patterns (the default) exclude no files
+	 */
+	public void setExcludes(String... excludes) {
+		this.excludes = List.of(excludes);
+		this.discoveredFiles = null;
+	}
+
+	/**
+	 * Determines whether symbolic links inside input directories are followed.
+	 * <p>
+	 * Symbolic links given directly as input are always followed. Cycles formed by symbolic links
+	 * are detected and skipped.
+	 *
+	 * @param isFollowLinks {@code true} (the default) to follow symbolic links, {@code false} to
+	 * ignore linked files and directories
+	 */
+	public void setFollowLinks(boolean isFollowLinks) {
+		this.isFollowLinks = isFollowLinks;
+		this.discoveredFiles = null;
+	}
+
+	/**
+	 * Sets the file size from which on MOSDL files are memory-mapped instead of being read into
+	 * memory.
+	 * <p>
+	 * Memory-mapped files are lexed directly from the mapped bytes without decoding and copying
+	 * them, which reduces allocations for large files. This is only possible for files containing
+	 * ASCII characters exclusively; all other files are read as usual. Files restored from the
+	 * cache (see {@link #setCacheDirectory(File)}) are never memory-mapped, because their content
+	 * has already been read.
+	 *
+	 * @param memoryMappingThreshold the minimum file size in bytes for memory-mapping a file;
+	 * {@link Long#MAX_VALUE} disables memory-mapping. Defaults to 1 MiB.
+	 */
+	public void setMemoryMappingThreshold(long memoryMappingThreshold) {
+		this.memoryMappingThreshold = memoryMappingThreshold;
+	}
+
+	/**
+	 * Gets the file size from which on MOSDL files are memory-mapped.
+	 *
+	 * @return the minimum file size in bytes for memory-mapping a file
+	 * @see #setMemoryMappingThreshold(long)
+	 */
+	public long getMemoryMappingThreshold() {
+		return memoryMappingThreshold;
 	}
 
 	@Override
 	public boolean isLoadable() {
-		boolean isLoadable;
-		for (File file : files) {
-			if (file.isDirectory()) {
-				isLoadable = Arrays.stream(file.listFiles()).anyMatch(MosdlSpecLoader::isLoadable);
-			} else {
-				isLoadable = isLoadable(file);
-			}
-			if (isLoadable) {
-				return true;
-			}
+		try {
+			return !discoverFiles().isEmpty();
+		} catch (IOException ex) {
+			logger.warn("Could not search for MOSDL files: {}", ex.getLocalizedMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Searches the input for MOSDL files.
+	 * <p>
+	 * The result is kept so that a call to {@link #load()} following {@link #isLoadable()} does not
+	 * search again.
+	 *
+	 * @return the MOSDL files in loading order
+	 * @throws IOException thrown if an input directory cannot be searched
+	 */
+	private List<SpecSource> discoverFiles() throws IOException {
+		if (null == discoveredFiles) {
+			discoveredFiles = new SpecFileFinder(MOSDL_SPEC_FILE_ENDING, includes, excludes, isFollowLinks, parallelism).find(sources);
 		}
-		return false;
+		return discoveredFiles;
 	}
 
-	private static boolean isLoadable(final File singleFile) {
-		return singleFile.isFile() && singleFile.getPath().toLowerCase().endsWith(MOSDL_SPEC_FILE_ENDING);
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only MOSDL files found by the same search as used by {@link #load()} are returned.
+	 */
+	@Override
+	public List<SpecSource> findSpecFiles() throws IOException {
+		return List.copyOf(discoverFiles());
 	}
 
 	@Override
 	public SpecificationType load() throws LoaderException {
-		List<File> inputFiles = Arrays.stream(files)
-				.flatMap(f -> f.isDirectory() ? Arrays.stream(f.listFiles()) : Stream.of(f))
-				.filter(MosdlSpecLoader::isLoadable)
-				.collect(Collectors.toList());
+		List<SpecSource> inputFiles;
+		try {
+			inputFiles = discoverFiles();
+		} catch (IOException ex) {
+			throw new LoaderException(ex);
+		}
+		// search again in subsequent loads, files might have changed in between
+		discoveredFiles = null;
 
 		logger.debug("Loading specification from {} MOSDL file(s): {}", inputFiles.size(), inputFiles);
 		SpecificationType spec = new SpecificationType();
 		ParseListener parseListener = new ParseListener(spec, isLaxMode);
 		ErrorListener errorListener = new ErrorListener(isLaxMode);
-		for (File file : inputFiles) {
-			logger.debug("Loading MOSDL spec file '{}'. Lax mode: {}", file, isLaxMode);
-			try {
-				CharStream input = CharStreams.fromFileName(file.getPath());
-				MOSDLLexer lexer = new MOSDLLexer(input);
-				lexer.removeErrorListeners(); // remove default listener
-				lexer.addErrorListener(errorListener);
-				MOSDLParser parser = new MOSDLParser(new CommonTokenStream(lexer));
-				parser.removeErrorListeners(); // remove default listener
-				parser.addErrorListener(errorListener);
-				ParseTree parseTree = parser.area();
-				ParseTreeWalker.DEFAULT.walk(parseListener, parseTree);
-				logger.debug("Loaded MOSDL spec file '{}'.", file);
-			} catch (ParseCancellationException | IOException ex) {
-				throw new LoaderException(ex);
+		llFallbackCounter.set(0);
+		cacheHitCounter = 0;
+		MosdlCache cache = openCache();
+		byte[][] contents = new byte[inputFiles.size()][];
+		String[] contentHashes = new String[inputFiles.size()];
+		if (null != cache) {
+			for (int i = 0; i < inputFiles.size(); i++) {
+				contents[i] = readContent(inputFiles.get(i));
+				contentHashes[i] = cache.hash(contents[i]);
+			}
+		}
+		// in streaming mode the spec is built while parsing, which therefore has to happen in input order
+		int nThreads = isStreaming ? 1 : Concurrency.getThreadCount(parallelism, inputFiles.size());
+		ExecutorService executor = nThreads <= 1 ? null : Concurrency.newThreadPool(nThreads);
+		try {
+			List<Future<ParseTree>> parseTrees = new ArrayList<>(Collections.nCopies(inputFiles.size(), null));
+			if (null != executor) {
+				logger.debug("Parsing MOSDL files using {} threads.", nThreads);
+				for (int i = 0; i < inputFiles.size(); i++) {
+					if (null == cache || !cache.mayContain(contentHashes[i])) {
+						// file cannot be restored from cache, so start parsing right away
+						SpecSource file = inputFiles.get(i);
+						byte[] content = contents[i];
+						parseTrees.set(i, executor.submit(() -> parse(file, content, errorListener)));
+					}
+				}
+			}
+			// process files strictly in input order so that numbering is the same as in a sequential run
+			for (int i = 0; i < inputFiles.size(); i++) {
+				SpecSource file = inputFiles.get(i);
+				String numberingState = parseListener.getNumberingState();
+				AreaType restoredArea = null != cache && cache.mayContain(contentHashes[i]) ? cache.restore(contentHashes[i], numberingState, spec, parseListener.getSymbolTable()) : null;
+				if (null != restoredArea) {
+					parseListener.areaAdded(restoredArea);
+					cacheHitCounter++;
+					logger.debug("Restored MOSDL spec file '{}' from cache.", file);
+					continue;
+				}
+				if (isStreaming) {
+					parseStreaming(file, contents[i], errorListener, parseListener);
+				} else {
+					ParseTree parseTree = null == parseTrees.get(i) ? parse(file, contents[i], errorListener) : getParseTree(parseTrees.get(i));
+					parseTrees.set(i, null); // allow parse tree to be garbage collected after walking it
+					walk(parseTree, parseListener, file);
+				}
+				contents[i] = null;
+				if (null != cache) {
+					cache.store(contentHashes[i], numberingState, parseListener.getLastContribution());
+				}
+			}
+		} finally {
+			if (null != executor) {
+				executor.shutdownNow();
 			}
 		}
-		logger.debug("Loaded complete specification from {} MOSDL file(s).", inputFiles.size());
+		if (null != cache) {
+			cache.prune(cacheSizeLimit);
+		}
+		logger.debug("Loaded complete specification from {} MOSDL file(s). Full LL parsing was necessary for {} file(s). Restored {} file(s) from cache.", inputFiles.size(), llFallbackCounter.get(), cacheHitCounter);
 		return spec;
 	}
 
+	private MosdlCache openCache() throws LoaderException {
+		if (null == cacheDirectory) {
+			return null;
+		}
+		if (isLaxMode) {
+			// results of error recovery are not worth caching
+			logger.debug("MOSDL cache is not used in lax mode.");
+			return null;
+		}
+		try {
+			return new MosdlCache(cacheDirectory);
+		} catch (IOException ex) {
+			throw new LoaderException("Could not open MOSDL cache directory '" + cacheDirectory + "'.", ex);
+		}
+	}
+
+	private static byte[] readContent(SpecSource file) throws LoaderException {
+		try {
+			return file.readContent();
+		} catch (IOException ex) {
+			throw new LoaderException(ex);
+		}
+	}
+
+	/**
+	 * Lexes and parses a single MOSDL file.
+	 * <p>
+	 * This method does not touch any shared state besides the (stateless) error listener and can
+	 * therefore be called concurrently for different files.
+	 *
+	 * @param file the MOSDL file to parse
+	 * @param content the already read content of the file or {@code null} to read it from its
+	 * source
+	 * @param errorListener the listener for lexer and parser errors
+	 * @return the parse tree of the file
+	 * @throws LoaderException thrown if the file cannot be read or contains syntax errors and lax
+	 * mode is disabled
+	 */
+	private ParseTree parse(SpecSource file, byte[] content, ErrorListener errorListener) throws LoaderException {
+		logger.debug("Loading MOSDL spec file '{}'. Lax mode: {}", file, isLaxMode);
+		try {
+			CharStream input = openCharStream(file, content);
+			MOSDLLexer lexer = new MOSDLLexer(input);
+			lexer.removeErrorListeners(); // remove default listener
+			lexer.addErrorListener(errorListener);
+			CommonTokenStream tokens = new CommonTokenStream(lexer);
+			MOSDLParser parser = new MOSDLParser(tokens);
+			parser.removeErrorListeners(); // remove default listener
+			if (isTwoStageParsing) {
+				// lex complete file up front so that lexer errors are reported exactly once and not mistaken for SLL failures
+				tokens.fill();
+				parser.setErrorHandler(new BailErrorStrategy());
+				parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+				try {
+					return parser.area();
+				} catch (ParseCancellationException ex) {
+					// either a real syntax error or the input needs full LL prediction - retry to find out
+					llFallbackCounter.incrementAndGet();
+					logger.debug("SLL parsing of MOSDL spec file '{}' failed. Retrying with full LL prediction.", file);
+					tokens.seek(0);
+					parser.reset();
+					parser.setErrorHandler(new DefaultErrorStrategy());
+					parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+				}
+			}
+			parser.addErrorListener(errorListener);
+			return parser.area();
+		} catch (ParseCancellationException | IOException ex) {
+			throw new LoaderException(ex);
+		}
+	}
+
+	/**
+	 * Lexes and parses a single MOSDL file and adds its content to the specification while
+	 * parsing.
+	 * <p>
+	 * Neither the file content nor the token stream are buffered completely, and each top-level
+	 * element of the area is discarded from the parse tree as soon as it has been added to the
+	 * specification. Full LL prediction is used right away, because a second parsing stage would
+	 * add elements twice.
+	 *
+	 * @param file the MOSDL file to parse
+	 * @param content the already read content of the file or {@code null} to read it from its
+	 * source
+	 * @param errorListener the listener for lexer and parser errors
+	 * @param parseListener the listener building the specification
+	 * @throws LoaderException thrown if the file cannot be read or contains errors and lax mode is
+	 * disabled
+	 */
+	private void parseStreaming(SpecSource file, byte[] content, ErrorListener errorListener, ParseListener parseListener) throws LoaderException {
+		logger.debug("Streaming MOSDL spec file '{}'. Lax mode: {}", file, isLaxMode);
+		try (InputStream in = null == content ? file.openStream() : new ByteArrayInputStream(content)) {
+			UnbufferedCharStream input = new UnbufferedCharStream(in, CHAR_STREAM_BUFFER_SIZE, StandardCharsets.UTF_8);
+			input.name = file.getName();
+			MOSDLLexer lexer = new MOSDLLexer(input);
+			// token texts need to be copied, because the character stream does not keep them
+			lexer.setTokenFactory(new CommonTokenFactory(true));
+			lexer.removeErrorListeners(); // remove default listener
+			lexer.addErrorListener(errorListener);
+			MOSDLParser parser = new MOSDLParser(new UnbufferedTokenStream<>(lexer));
+			parser.removeErrorListeners(); // remove default listener
+			parser.addErrorListener(errorListener);
+			parser.addParseListener(new AreaElementWalker(parseListener));
+			parser.area();
+			logger.debug("Loaded MOSDL spec file '{}'.", file);
+		} catch (ParseCancellationException | IOException ex) {
+			throw new LoaderException(ex);
+		}
+	}
+
+	private CharStream openCharStream(SpecSource file, byte[] content) throws IOException {
+		Path path = file.getPath();
+		if (null == content && null == path) {
+			// in-memory sources are not copied again when reading their content
+			content = file.readContent();
+		}
+		if (null != content) {
+			return CharStreams.fromChannel(Channels.newChannel(new ByteArrayInputStream(content)), StandardCharsets.UTF_8, CHAR_STREAM_BUFFER_SIZE, CodingErrorAction.REPLACE, file.getName(), content.length);
+		}
+		// only files of the default file system can be mapped
+		if (path.getFileSystem() == FileSystems.getDefault() && Files.size(path) >= memoryMappingThreshold) {
+			CharStream input = MappedCharStream.map(path);
+			if (null != input) {
+				return input;
+			}
+			logger.debug("MOSDL spec file '{}' contains non-ASCII characters and is not memory-mapped.", file);
+		}
+		return CharStreams.fromPath(path);
+	}
+
+	private static void walk(ParseTree parseTree, ParseListener parseListener, SpecSource file) throws LoaderException {
+		try {
+			ParseTreeWalker.DEFAULT.walk(parseListener, parseTree);
+			logger.debug("Loaded MOSDL spec file '{}'.", file);
+		} catch (ParseCancellationException ex) {
+			throw new LoaderException(ex);
+		}
+	}
+
+	private static ParseTree getParseTree(Future<ParseTree> parseTree) throws LoaderException {
+		try {
+			return parseTree.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoaderException("Interrupted while parsing MOSDL files.", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof LoaderException) {
+				throw (LoaderException) ex.getCause();
+			}
+			throw new LoaderException(ex.getCause());
+		}
+	}
+
+	/**
+	 * Parse listener that forwards the top-level elements of an area to a {@link ParseListener} as
+	 * soon as they are parsed completely and removes them from the parse tree afterwards.
+	 */
+	private static class AreaElementWalker implements ParseTreeListener {
+
+		private final ParseListener parseListener;
+		private boolean isAreaEntered = false;
+
+		public AreaElementWalker(ParseListener parseListener) {
+			this.parseListener = parseListener;
+		}
+
+		@Override
+		public void exitEveryRule(ParserRuleContext ctx) {
+			if (ctx instanceof MOSDLParser.AreaContext) {
+				enterArea((MOSDLParser.AreaContext) ctx);
+				parseListener.exitArea((MOSDLParser.AreaContext) ctx);
+			} else if (ctx.getParent() instanceof MOSDLParser.AreaContext) {
+				MOSDLParser.AreaContext areaCtx = (MOSDLParser.AreaContext) ctx.getParent();
+				if (ctx instanceof MOSDLParser.NvidentifierContext) {
+					// area name and documentation are complete, all following children are top-level elements
+					enterArea(areaCtx);
+				} else if (!(ctx instanceof MOSDLParser.DocContext)) {
+					enterArea(areaCtx);
+					ParseTreeWalker.DEFAULT.walk(parseListener, ctx);
+					areaCtx.removeLastChild();
+				}
+			}
+		}
+
+		private void enterArea(MOSDLParser.AreaContext areaCtx) {
+			// when recovering from errors the area header might be incomplete
+			if (!isAreaEntered) {
+				isAreaEntered = true;
+				parseListener.enterArea(areaCtx);
+			}
+		}
+
+		@Override
+		public void enterEveryRule(ParserRuleContext ctx) {
+			// elements are only processed when complete
+		}
+
+		@Override
+		public void visitTerminal(TerminalNode node) {
+			// terminals are only processed as part of complete elements
+		}
+
+		@Override
+		public void visitErrorNode(ErrorNode node) {
+			// error nodes are reported by the error listener
+		}
+	}
+
 	private static class ErrorListener extends BaseErrorListener {
 
 		private final boolean isLaxMode;
@@ -220,8 +772,11 @@ public class MosdlSpecLoader implements SpecLoader {
 		private final AtomicInteger enumItemCounter = new AtomicInteger(START_ENUM_VALUE);
 		private final AtomicInteger errorCounter = new AtomicInteger(START_USER_ERROR);
 		private final Map<String, TypeReference> importedTypes = new HashMap<>();
-		private final Map<String, Set<TypeReference>> postponedTypes = new HashMap<>();
+		private final SymbolTable symbols = new SymbolTable();
 		private final ObjectFactory of = new ObjectFactory();
+		private NumberingIndex numberingIndex;
+		private FileContribution currentContribution;
+		private FileContribution lastContribution;
 
 		/**
 		 * Create a new listener instance.
@@ -235,6 +790,10 @@ public class MosdlSpecLoader implements SpecLoader {
 			this.spec = spec;
 			this.isLaxMode = isLaxMode;
 			initImportedTypes();
+			// subtract one because these numbers were not yet assigned, but the index holds the highest assigned numbers
+			numberingIndex = new NumberingIndex(START_USER_AREA - 1, START_USER_SERVICE - 1, START_USER_AREATYPE - 1, START_USER_ERROR - 1);
+			spec.getArea().forEach(numberingIndex::addArea);
+			spec.getArea().forEach(symbols::addArea);
 			initCounters();
 		}
 
@@ -258,94 +817,65 @@ public class MosdlSpecLoader implements SpecLoader {
 		 * <p>
 		 * This mechanism allows the user to omit identification numbers and have them
 		 * auto-generated. Counters are initialized to the highest numbers already present in the
-		 * spec so that any user-set numbers are not overwritten.
+		 * spec so that any user-set numbers are not overwritten. The highest numbers are taken from
+		 * the numbering index, which needs to be up to date with the spec.
 		 */
 		private void initCounters() {
-			// initialize appropriate counters to highest ones already present in spec
-			int maxArea = START_USER_AREA - 1; // subtract one because this number was not yet assigned, but here we try to find the highest assigned number
-			int maxService = START_USER_SERVICE - 1;
-			int maxAreaType = START_USER_AREATYPE - 1;
-			int maxError = START_USER_ERROR - 1;
-			for (AreaType area : spec.getArea()) {
-				maxArea = Math.max(maxArea, area.getNumber());
-				for (ServiceType service : area.getService()) {
-					maxService = Math.max(maxService, service.getNumber());
-					for (ErrorDefinitionType error : service.getErrors()) {
-						maxError = Math.max(maxError, (int) error.getNumber());
-					}
-					for (CapabilitySetType cs : service.getCapabilitySet()) {
-						for (OperationType op : cs.getSendIPOrSubmitIPOrRequestIP()) {
-							if (op instanceof SubmitOperationType) {
-								for (Object error : ((SubmitOperationType) op).getErrors()) {
-									if (error instanceof ErrorDefinitionType) {
-										maxError = Math.max(maxError, (int) ((ErrorDefinitionType) error).getNumber());
-									}
-								}
-							} else if (op instanceof RequestOperationType) {
-								for (Object error : ((RequestOperationType) op).getErrors()) {
-									if (error instanceof ErrorDefinitionType) {
-										maxError = Math.max(maxError, (int) ((ErrorDefinitionType) error).getNumber());
-									}
-								}
-							} else if (op instanceof InvokeOperationType) {
-								for (Object error : ((InvokeOperationType) op).getErrors()) {
-									if (error instanceof ErrorDefinitionType) {
-										maxError = Math.max(maxError, (int) ((ErrorDefinitionType) error).getNumber());
-									}
-								}
-							} else if (op instanceof ProgressOperationType) {
-								for (Object error : ((ProgressOperationType) op).getErrors()) {
-									if (error instanceof ErrorDefinitionType) {
-										maxError = Math.max(maxError, (int) ((ErrorDefinitionType) error).getNumber());
-									}
-								}
-							} else if (op instanceof PubSubOperationType) {
-								for (Object error : ((PubSubOperationType) op).getErrors()) {
-									if (error instanceof ErrorDefinitionType) {
-										maxError = Math.max(maxError, (int) ((ErrorDefinitionType) error).getNumber());
-									}
-								}
-							}
-						}
-					}
-				}
-				if (null != area.getDataTypes()) {
-					for (Object dataType : area.getDataTypes().getFundamentalOrAttributeOrComposite()) {
-						int typeNumber = 0;
-						if (dataType instanceof EnumerationType) {
-							typeNumber = (int) ((EnumerationType) dataType).getShortFormPart();
-						} else if (dataType instanceof CompositeType) {
-							Long tempTypeNumber = ((CompositeType) dataType).getShortFormPart();
-							if (null != tempTypeNumber) {
-								typeNumber = tempTypeNumber.intValue();
-							}
-						} else if (dataType instanceof AttributeType) {
-							typeNumber = (int) ((AttributeType) dataType).getShortFormPart();
-						}
-						maxAreaType = Math.max(maxAreaType, typeNumber);
-					}
-				}
-				for (ErrorDefinitionType error : area.getErrors()) {
-					maxError = Math.max(maxError, (int) error.getNumber());
-				}
-			}
-			areaCounter.set(maxArea + 1);
-			serviceCounter.set(maxService + 1);
-			areaTypeCounter.set(maxAreaType + 1);
-			errorCounter.set(maxError + 1);
+			areaCounter.set(numberingIndex.getMaxArea() + 1);
+			serviceCounter.set(numberingIndex.getMaxService() + 1);
+			areaTypeCounter.set(numberingIndex.getMaxAreaType() + 1);
+			errorCounter.set(numberingIndex.getMaxError() + 1);
+		}
+
+		/**
+		 * Accounts for an area or area extension that has been added to the spec without walking a
+		 * parse tree, e.g. restored from a cache.
+		 *
+		 * @param area the added area or the elements added to an existing area
+		 */
+		private void areaAdded(AreaType area) {
+			symbols.addArea(area);
+			numberingIndex.addArea(area);
+			initCounters();
+		}
+
+		/**
+		 * Gets the state of all counters that carry over from one MOSDL file to the next.
+		 * <p>
+		 * Together with the file content this state completely determines the contribution of a
+		 * file to the specification.
+		 *
+		 * @return a string representation of the counter state, usable in file names
+		 */
+		private String getNumberingState() {
+			return areaCounter.get() + "_" + serviceCounter.get() + "_" + areaTypeCounter.get() + "_" + errorCounter.get();
+		}
+
+		private SymbolTable getSymbolTable() {
+			return symbols;
+		}
+
+		/**
+		 * Gets the contribution of the most recently completed area, i.e. the most recently walked
+		 * MOSDL file.
+		 *
+		 * @return the contribution of the last file or {@code null} if no area has been completed
+		 * yet
+		 */
+		private FileContribution getLastContribution() {
+			return lastContribution;
 		}
 
 		@Override
 		public void enterArea(MOSDLParser.AreaContext ctx) {
 			String areaName = getName(ctx.nvidentifier());
-			currentArea = spec.getArea().stream()
-					.filter(a -> a.getName().equals(areaName))
-					.findAny().orElse(null);
+			currentArea = symbols.getArea(areaName);
 			boolean isNewArea = null == currentArea;
 			if (isNewArea) {
 				currentArea = new AreaType();
 				spec.getArea().add(currentArea);
 				currentArea.setName(areaName);
+				symbols.addArea(currentArea);
 				currentArea.setVersion(getVersion(ctx.nvidentifier()));
 				currentArea.setNumber(claimNumber(ctx.nvidentifier(), areaCounter));
 			} else if (null != getNumber(ctx.nvidentifier())) {
@@ -354,13 +884,17 @@ public class MosdlSpecLoader implements SpecLoader {
 				currentArea.setNumber(claimNumber(ctx.nvidentifier(), areaCounter));
 			}
 			currentArea.setComment(getDoc(ctx.doc()));
+			currentContribution = new FileContribution(currentArea, isNewArea, null != getNumber(ctx.nvidentifier()));
 		}
 
 		@Override
 		public void exitArea(MOSDLParser.AreaContext ctx) {
 			initImportedTypes();
+			numberingIndex.addArea(currentContribution.toFragment());
 			initCounters();
 			currentArea = null;
+			lastContribution = currentContribution;
+			currentContribution = null;
 		}
 
 		@Override
@@ -405,6 +939,7 @@ public class MosdlSpecLoader implements SpecLoader {
 			} else if (null != currentService) {
 				error.setComment(doc);
 				currentService.getErrors().add(error);
+				symbols.addServiceElement(errorName);
 			} else {
 				error.setComment(doc);
 				currentArea.getErrors().add(error);
@@ -433,32 +968,13 @@ public class MosdlSpecLoader implements SpecLoader {
 			currentService.setNumber(claimNumber(ctx.nidentifier(), serviceCounter));
 			currentService.setComment(getDoc(ctx.doc()));
 			currentArea.getService().add(currentService);
+			symbols.enterService(currentService.getName());
 		}
 
 		@Override
 		public void exitService(MOSDLParser.ServiceContext ctx) {
-			// get all service-level data types that are also contained in the postponed types list
-			// and set the service name for the stored type reference
-			if (null != currentService.getDataTypes()) {
-				currentService.getDataTypes().getCompositeOrEnumeration().stream()
-						.map(dt -> {
-							if (dt instanceof CompositeType) {
-								return ((CompositeType) dt).getName();
-							} else {
-								return ((EnumerationType) dt).getName();
-							}
-						})
-						.filter(postponedTypes::containsKey)
-						.forEach(typeName -> postponedTypes.get(typeName).forEach(typeRef -> typeRef.setService(currentService.getName())));
-			}
-			// do the same for service-level errors
-			currentService.getErrors().stream()
-					.map(e -> e.getName())
-					.filter(postponedTypes::containsKey)
-					.forEach(errorName -> postponedTypes.get(errorName).forEach(typeRef -> typeRef.setService(currentService.getName())));
-
-			// clear also all area-level type references because they have been declared area-level by default
-			postponedTypes.clear();
+			// all type references not resolved to service-level elements so far are area-level references
+			symbols.exitService();
 			serviceTypeCounter.set(START_USER_SERVICETYPE);
 			capabilitySetCounter.set(START_USER_CAPABILITYSET);
 			operationCounter.set(START_USER_OPERATION);
@@ -493,6 +1009,7 @@ public class MosdlSpecLoader implements SpecLoader {
 					compType.setShortFormPart(claimNumber(ctx.nidentifier(), serviceTypeCounter).longValue());
 				}
 				dataTypeList.getCompositeOrEnumeration().add(compType);
+				symbols.addServiceElement(compType.getName());
 			} else {
 				AreaDataTypeList dataTypeList = currentArea.getDataTypes();
 				if (null == dataTypeList) {
@@ -550,6 +1067,7 @@ public class MosdlSpecLoader implements SpecLoader {
 				}
 				enumType.setShortFormPart(claimNumber(ctx.nidentifier(), serviceTypeCounter));
 				dataTypeList.getCompositeOrEnumeration().add(enumType);
+				symbols.addServiceElement(enumType.getName());
 			} else {
 				AreaDataTypeList dataTypeList = currentArea.getDataTypes();
 				if (null == dataTypeList) {
@@ -1003,7 +1521,7 @@ public class MosdlSpecLoader implements SpecLoader {
 				} else {
 					// postpone final type resolution until we can decide whether a current service or current area type is meant
 					typeRef.setArea(currentArea.getName());
-					postponedTypes.computeIfAbsent(typeName, t -> new HashSet<>()).add(typeRef);
+					symbols.resolveInService(typeName, typeRef);
 				}
 			}
 			return typeRef;
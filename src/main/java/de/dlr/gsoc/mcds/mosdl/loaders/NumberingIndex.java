@@ -0,0 +1,158 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.ccsds.schema.serviceschema.AreaType;
+import org.ccsds.schema.serviceschema.AttributeType;
+import org.ccsds.schema.serviceschema.CapabilitySetType;
+import org.ccsds.schema.serviceschema.CompositeType;
+import org.ccsds.schema.serviceschema.EnumerationType;
+import org.ccsds.schema.serviceschema.ErrorDefinitionType;
+import org.ccsds.schema.serviceschema.InvokeOperationType;
+import org.ccsds.schema.serviceschema.OperationType;
+import org.ccsds.schema.serviceschema.ProgressOperationType;
+import org.ccsds.schema.serviceschema.PubSubOperationType;
+import org.ccsds.schema.serviceschema.RequestOperationType;
+import org.ccsds.schema.serviceschema.ServiceType;
+import org.ccsds.schema.serviceschema.SubmitOperationType;
+
+/**
+ * Index of the highest numbers used in a specification for all number scopes that span several
+ * MOSDL files.
+ * <p>
+ * These are the area numbers, the service numbers, the numbers of area-level data types and the
+ * error numbers. Numbers of service-level data types, capability sets, operations and enumeration
+ * items are only unique within their enclosing element and therefore not indexed.
+ * <p>
+ * The index is updated incrementally with each area added to or extended in the specification, so
+ * that the cost of keeping it up to date only depends on the size of the added elements and not on
+ * the size of the whole specification. Area numbers of existing areas may change, so these are
+ * tracked per area name. All other numbers are only ever added.
+ */
+class NumberingIndex {
+
+	private final int minArea;
+	private final Map<String, Integer> areaNumbers = new HashMap<>();
+	private final TreeMap<Integer, Integer> areaNumberCounts = new TreeMap<>();
+	private int maxService;
+	private int maxAreaType;
+	private int maxError;
+
+	/**
+	 * Creates an empty index.
+	 *
+	 * @param minArea the highest area number to report if no area with a higher number is indexed
+	 * @param minService the highest service number to report if no service with a higher number is
+	 * indexed
+	 * @param minAreaType the highest area-level data type number to report if no data type with a
+	 * higher number is indexed
+	 * @param minError the highest error number to report if no error with a higher number is
+	 * indexed
+	 */
+	NumberingIndex(int minArea, int minService, int minAreaType, int minError) {
+		this.minArea = minArea;
+		this.maxService = minService;
+		this.maxAreaType = minAreaType;
+		this.maxError = minError;
+	}
+
+	/**
+	 * Adds all numbers of an area to the index.
+	 * <p>
+	 * The area may be complete or contain only the elements added to an already indexed area of
+	 * the same name. In both cases the area number replaces any previously indexed number of an
+	 * area with the same name.
+	 *
+	 * @param area the area to index
+	 */
+	void addArea(AreaType area) {
+		putAreaNumber(area.getName(), area.getNumber());
+		for (ServiceType service : area.getService()) {
+			addService(service);
+		}
+		if (null != area.getDataTypes()) {
+			for (Object dataType : area.getDataTypes().getFundamentalOrAttributeOrComposite()) {
+				addAreaType(dataType);
+			}
+		}
+		for (ErrorDefinitionType error : area.getErrors()) {
+			addError(error);
+		}
+	}
+
+	int getMaxArea() {
+		return areaNumberCounts.isEmpty() ? minArea : Math.max(minArea, areaNumberCounts.lastKey());
+	}
+
+	int getMaxService() {
+		return maxService;
+	}
+
+	int getMaxAreaType() {
+		return maxAreaType;
+	}
+
+	int getMaxError() {
+		return maxError;
+	}
+
+	private void putAreaNumber(String name, int number) {
+		Integer oldNumber = areaNumbers.put(name, number);
+		if (null != oldNumber) {
+			areaNumberCounts.computeIfPresent(oldNumber, (n, count) -> count > 1 ? count - 1 : null);
+		}
+		areaNumberCounts.merge(number, 1, Integer::sum);
+	}
+
+	private void addService(ServiceType service) {
+		maxService = Math.max(maxService, service.getNumber());
+		for (ErrorDefinitionType error : service.getErrors()) {
+			addError(error);
+		}
+		for (CapabilitySetType cs : service.getCapabilitySet()) {
+			for (OperationType op : cs.getSendIPOrSubmitIPOrRequestIP()) {
+				if (op instanceof SubmitOperationType) {
+					addErrors(((SubmitOperationType) op).getErrors());
+				} else if (op instanceof RequestOperationType) {
+					addErrors(((RequestOperationType) op).getErrors());
+				} else if (op instanceof InvokeOperationType) {
+					addErrors(((InvokeOperationType) op).getErrors());
+				} else if (op instanceof ProgressOperationType) {
+					addErrors(((ProgressOperationType) op).getErrors());
+				} else if (op instanceof PubSubOperationType) {
+					addErrors(((PubSubOperationType) op).getErrors());
+				}
+			}
+		}
+	}
+
+	private void addAreaType(Object dataType) {
+		int typeNumber = 0;
+		if (dataType instanceof EnumerationType) {
+			typeNumber = (int) ((EnumerationType) dataType).getShortFormPart();
+		} else if (dataType instanceof CompositeType) {
+			Long tempTypeNumber = ((CompositeType) dataType).getShortFormPart();
+			if (null != tempTypeNumber) {
+				typeNumber = tempTypeNumber.intValue();
+			}
+		} else if (dataType instanceof AttributeType) {
+			typeNumber = (int) ((AttributeType) dataType).getShortFormPart();
+		}
+		maxAreaType = Math.max(maxAreaType, typeNumber);
+	}
+
+	private void addErrors(Iterable<Object> errors) {
+		for (Object error : errors) {
+			if (error instanceof ErrorDefinitionType) {
+				addError((ErrorDefinitionType) error);
+			}
+		}
+	}
+
+	private void addError(ErrorDefinitionType error) {
+		maxError = Math.max(maxError, (int) error.getNumber());
+	}
+}
@@ -0,0 +1,135 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * StAX stream reader for MO XML specifications that hides all areas and services that are not
+ * selected.
+ * <p>
+ * Selections are given by name: An area name selects the complete area, a qualified service name
+ * of the form 'Area.Service' selects a single service together with all area-level elements other
+ * than services (documentation, data types and errors). Elements that are not selected are skipped
+ * at the token level, i.e. they are never passed on to consumers of this reader. An empty
+ * selection selects everything.
+ */
+class SelectingStreamReader extends StreamReaderDelegate {
+
+	private static final String SERVICE_SCHEMA_NS = "http://www.ccsds.org/schema/ServiceSchema";
+	private static final String AREA_ELEMENT = "area";
+	private static final String SERVICE_ELEMENT = "service";
+	private static final String NAME_ATTRIBUTE = "name";
+	private static final char SEPARATOR = '.';
+	private static final int AREA_DEPTH = 1;
+	private static final int SERVICE_DEPTH = 2;
+
+	private final boolean isSelectingAll;
+	private final Set<String> selectedAreas = new HashSet<>();
+	private final Map<String, Set<String>> selectedServices = new HashMap<>();
+	private final Set<String> matchedSelections = new HashSet<>();
+	private int depth = 0;
+	private String currentArea;
+
+	/**
+	 * Creates a selecting reader.
+	 *
+	 * @param reader the reader to read from, positioned at the start of the document
+	 * @param selection the names of the selected areas and qualified names of the selected
+	 * services
+	 */
+	SelectingStreamReader(XMLStreamReader reader, Collection<String> selection) {
+		super(reader);
+		this.isSelectingAll = selection.isEmpty();
+		for (String name : selection) {
+			int separatorIndex = name.indexOf(SEPARATOR);
+			if (separatorIndex < 0) {
+				selectedAreas.add(name);
+			} else {
+				String areaName = name.substring(0, separatorIndex);
+				selectedServices.computeIfAbsent(areaName, a -> new HashSet<>()).add(name.substring(separatorIndex + 1));
+			}
+		}
+	}
+
+	/**
+	 * Gets the selections that matched an area or service read so far.
+	 *
+	 * @return the names and qualified names of the matched selections
+	 */
+	Set<String> getMatchedSelections() {
+		return matchedSelections;
+	}
+
+	@Override
+	public int next() throws XMLStreamException {
+		int event = super.next();
+		while (XMLStreamConstants.START_ELEMENT == event && !isSelected()) {
+			skipElement();
+			event = super.next();
+		}
+		if (XMLStreamConstants.START_ELEMENT == event) {
+			depth++;
+		} else if (XMLStreamConstants.END_ELEMENT == event) {
+			depth--;
+		}
+		return event;
+	}
+
+	@Override
+	public int nextTag() throws XMLStreamException {
+		// the delegate implementation would bypass the selection in next()
+		int event = next();
+		while ((XMLStreamConstants.CHARACTERS == event && isWhiteSpace()) || (XMLStreamConstants.CDATA == event && isWhiteSpace())
+				|| XMLStreamConstants.SPACE == event || XMLStreamConstants.PROCESSING_INSTRUCTION == event || XMLStreamConstants.COMMENT == event) {
+			event = next();
+		}
+		if (XMLStreamConstants.START_ELEMENT != event && XMLStreamConstants.END_ELEMENT != event) {
+			throw new XMLStreamException("Expected start or end tag.", getLocation());
+		}
+		return event;
+	}
+
+	private boolean isSelected() {
+		if (isSelectingAll || !SERVICE_SCHEMA_NS.equals(getNamespaceURI())) {
+			return true;
+		}
+		if (AREA_DEPTH == depth && AREA_ELEMENT.equals(getLocalName())) {
+			currentArea = getAttributeValue(null, NAME_ATTRIBUTE);
+			if (selectedAreas.contains(currentArea)) {
+				matchedSelections.add(currentArea);
+				return true;
+			}
+			return selectedServices.containsKey(currentArea);
+		}
+		if (SERVICE_DEPTH == depth && SERVICE_ELEMENT.equals(getLocalName()) && !selectedAreas.contains(currentArea)) {
+			String serviceName = getAttributeValue(null, NAME_ATTRIBUTE);
+			if (selectedServices.get(currentArea).contains(serviceName)) {
+				matchedSelections.add(currentArea + SEPARATOR + serviceName);
+				return true;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	private void skipElement() throws XMLStreamException {
+		int level = 1;
+		while (level > 0) {
+			int event = super.next();
+			if (XMLStreamConstants.START_ELEMENT == event) {
+				level++;
+			} else if (XMLStreamConstants.END_ELEMENT == event) {
+				level--;
+			}
+		}
+	}
+}
@@ -0,0 +1,189 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import de.dlr.gsoc.mcds.mosdl.Concurrency;
+import java.io.IOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds all specification files of a certain format in a set of input sources.
+ * <p>
+ * Directories are searched recursively, also on file systems other than the default one. Only files
+ * with the file ending of the format (ignoring case), e.g. '.mosdl', are found. These can be further
+ * restricted by glob patterns (see {@link java.nio.file.FileSystem#getPathMatcher(String)}) that
+ * are matched against the path of a file relative to the input directory. Files and other sources
+ * given directly as input are never subject to these patterns, but need the file ending as well.
+ * Input directories are searched concurrently if parallelism is enabled.
+ * <p>
+ * The files found in each input directory are sorted by their relative path, so that the result
+ * does not depend on the order in which the file system lists directory entries. Input files and
+ * directories themselves keep their order.
+ */
+class SpecFileFinder {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpecFileFinder.class);
+
+	private static final String GLOB_SYNTAX = "glob:";
+	private final String fileEnding;
+	private final Collection<String> includes;
+	private final Collection<String> excludes;
+	private final boolean isFollowLinks;
+	private final int parallelism;
+
+	/**
+	 * Creates a new finder.
+	 *
+	 * @param fileEnding the file ending of the specification files including the dot, in lower
+	 * case
+	 * @param includes glob patterns of which at least one must match the relative path of a file
+	 * in an input directory; no pattern matches all files
+	 * @param excludes glob patterns of which none must match the relative path of a file in an
+	 * input directory
+	 * @param isFollowLinks {@code true} to follow symbolic links, {@code false} to ignore them
+	 * @param parallelism the maximum number of directory trees searched at the same time
+	 */
+	SpecFileFinder(String fileEnding, Collection<String> includes, Collection<String> excludes, boolean isFollowLinks, int parallelism) {
+		this.fileEnding = fileEnding;
+		this.includes = includes;
+		this.excludes = excludes;
+		this.isFollowLinks = isFollowLinks;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Determines whether a source is a specification file by its file ending.
+	 *
+	 * @param source the source to check
+	 * @return {@code true} if the source exists, is no directory and has the file ending of
+	 * specification files, {@code false} otherwise
+	 */
+	boolean isSpecFile(SpecSource source) {
+		return source.hasFileEnding(fileEnding) && source.exists() && !source.isDirectory();
+	}
+
+	/**
+	 * Finds all specification files.
+	 *
+	 * @param inputs the input sources
+	 * @return the specification files in loading order
+	 * @throws IOException thrown if a directory cannot be searched
+	 */
+	List<SpecSource> find(SpecSource... inputs) throws IOException {
+		List<SpecSource> files = new ArrayList<>();
+		int nThreads = Concurrency.getThreadCount(parallelism, (int) Arrays.stream(inputs).filter(SpecSource::isDirectory).count());
+		ExecutorService executor = nThreads > 1 ? Concurrency.newThreadPool(nThreads) : null;
+		try {
+			List<Future<List<SpecSource>>> directoryFiles = new ArrayList<>();
+			for (SpecSource input : inputs) {
+				if (input.isDirectory()) {
+					directoryFiles.add(null == executor ? null : executor.submit(() -> findInDirectory(input.getPath())));
+				}
+			}
+			int directoryIndex = 0;
+			for (SpecSource input : inputs) {
+				if (input.isDirectory()) {
+					Future<List<SpecSource>> future = directoryFiles.get(directoryIndex++);
+					files.addAll(null == future ? findInDirectory(input.getPath()) : getFiles(future));
+				} else if (isSpecFile(input)) {
+					files.add(input);
+				}
+			}
+		} finally {
+			if (null != executor) {
+				executor.shutdownNow();
+			}
+		}
+		return files;
+	}
+
+	private List<SpecSource> findInDirectory(Path root) throws IOException {
+		// matchers are specific to the file system of the directory, which need not be the default one
+		List<PathMatcher> includeMatchers = toMatchers(root, includes);
+		List<PathMatcher> excludeMatchers = toMatchers(root, excludes);
+		List<Path> found = new ArrayList<>();
+		// always follow links so that the input directory itself may be a link, but skip links below if requested
+		Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				if (!isFollowLinks && !dir.equals(root) && Files.isSymbolicLink(dir)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (attrs.isRegularFile() && hasFileEnding(file) && isIncluded(root.relativize(file), includeMatchers, excludeMatchers)
+						&& (isFollowLinks || !Files.isSymbolicLink(file))) {
+					found.add(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException ex) throws IOException {
+				if (ex instanceof FileSystemLoopException) {
+					logger.warn("Skipping '{}' because symbolic links form a cycle.", file);
+					return FileVisitResult.CONTINUE;
+				}
+				throw ex;
+			}
+		});
+		Comparator<Path> byRelativePath = Comparator.comparing(p -> toSortKey(root.relativize(p)));
+		return found.stream().sorted(byRelativePath).map(SpecSource::of).collect(Collectors.toList());
+	}
+
+	private static boolean isIncluded(Path relativePath, List<PathMatcher> includes, List<PathMatcher> excludes) {
+		boolean isIncluded = includes.isEmpty() || includes.stream().anyMatch(m -> m.matches(relativePath));
+		return isIncluded && excludes.stream().noneMatch(m -> m.matches(relativePath));
+	}
+
+	private boolean hasFileEnding(Path file) {
+		Path fileName = file.getFileName();
+		return null != fileName && fileName.toString().toLowerCase().endsWith(fileEnding);
+	}
+
+	private static String toSortKey(Path relativePath) {
+		List<String> names = new ArrayList<>();
+		relativePath.forEach(name -> names.add(name.toString()));
+		return String.join("/", names);
+	}
+
+	private static List<PathMatcher> toMatchers(Path root, Collection<String> globs) {
+		return globs.stream().map(glob -> root.getFileSystem().getPathMatcher(GLOB_SYNTAX + glob)).collect(Collectors.toList());
+	}
+
+	private static List<SpecSource> getFiles(Future<List<SpecSource>> files) throws IOException {
+		try {
+			return files.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while searching for specification files.", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			}
+			throw new IOException(ex.getCause());
+		}
+	}
+}
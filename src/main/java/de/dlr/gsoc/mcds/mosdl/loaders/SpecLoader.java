@@ -3,6 +3,11 @@
 package de.dlr.gsoc.mcds.mosdl.loaders;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import org.ccsds.schema.serviceschema.SpecificationType;
 
 /**
@@ -12,6 +17,9 @@ import org.ccsds.schema.serviceschema.SpecificationType;
  * {@link #setInput(File...)} is called in order to set the input source the loader shall act upon.
  * A call to {@link #isLoadable()} gives the class user a hint whether the specification is
  * loadable. Finally, the specification is really loaded with {@link #load()}.
+ * <p>
+ * Instead of files, the input may also be given as {@link SpecSource}s with
+ * {@link #setSources(SpecSource...)}, e.g. in order to load specifications held in memory.
  */
 public interface SpecLoader {
 
@@ -25,10 +33,26 @@ public interface SpecLoader {
 	 */
 	void setInput(File... input);
 
+	/**
+	 * Sets the input sources that comprise a single MO specification.
+	 * <p>
+	 * The default implementation only supports files and directories on the default file system
+	 * and passes these to {@link #setInput(File...)}. All other sources are ignored. Loaders
+	 * supporting other kinds of sources override this method.
+	 *
+	 * @param sources the input sources
+	 */
+	default void setSources(SpecSource... sources) {
+		setInput(Arrays.stream(sources).map(SpecSource::toFile).filter(Objects::nonNull).toArray(File[]::new));
+	}
+
 	/**
 	 * Gets the input files and/or directories that were set previously by
 	 * {@link #setInput(File...)} and that will be used by this loader.
 	 * <p>
+	 * Input sources set by {@link #setSources(SpecSource...)} that are not files on the default file
+	 * system are not returned.
+	 * <p>
 	 * The return value of this method might differ from what was set, e.g. if the loader discards
 	 * some entries right away.
 	 *
@@ -47,6 +71,20 @@ public interface SpecLoader {
 	 */
 	boolean isLoadable();
 
+	/**
+	 * Finds the specification files that {@link #load()} would read from the current input.
+	 * <p>
+	 * This allows for checking whether a specification has changed without loading it. The
+	 * default implementation returns the input sources as set, so that directories have to be
+	 * considered as a whole. Loaders that only read some files of a directory override this method.
+	 *
+	 * @return the specification files or input sources in loading order
+	 * @throws IOException thrown if an input directory cannot be searched
+	 */
+	default List<SpecSource> findSpecFiles() throws IOException {
+		return Arrays.stream(getInput()).map(SpecSource::of).collect(Collectors.toList());
+	}
+
 	/**
 	 * Instructs the loader to load an MO specification that has been assigned by
 	 * {@link #setInput(File...)}.
@@ -0,0 +1,114 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.ccsds.schema.serviceschema.AreaDataTypeList;
+import org.ccsds.schema.serviceschema.AreaType;
+import org.ccsds.schema.serviceschema.ServiceType;
+import org.ccsds.schema.serviceschema.SpecificationType;
+
+/**
+ * Merges MO specifications loaded from separate files into a single specification.
+ * <p>
+ * Areas are added in the order of merging. An area defined in several files is merged into a single
+ * area, provided that all definitions agree on the area number and version: Services, data types,
+ * errors and documentation of later definitions are appended to the first one. Merging fails if
+ * different areas use the same number or if services of the same area share a name or number.
+ */
+class SpecMerger {
+
+	private final SpecificationType spec = new SpecificationType();
+	private final Map<String, AreaType> areasByName = new HashMap<>();
+	private final Map<Integer, AreaType> areasByNumber = new HashMap<>();
+	private final Map<AreaType, String> areaOrigins = new IdentityHashMap<>();
+	private final Map<ServiceType, String> serviceOrigins = new IdentityHashMap<>();
+
+	/**
+	 * Merges a specification into the merged specification.
+	 * <p>
+	 * The elements of the given specification are moved, not copied.
+	 *
+	 * @param part the specification to merge
+	 * @param origin the name of the source of the specification, used in error messages
+	 * @throws LoaderException thrown if the specification conflicts with already merged
+	 * specifications
+	 */
+	void merge(SpecificationType part, String origin) throws LoaderException {
+		if (null == spec.getComment()) {
+			spec.setComment(part.getComment());
+		}
+		for (AreaType area : part.getArea()) {
+			AreaType existingArea = areasByName.get(area.getName());
+			if (null == existingArea) {
+				addArea(area, origin);
+			} else {
+				mergeArea(existingArea, area, origin);
+			}
+		}
+	}
+
+	/**
+	 * Gets the merged specification.
+	 *
+	 * @return the merged specification
+	 */
+	SpecificationType getSpecification() {
+		return spec;
+	}
+
+	private void addArea(AreaType area, String origin) throws LoaderException {
+		AreaType numberOwner = areasByNumber.get(area.getNumber());
+		if (null != numberOwner) {
+			throw new LoaderException(String.format("Area '%s' in '%s' uses number %d, which is already used by area '%s' in '%s'.",
+					area.getName(), origin, area.getNumber(), numberOwner.getName(), areaOrigins.get(numberOwner)));
+		}
+		areasByName.put(area.getName(), area);
+		areasByNumber.put(area.getNumber(), area);
+		areaOrigins.put(area, origin);
+		for (ServiceType service : area.getService()) {
+			serviceOrigins.put(service, origin);
+		}
+		spec.getArea().add(area);
+	}
+
+	private void mergeArea(AreaType existingArea, AreaType area, String origin) throws LoaderException {
+		if (existingArea.getNumber() != area.getNumber() || existingArea.getVersion() != area.getVersion()) {
+			throw new LoaderException(String.format("Area '%s' is defined with number %d and version %d in '%s', but with number %d and version %d in '%s'.",
+					area.getName(), existingArea.getNumber(), existingArea.getVersion(), areaOrigins.get(existingArea), area.getNumber(), area.getVersion(), origin));
+		}
+		for (ServiceType service : area.getService()) {
+			checkService(existingArea, service, origin);
+			existingArea.getService().add(service);
+			serviceOrigins.put(service, origin);
+		}
+		if (null != area.getDataTypes()) {
+			if (null == existingArea.getDataTypes()) {
+				existingArea.setDataTypes(new AreaDataTypeList());
+			}
+			existingArea.getDataTypes().getFundamentalOrAttributeOrComposite().addAll(area.getDataTypes().getFundamentalOrAttributeOrComposite());
+		}
+		if (null != area.getErrors() && !area.getErrors().isEmpty()) {
+			if (null == existingArea.getErrors()) {
+				existingArea.setErrors(area.getErrors());
+			} else {
+				existingArea.getErrors().addAll(area.getErrors());
+			}
+		}
+		existingArea.getDocumentation().addAll(area.getDocumentation());
+		if (null == existingArea.getComment()) {
+			existingArea.setComment(area.getComment());
+		}
+	}
+
+	private void checkService(AreaType area, ServiceType service, String origin) throws LoaderException {
+		for (ServiceType existingService : area.getService()) {
+			if (existingService.getName().equals(service.getName()) || existingService.getNumber() == service.getNumber()) {
+				throw new LoaderException(String.format("Service '%s' (number %d) of area '%s' in '%s' conflicts with service '%s' (number %d) in '%s'.",
+						service.getName(), service.getNumber(), area.getName(), origin, existingService.getName(), existingService.getNumber(), serviceOrigins.get(existingService)));
+			}
+		}
+	}
+}
@@ -0,0 +1,281 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Input source of an MO specification loader.
+ * <p>
+ * Besides files and directories on the default file system, a source may be a path on any other
+ * NIO file system (e.g. a file or directory inside a zip or jar archive opened with
+ * {@link FileSystems#newFileSystem(Path, ClassLoader)}), content held in memory or a resource on the
+ * class path. Every source has a name, which is used in messages and which determines the format of
+ * the source by its file ending just like the name of a file does. Hence, in-memory and class path
+ * sources must be given a name with the ending expected by the loader, e.g. '.mosdl' or '.xml'.
+ * <p>
+ * Only path sources may denote directories. In order to load a directory from an archive on the
+ * class path, open the archive as file system and use the path of the directory inside it.
+ */
+public abstract class SpecSource {
+
+	private final String name;
+
+	private SpecSource(String name) {
+		this.name = Objects.requireNonNull(name);
+	}
+
+	/**
+	 * Creates a source for a file or directory on the default file system.
+	 *
+	 * @param file the file or directory
+	 * @return the source
+	 */
+	public static SpecSource of(File file) {
+		return of(file.toPath());
+	}
+
+	/**
+	 * Creates a source for a file or directory on any file system.
+	 *
+	 * @param path the path of the file or directory
+	 * @return the source
+	 */
+	public static SpecSource of(Path path) {
+		return new PathSource(path);
+	}
+
+	/**
+	 * Creates a source for textual content held in memory.
+	 *
+	 * @param name the name of the source including its file ending
+	 * @param content the content of the source
+	 * @return the source
+	 */
+	public static SpecSource of(String name, CharSequence content) {
+		return of(name, content.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Creates a source for UTF-8 encoded content held in memory.
+	 * <p>
+	 * The content is not copied and must not be changed afterwards.
+	 *
+	 * @param name the name of the source including its file ending
+	 * @param content the content of the source
+	 * @return the source
+	 */
+	public static SpecSource of(String name, byte[] content) {
+		return new ContentSource(name, Objects.requireNonNull(content));
+	}
+
+	/**
+	 * Creates a source for a resource on the class path of the context class loader of the current
+	 * thread.
+	 *
+	 * @param resourceName the name of the resource as accepted by
+	 * {@link ClassLoader#getResource(String)}, i.e. without leading slash
+	 * @return the source
+	 */
+	public static SpecSource ofResource(String resourceName) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		return ofResource(null == classLoader ? SpecSource.class.getClassLoader() : classLoader, resourceName);
+	}
+
+	/**
+	 * Creates a source for a resource on the class path of a class loader.
+	 *
+	 * @param classLoader the class loader to look up the resource with
+	 * @param resourceName the name of the resource as accepted by
+	 * {@link ClassLoader#getResource(String)}, i.e. without leading slash
+	 * @return the source
+	 */
+	public static SpecSource ofResource(ClassLoader classLoader, String resourceName) {
+		return new ResourceSource(Objects.requireNonNull(classLoader), resourceName);
+	}
+
+	/**
+	 * Gets the name of the source.
+	 *
+	 * @return the name of the source, for path sources the path
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the path of a path source.
+	 *
+	 * @return the path or {@code null} if this is not a path source
+	 */
+	public Path getPath() {
+		return null;
+	}
+
+	/**
+	 * Gets the file of a path source on the default file system.
+	 *
+	 * @return the file or {@code null} if this is not a path source or the path belongs to another
+	 * file system
+	 */
+	public File toFile() {
+		Path path = getPath();
+		return null != path && path.getFileSystem() == FileSystems.getDefault() ? path.toFile() : null;
+	}
+
+	/**
+	 * Determines whether the source exists.
+	 *
+	 * @return {@code true} if the source exists, {@code false} otherwise
+	 */
+	public abstract boolean exists();
+
+	/**
+	 * Determines whether the source is a directory.
+	 *
+	 * @return {@code true} if this is a path source denoting an existing directory, {@code false}
+	 * otherwise
+	 */
+	public boolean isDirectory() {
+		return false;
+	}
+
+	/**
+	 * Opens a stream to read the content of the source.
+	 *
+	 * @return the stream, which has to be closed by the caller
+	 * @throws IOException thrown if the source cannot be read
+	 */
+	public abstract InputStream openStream() throws IOException;
+
+	/**
+	 * Reads the complete content of the source.
+	 *
+	 * @return the content of the source, which must not be modified because it might be shared
+	 * with the source
+	 * @throws IOException thrown if the source cannot be read
+	 */
+	public byte[] readContent() throws IOException {
+		try (InputStream in = openStream()) {
+			return in.readAllBytes();
+		}
+	}
+
+	/**
+	 * Determines whether the name of the source ends with a file ending, ignoring case.
+	 *
+	 * @param fileEnding the file ending including the dot
+	 * @return {@code true} if the name ends with the file ending, {@code false} otherwise
+	 */
+	boolean hasFileEnding(String fileEnding) {
+		return name.toLowerCase().endsWith(fileEnding);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+	private static class PathSource extends SpecSource {
+
+		private final Path path;
+
+		PathSource(Path path) {
+			super(path.toString());
+			this.path = path;
+		}
+
+		@Override
+		public Path getPath() {
+			return path;
+		}
+
+		@Override
+		public boolean exists() {
+			return Files.exists(path);
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return Files.isDirectory(path);
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			return Files.newInputStream(path);
+		}
+
+		@Override
+		public byte[] readContent() throws IOException {
+			return Files.readAllBytes(path);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof PathSource && path.equals(((PathSource) obj).path);
+		}
+
+		@Override
+		public int hashCode() {
+			return path.hashCode();
+		}
+	}
+
+	private static class ContentSource extends SpecSource {
+
+		private final byte[] content;
+
+		ContentSource(String name, byte[] content) {
+			super(name);
+			this.content = content;
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public InputStream openStream() {
+			return new ByteArrayInputStream(content);
+		}
+
+		@Override
+		public byte[] readContent() {
+			return content;
+		}
+	}
+
+	private static class ResourceSource extends SpecSource {
+
+		private final ClassLoader classLoader;
+
+		ResourceSource(ClassLoader classLoader, String resourceName) {
+			super(resourceName);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public boolean exists() {
+			return null != classLoader.getResource(getName());
+		}
+
+		@Override
+		public InputStream openStream() throws IOException {
+			InputStream in = classLoader.getResourceAsStream(getName());
+			if (null == in) {
+				throw new FileNotFoundException("Resource '" + getName() + "' not found on class path.");
+			}
+			return in;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.loaders;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.ccsds.schema.serviceschema.AreaType;
+import org.ccsds.schema.serviceschema.TypeReference;
+
+/**
+ * Symbol table mapping the names of areas to their nodes in the specification being loaded.
+ * <p>
+ * Besides the lookup of already defined areas, the symbol table resolves type references that
+ * cannot be resolved immediately: A simple type name used inside a service may refer to a data type
+ * or error of the service that is only defined later on. Such references are postponed until the
+ * service defines a matching element or the service ends, in which case they stay references to the
+ * enclosing area.
+ */
+class SymbolTable {
+
+	private final Map<String, AreaType> areas = new HashMap<>();
+	private final Map<String, Set<TypeReference>> postponedTypes = new HashMap<>();
+	private final Set<String> scopeElements = new HashSet<>();
+	private String scopeService;
+
+	/**
+	 * Gets an area by name.
+	 *
+	 * @param areaName the area name
+	 * @return the area or {@code null} if there is no area with the given name
+	 */
+	AreaType getArea(String areaName) {
+		return areas.get(areaName);
+	}
+
+	/**
+	 * Adds an area.
+	 * <p>
+	 * The area may also contain only the elements added to an area that is already known. In this
+	 * case the known area node is kept.
+	 *
+	 * @param area the area to add
+	 */
+	void addArea(AreaType area) {
+		areas.putIfAbsent(area.getName(), area);
+	}
+
+	/**
+	 * Adds a data type or error definition of the service currently in scope.
+	 * <p>
+	 * All postponed type references with the name of the element are resolved to this service.
+	 *
+	 * @param name the name of the data type or error
+	 */
+	void addServiceElement(String name) {
+		scopeElements.add(name);
+		Set<TypeReference> typeRefs = postponedTypes.remove(name);
+		if (null != typeRefs) {
+			typeRefs.forEach(typeRef -> typeRef.setService(scopeService));
+		}
+	}
+
+	/**
+	 * Opens the scope of a service, in which simple type names may refer to service-level
+	 * elements.
+	 *
+	 * @param serviceName the service name
+	 */
+	void enterService(String serviceName) {
+		scopeService = serviceName;
+		scopeElements.clear();
+	}
+
+	/**
+	 * Closes the scope of the current service.
+	 * <p>
+	 * All type references that are still postponed refer to area-level elements and are left
+	 * unchanged.
+	 */
+	void exitService() {
+		postponedTypes.clear();
+		scopeElements.clear();
+		scopeService = null;
+	}
+
+	/**
+	 * Resolves a type reference given by a simple name within the scope of the current service.
+	 * <p>
+	 * If the current service already defines an element of that name, the reference is resolved to
+	 * the service immediately. Otherwise, resolution is postponed until the service defines such an
+	 * element. The reference must already point to the enclosing area.
+	 *
+	 * @param typeName the simple name of the referenced type
+	 * @param typeRef the type reference to resolve
+	 */
+	void resolveInService(String typeName, TypeReference typeRef) {
+		if (scopeElements.contains(typeName)) {
+			typeRef.setService(scopeService);
+		} else {
+			postponedTypes.computeIfAbsent(typeName, t -> new HashSet<>()).add(typeRef);
+		}
+	}
+}
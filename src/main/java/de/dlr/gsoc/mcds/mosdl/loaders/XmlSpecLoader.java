@@ -2,36 +2,70 @@
 // SPDX-License-Identifier: Apache-2.0
 package de.dlr.gsoc.mcds.mosdl.loaders;
 
+import de.dlr.gsoc.mcds.mosdl.Concurrency;
+import de.dlr.gsoc.mcds.mosdl.JaxbRegistry;
 import java.io.File;
-import javax.xml.XMLConstants;
-import jakarta.xml.bind.JAXBContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
-import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.ccsds.schema.serviceschema.SpecificationType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xml.sax.SAXException;
 
 /**
- * Specification loader that loads an MO specification from a single MO XML file.
+ * Specification loader that loads an MO specification from a set of MO XML files.
  * <p>
- * The XML file has to conform to the extended MO service specification schema available at
+ * Directories containing XML files may be supplied as well. These are searched recursively and the
+ * files found are loaded in the order of their relative paths. The specifications of all files are
+ * merged into a single specification. Areas defined in several files are merged into one area, as
+ * long as all definitions agree on the area number and version. Loading fails if different areas
+ * share a number or if services of an area share a name or number. Files can be unmarshalled and
+ * validated concurrently (see {@link #setParallelism(int)}), but they are always merged in input
+ * order.
+ * <p>
+ * Instead of files, the specification may also be loaded from XML content held in memory, class
+ * path resources or files on another file system like a zip archive (see
+ * {@link #setSources(SpecSource...)}).
+ * <p>
+ * Each XML file has to conform to the extended MO service specification schema available at
  * https://sanaregistry.org/r/moschemas Validation can be disabled when creating the loader instance
  * in order to try loading specification files that are not completely valid. However, no guarantees
  * are made in this case.
+ * <p>
+ * The document is read as a stream of StAX events, from which the specification is built
+ * incrementally and validated on the fly. Loading can be restricted to selected areas and services
+ * (see {@link #setSelection(String...)}), in which case all other areas and services are skipped
+ * without being materialized.
  */
 public class XmlSpecLoader implements SpecLoader {
 
 	private static final Logger logger = LoggerFactory.getLogger(XmlSpecLoader.class);
 
 	private static final String XML_SPEC_FILE_ENDING = ".xml";
-	private static final String SERVICE_SCHEMA_RESOURCE = "/COMSchema.xsd";
+	// factories are not guaranteed to be thread-safe, and files are loaded concurrently
+	private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(XmlSpecLoader::createInputFactory);
 
 	private final boolean isSkipValidation;
-	private File file;
+	private SpecSource[] sources = {};
+	private int parallelism = 1;
+	private List<String> selection = List.of();
+	private List<SpecSource> discoveredFiles;
 
 	/**
 	 * Creates a new XML specification loader.
@@ -43,45 +77,212 @@ public class XmlSpecLoader implements SpecLoader {
 	}
 
 	/**
-	 * Sets the input XML file for loading an MO service specification from.
+	 * Sets the input XML files or directories for loading an MO service specification from.
 	 * <p>
-	 * @param input the MO service description XML file to load. Neither directories nor multiple
-	 * files are supported.
+	 * @param input the MO service description XML files to load. Alternatively, directories
+	 * containing XML files, which are searched recursively.
 	 */
 	@Override
 	public void setInput(File... input) {
-		if (input.length > 1) {
-			logger.warn("The XML loader only supports loading from a single XML file. The first supplied file will be used.");
+		setSources(Arrays.stream(input).map(SpecSource::of).toArray(SpecSource[]::new));
+	}
+
+	/**
+	 * Sets the input sources for loading an MO service specification from.
+	 * <p>
+	 * @param sources the MO service description XML sources to load. Path sources may denote
+	 * directories on any file system, which are searched recursively. All other sources need to
+	 * have a name with the '.xml' file ending.
+	 */
+	@Override
+	public void setSources(SpecSource... sources) {
+		this.sources = sources;
+		this.discoveredFiles = null;
+	}
+
+	/**
+	 * Sets the maximum number of XML files that are unmarshalled and validated concurrently.
+	 *
+	 * @param parallelism the maximum number of files loaded at the same time; {@code 1} (the
+	 * default) loads all files sequentially
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
 		}
-		this.file = input[0];
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Gets the maximum number of XML files that are unmarshalled and validated concurrently.
+	 *
+	 * @return the maximum number of files loaded at the same time
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Restricts loading to selected areas and services.
+	 * <p>
+	 * An area name selects the complete area. A qualified service name of the form 'Area.Service'
+	 * selects a single service together with the documentation, data types and errors of its area,
+	 * which the service may refer to. All areas and services that are not selected are skipped while
+	 * reading the document and are not validated.
+	 *
+	 * @param names the names of the areas and qualified names of the services to load; no names
+	 * (the default) load the complete specification
+	 */
+	public void setSelection(String... names) {
+		this.selection = List.of(names);
+	}
+
+	/**
+	 * Gets the names of the areas and services loading is restricted to.
+	 *
+	 * @return the selected names or an empty list if the complete specification is loaded
+	 * @see #setSelection(String...)
+	 */
+	public List<String> getSelection() {
+		return selection;
 	}
 
 	@Override
 	public File[] getInput() {
-		return new File[]{file};
+		return Arrays.stream(sources).map(SpecSource::toFile).filter(Objects::nonNull).toArray(File[]::new);
 	}
 
 	@Override
 	public boolean isLoadable() {
-		return null != file && file.isFile() && file.getPath().toLowerCase().endsWith(XML_SPEC_FILE_ENDING);
+		try {
+			return !discoverFiles().isEmpty();
+		} catch (IOException ex) {
+			logger.warn("Could not search for XML files: {}", ex.getLocalizedMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Searches the input for XML files.
+	 * <p>
+	 * The result is kept so that a call to {@link #load()} following {@link #isLoadable()} does not
+	 * search again.
+	 *
+	 * @return the XML files in loading order
+	 * @throws IOException thrown if an input directory cannot be searched
+	 */
+	private List<SpecSource> discoverFiles() throws IOException {
+		if (null == discoveredFiles) {
+			discoveredFiles = new SpecFileFinder(XML_SPEC_FILE_ENDING, List.of(), List.of(), true, parallelism).find(sources);
+		}
+		return discoveredFiles;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only XML files found by the same search as used by {@link #load()} are returned.
+	 */
+	@Override
+	public List<SpecSource> findSpecFiles() throws IOException {
+		return List.copyOf(discoverFiles());
 	}
 
 	@Override
 	public SpecificationType load() throws LoaderException {
-		logger.debug("Loading specification from XML file '{}'. Skip validation: {}.", file, isSkipValidation);
+		List<SpecSource> inputFiles;
+		try {
+			inputFiles = discoverFiles();
+		} catch (IOException ex) {
+			throw new LoaderException(ex);
+		}
+		// search again in subsequent loads, files might have changed in between
+		discoveredFiles = null;
+
+		logger.debug("Loading specification from {} XML file(s): {}", inputFiles.size(), inputFiles);
+		Set<String> matchedSelections = ConcurrentHashMap.newKeySet();
+		SpecMerger merger = new SpecMerger();
+		int nThreads = Concurrency.getThreadCount(parallelism, inputFiles.size());
+		ExecutorService executor = nThreads <= 1 ? null : Concurrency.newThreadPool(nThreads);
 		try {
-			JAXBContext jaxbContext = JAXBContext.newInstance(SpecificationType.class);
-			Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-			if (!isSkipValidation) {
-				SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-				Schema schema = schemaFactory.newSchema(XmlSpecLoader.class.getResource(SERVICE_SCHEMA_RESOURCE));
-				jaxbUnmarshaller.setSchema(schema);
+			List<Future<SpecificationType>> specs = new ArrayList<>();
+			if (null != executor) {
+				logger.debug("Loading XML files using {} threads.", nThreads);
+				for (SpecSource file : inputFiles) {
+					specs.add(executor.submit(() -> loadFile(file, matchedSelections)));
+				}
+			}
+			// merge strictly in input order so that the result does not depend on the degree of parallelism
+			for (int i = 0; i < inputFiles.size(); i++) {
+				SpecSource file = inputFiles.get(i);
+				SpecificationType spec = null == executor ? loadFile(file, matchedSelections) : getSpec(specs.get(i));
+				merger.merge(spec, file.getName());
 			}
-			SpecificationType spec = (SpecificationType) ((JAXBElement) jaxbUnmarshaller.unmarshal(file)).getValue();
-			logger.debug("Loaded specification from XML file '{}'.", file);
+		} finally {
+			if (null != executor) {
+				executor.shutdownNow();
+			}
+		}
+		Set<String> unmatchedSelection = new HashSet<>(selection);
+		unmatchedSelection.removeAll(matchedSelections);
+		if (!unmatchedSelection.isEmpty()) {
+			logger.warn("Selected areas or services not found in XML file(s): {}", unmatchedSelection);
+		}
+		logger.debug("Loaded complete specification from {} XML file(s).", inputFiles.size());
+		return merger.getSpecification();
+	}
+
+	/**
+	 * Unmarshals and validates a single XML file.
+	 * <p>
+	 * This method does not touch any shared state besides the set of matched selections and can
+	 * therefore be called concurrently for different files.
+	 *
+	 * @param file the XML file to load
+	 * @param matchedSelections the set to add all selections to that match an area or service of
+	 * the file
+	 * @return the specification contained in the file
+	 * @throws LoaderException thrown if the file cannot be read, unmarshalled or validated
+	 */
+	private SpecificationType loadFile(SpecSource file, Set<String> matchedSelections) throws LoaderException {
+		logger.debug("Loading XML file '{}'. Skip validation: {}. Selection: {}.", file, isSkipValidation, selection);
+		try (InputStream in = file.openStream()) {
+			String systemId = null == file.getPath() ? null : file.getPath().toUri().toString();
+			XMLStreamReader xmlReader = XML_INPUT_FACTORY.get().createXMLStreamReader(systemId, in);
+			SelectingStreamReader selectingReader = new SelectingStreamReader(xmlReader, selection);
+			SpecificationType spec;
+			try (JaxbRegistry.Lease<Unmarshaller> jaxbUnmarshaller = JaxbRegistry.leaseUnmarshaller(!isSkipValidation)) {
+				spec = (SpecificationType) ((JAXBElement) jaxbUnmarshaller.get().unmarshal(selectingReader)).getValue();
+			} finally {
+				xmlReader.close();
+			}
+			matchedSelections.addAll(selectingReader.getMatchedSelections());
+			logger.debug("Loaded XML file '{}'.", file);
 			return spec;
-		} catch (JAXBException | SAXException ex) {
-			throw new LoaderException(ex);
+		} catch (JAXBException | SAXException | XMLStreamException | IOException ex) {
+			throw new LoaderException("Could not load XML file '" + file + "'.", ex);
 		}
 	}
+
+	private static SpecificationType getSpec(Future<SpecificationType> spec) throws LoaderException {
+		try {
+			return spec.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new LoaderException("Interrupted while loading XML files.", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof LoaderException) {
+				throw (LoaderException) ex.getCause();
+			}
+			throw new LoaderException(ex.getCause());
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newFactory();
+		// MO XML specifications are self-contained, so do not resolve anything outside the document
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
 }
@@ -0,0 +1,92 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import java.util.List;
+
+/**
+ * Area of a specification.
+ */
+public final class Area {
+
+	private final String name;
+	private final int number;
+	private final short version;
+	private final String comment;
+	private final List<Service> services;
+	private final List<DataType> dataTypes;
+	private final List<ErrorDefinition> errors;
+
+	Area(String name, int number, short version, String comment, List<Service> services, List<DataType> dataTypes, List<ErrorDefinition> errors) {
+		this.name = name;
+		this.number = number;
+		this.version = version;
+		this.comment = comment;
+		this.services = services;
+		this.dataTypes = dataTypes;
+		this.errors = errors;
+	}
+
+	/**
+	 * Gets the name of this area.
+	 *
+	 * @return the name of this area
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the number of this area.
+	 *
+	 * @return the number of this area
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the version of this area.
+	 *
+	 * @return the version of this area
+	 */
+	public short getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gets the documentation of this area.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the services of this area.
+	 *
+	 * @return the unmodifiable list of services
+	 */
+	public List<Service> getServices() {
+		return services;
+	}
+
+	/**
+	 * Gets the data types defined on area level.
+	 *
+	 * @return the unmodifiable list of data types
+	 */
+	public List<DataType> getDataTypes() {
+		return dataTypes;
+	}
+
+	/**
+	 * Gets the errors defined on area level.
+	 *
+	 * @return the unmodifiable list of errors
+	 */
+	public List<ErrorDefinition> getErrors() {
+		return errors;
+	}
+}
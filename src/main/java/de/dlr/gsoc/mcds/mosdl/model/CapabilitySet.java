@@ -0,0 +1,48 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import java.util.List;
+
+/**
+ * Capability set of a service.
+ */
+public final class CapabilitySet {
+
+	private final int number;
+	private final String comment;
+	private final List<Operation> operations;
+
+	CapabilitySet(int number, String comment, List<Operation> operations) {
+		this.number = number;
+		this.comment = comment;
+		this.operations = operations;
+	}
+
+	/**
+	 * Gets the number of this capability set.
+	 *
+	 * @return the number of this capability set
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the documentation of this capability set.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the operations of this capability set.
+	 *
+	 * @return the unmodifiable list of operations
+	 */
+	public List<Operation> getOperations() {
+		return operations;
+	}
+}
@@ -0,0 +1,145 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import java.util.List;
+
+/**
+ * Data type defined on area or service level.
+ * <p>
+ * All kinds of data types share this class. Properties that do not apply to a kind of data type
+ * are {@code null} or empty.
+ */
+public final class DataType {
+
+	/**
+	 * The kinds of data types.
+	 */
+	public static enum Kind {
+		FUNDAMENTAL,
+		ATTRIBUTE,
+		COMPOSITE,
+		ENUMERATION;
+	}
+
+	private final Kind kind;
+	private final String area;
+	private final String service;
+	private final String name;
+	private final String comment;
+	private final Long shortFormPart;
+	private final TypeRef extendsType;
+	private final List<Field> fields;
+	private final List<EnumerationItem> items;
+
+	DataType(Kind kind, String area, String service, String name, String comment, Long shortFormPart, TypeRef extendsType, List<Field> fields, List<EnumerationItem> items) {
+		this.kind = kind;
+		this.area = area;
+		this.service = service;
+		this.name = name;
+		this.comment = comment;
+		this.shortFormPart = shortFormPart;
+		this.extendsType = extendsType;
+		this.fields = fields;
+		this.items = items;
+	}
+
+	/**
+	 * Gets the kind of this data type.
+	 *
+	 * @return the kind of this data type
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Gets the name of the area defining this data type.
+	 *
+	 * @return the area name
+	 */
+	public String getArea() {
+		return area;
+	}
+
+	/**
+	 * Gets the name of the service defining this data type.
+	 *
+	 * @return the service name or {@code null} if the data type is defined on area level
+	 */
+	public String getService() {
+		return service;
+	}
+
+	/**
+	 * Gets the name of this data type.
+	 *
+	 * @return the name of this data type
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the documentation of this data type.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the short form part of this data type.
+	 *
+	 * @return the short form part or {@code null} for fundamentals and composites without short
+	 * form part
+	 */
+	public Long getShortFormPart() {
+		return shortFormPart;
+	}
+
+	/**
+	 * Determines whether this data type is abstract.
+	 * <p>
+	 * Fundamentals are always abstract, composites are abstract if they have no or a zero short
+	 * form part.
+	 *
+	 * @return {@code true} if this data type is abstract, {@code false} otherwise
+	 */
+	public boolean isAbstract() {
+		return Kind.FUNDAMENTAL == kind || (Kind.COMPOSITE == kind && (null == shortFormPart || 0 == shortFormPart));
+	}
+
+	/**
+	 * Gets the data type this fundamental or composite extends.
+	 *
+	 * @return the extended data type or {@code null} if there is none
+	 */
+	public TypeRef getExtendsType() {
+		return extendsType;
+	}
+
+	/**
+	 * Gets the fields of this composite.
+	 *
+	 * @return the unmodifiable list of fields, empty for other kinds of data types
+	 */
+	public List<Field> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Gets the items of this enumeration.
+	 *
+	 * @return the unmodifiable list of items, empty for other kinds of data types
+	 */
+	public List<EnumerationItem> getItems() {
+		return items;
+	}
+
+	@Override
+	public String toString() {
+		return ModelBuilder.qualifiedName(area, service, name);
+	}
+}
@@ -0,0 +1,46 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+/**
+ * Item of an enumeration.
+ */
+public final class EnumerationItem {
+
+	private final String value;
+	private final long nvalue;
+	private final String comment;
+
+	EnumerationItem(String value, long nvalue, String comment) {
+		this.value = value;
+		this.nvalue = nvalue;
+		this.comment = comment;
+	}
+
+	/**
+	 * Gets the textual value of this item.
+	 *
+	 * @return the textual value
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the numeric value of this item.
+	 *
+	 * @return the numeric value
+	 */
+	public long getNvalue() {
+		return nvalue;
+	}
+
+	/**
+	 * Gets the documentation of this item.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+}
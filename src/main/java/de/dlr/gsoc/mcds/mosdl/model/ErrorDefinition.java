@@ -0,0 +1,57 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+/**
+ * Error defined on area or service level or directly in an operation.
+ */
+public final class ErrorDefinition {
+
+	private final String name;
+	private final long number;
+	private final String comment;
+	private final ExtraInformation extraInformation;
+
+	ErrorDefinition(String name, long number, String comment, ExtraInformation extraInformation) {
+		this.name = name;
+		this.number = number;
+		this.comment = comment;
+		this.extraInformation = extraInformation;
+	}
+
+	/**
+	 * Gets the name of this error.
+	 *
+	 * @return the name of this error
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the number of this error.
+	 *
+	 * @return the number of this error
+	 */
+	public long getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the documentation of this error.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the extra information of this error.
+	 *
+	 * @return the extra information or {@code null} if there is none
+	 */
+	public ExtraInformation getExtraInformation() {
+		return extraInformation;
+	}
+}
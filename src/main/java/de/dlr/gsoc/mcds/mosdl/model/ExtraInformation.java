@@ -0,0 +1,35 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+/**
+ * Type of the extra information of an error.
+ */
+public final class ExtraInformation {
+
+	private final TypeRef type;
+	private final String comment;
+
+	ExtraInformation(TypeRef type, String comment) {
+		this.type = type;
+		this.comment = comment;
+	}
+
+	/**
+	 * Gets the type of the extra information.
+	 *
+	 * @return the type of the extra information
+	 */
+	public TypeRef getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the documentation of the extra information.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+}
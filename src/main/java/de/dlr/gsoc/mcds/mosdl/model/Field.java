@@ -0,0 +1,57 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+/**
+ * Named and typed field of a composite or a message body.
+ */
+public final class Field {
+
+	private final String name;
+	private final String comment;
+	private final TypeRef type;
+	private final boolean isCanBeNull;
+
+	Field(String name, String comment, TypeRef type, boolean isCanBeNull) {
+		this.name = name;
+		this.comment = comment;
+		this.type = type;
+		this.isCanBeNull = isCanBeNull;
+	}
+
+	/**
+	 * Gets the name of this field.
+	 *
+	 * @return the name of this field
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the documentation of this field.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the type of this field.
+	 *
+	 * @return the type of this field
+	 */
+	public TypeRef getType() {
+		return type;
+	}
+
+	/**
+	 * Determines whether this field may be {@code null}.
+	 *
+	 * @return {@code true} if the field may be {@code null}, {@code false} otherwise
+	 */
+	public boolean isCanBeNull() {
+		return isCanBeNull;
+	}
+}
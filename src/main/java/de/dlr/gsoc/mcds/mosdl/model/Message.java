@@ -0,0 +1,49 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import de.dlr.gsoc.mcds.mosdl.InteractionStage;
+import java.util.List;
+
+/**
+ * Single message of an operation.
+ */
+public final class Message {
+
+	private final InteractionStage stage;
+	private final String comment;
+	private final List<Field> fields;
+
+	Message(InteractionStage stage, String comment, List<Field> fields) {
+		this.stage = stage;
+		this.comment = comment;
+		this.fields = fields;
+	}
+
+	/**
+	 * Gets the interaction stage of this message.
+	 *
+	 * @return the interaction stage of this message
+	 */
+	public InteractionStage getStage() {
+		return stage;
+	}
+
+	/**
+	 * Gets the message documentation.
+	 *
+	 * @return the message documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the message body parts.
+	 *
+	 * @return the unmodifiable list of message body parts
+	 */
+	public List<Field> getFields() {
+		return fields;
+	}
+}
@@ -0,0 +1,241 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import de.dlr.gsoc.mcds.mosdl.InteractionStage;
+import de.dlr.gsoc.mcds.mosdl.InteractionType;
+import jakarta.xml.bind.JAXBElement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.ccsds.schema.serviceschema.AnyTypeReference;
+import org.ccsds.schema.serviceschema.AreaType;
+import org.ccsds.schema.serviceschema.AttributeType;
+import org.ccsds.schema.serviceschema.CapabilitySetType;
+import org.ccsds.schema.serviceschema.CompositeType;
+import org.ccsds.schema.serviceschema.ElementReferenceType;
+import org.ccsds.schema.serviceschema.ElementReferenceWithCommentType;
+import org.ccsds.schema.serviceschema.EnumerationType;
+import org.ccsds.schema.serviceschema.ErrorDefinitionType;
+import org.ccsds.schema.serviceschema.ErrorReferenceType;
+import org.ccsds.schema.serviceschema.FundamentalType;
+import org.ccsds.schema.serviceschema.InvokeOperationType;
+import org.ccsds.schema.serviceschema.NamedElementReferenceWithCommentType;
+import org.ccsds.schema.serviceschema.OperationType;
+import org.ccsds.schema.serviceschema.ProgressOperationType;
+import org.ccsds.schema.serviceschema.PubSubOperationType;
+import org.ccsds.schema.serviceschema.RequestOperationType;
+import org.ccsds.schema.serviceschema.SendOperationType;
+import org.ccsds.schema.serviceschema.ServiceType;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import org.ccsds.schema.serviceschema.SubmitOperationType;
+import org.ccsds.schema.serviceschema.TypeReference;
+
+/**
+ * Builds the immutable model of a JAXB specification.
+ * <p>
+ * Identical type references share a single instance. They are resolved against the data types of
+ * the specification, which are complete when the specification is constructed, so that forward
+ * and cyclic references are resolved as well. A builder is used for building a single
+ * specification only.
+ * <p>
+ * The builder takes over the JAXB specification: Empty error lists are removed from it, because
+ * JAXB would write them as empty wrapper elements, which are invalid MO XML. Afterwards, the JAXB
+ * specification is only read, so that it can be written by several threads at the same time.
+ */
+class ModelBuilder {
+
+	private final Map<String, DataType> dataTypes = new HashMap<>();
+	private final Map<String, TypeRef> typeRefs = new HashMap<>();
+
+	/**
+	 * Builds the model of a specification.
+	 *
+	 * @param spec the specification to build the model for
+	 * @return the model of the specification
+	 */
+	Specification build(SpecificationType spec) {
+		List<Area> areas = freeze(spec.getArea(), this::buildArea);
+		// type references hold the same map, which must not be modified after this point
+		return new Specification(spec, spec.getComment(), areas, Collections.unmodifiableMap(dataTypes));
+	}
+
+	/**
+	 * Creates the qualified name of an element in MOSDL notation.
+	 *
+	 * @param area the area name
+	 * @param service the service name, may be {@code null}
+	 * @param name the element name
+	 * @return the qualified name of the form 'Area::Service.Name' or 'Area::Name'
+	 */
+	static String qualifiedName(String area, String service, String name) {
+		return null == service ? area + "::" + name : area + "::" + service + "." + name;
+	}
+
+	private Area buildArea(AreaType area) {
+		String areaName = intern(area.getName());
+		List<Service> services = freeze(area.getService(), service -> buildService(areaName, service));
+		List<DataType> areaDataTypes = null == area.getDataTypes() ? List.of()
+				: freeze(area.getDataTypes().getFundamentalOrAttributeOrComposite(), dataType -> buildDataType(areaName, null, dataType));
+		return new Area(areaName, area.getNumber(), area.getVersion(), area.getComment(), services, areaDataTypes,
+				freeze(removeIfEmpty(area.getErrors(), area::setErrors), this::buildError));
+	}
+
+	private Service buildService(String areaName, ServiceType service) {
+		String serviceName = intern(service.getName());
+		List<CapabilitySet> capabilitySets = freeze(service.getCapabilitySet(), this::buildCapabilitySet);
+		List<DataType> serviceDataTypes = null == service.getDataTypes() ? List.of()
+				: freeze(service.getDataTypes().getCompositeOrEnumeration(), dataType -> buildDataType(areaName, serviceName, dataType));
+		return new Service(serviceName, service.getNumber(), service.getComment(), capabilitySets, serviceDataTypes,
+				freeze(removeIfEmpty(service.getErrors(), service::setErrors), this::buildError));
+	}
+
+	private CapabilitySet buildCapabilitySet(CapabilitySetType cs) {
+		return new CapabilitySet(cs.getNumber(), cs.getComment(), freeze(cs.getSendIPOrSubmitIPOrRequestIP(), this::buildOperation));
+	}
+
+	private Operation buildOperation(OperationType op) {
+		InteractionType interaction;
+		List<Message> messages = new ArrayList<>();
+		List<Object> errors;
+		if (op instanceof SendOperationType) {
+			interaction = InteractionType.SEND;
+			messages.add(buildMessage(InteractionStage.SEND, ((SendOperationType) op).getMessages().getSend()));
+			errors = null;
+		} else if (op instanceof SubmitOperationType) {
+			SubmitOperationType submitOp = (SubmitOperationType) op;
+			interaction = InteractionType.SUBMIT;
+			messages.add(buildMessage(InteractionStage.SUBMIT, submitOp.getMessages().getSubmit()));
+			errors = removeIfEmpty(submitOp.getErrors(), submitOp::setErrors);
+		} else if (op instanceof RequestOperationType) {
+			RequestOperationType requestOp = (RequestOperationType) op;
+			interaction = InteractionType.REQUEST;
+			messages.add(buildMessage(InteractionStage.REQUEST, requestOp.getMessages().getRequest()));
+			messages.add(buildMessage(InteractionStage.REQUEST_RESPONSE, requestOp.getMessages().getResponse()));
+			errors = removeIfEmpty(requestOp.getErrors(), requestOp::setErrors);
+		} else if (op instanceof InvokeOperationType) {
+			InvokeOperationType invokeOp = (InvokeOperationType) op;
+			interaction = InteractionType.INVOKE;
+			messages.add(buildMessage(InteractionStage.INVOKE, invokeOp.getMessages().getInvoke()));
+			messages.add(buildMessage(InteractionStage.INVOKE_ACK, invokeOp.getMessages().getAcknowledgement()));
+			messages.add(buildMessage(InteractionStage.INVOKE_RESPONSE, invokeOp.getMessages().getResponse()));
+			errors = removeIfEmpty(invokeOp.getErrors(), invokeOp::setErrors);
+		} else if (op instanceof ProgressOperationType) {
+			ProgressOperationType progressOp = (ProgressOperationType) op;
+			interaction = InteractionType.PROGRESS;
+			messages.add(buildMessage(InteractionStage.PROGRESS, progressOp.getMessages().getProgress()));
+			messages.add(buildMessage(InteractionStage.PROGRESS_ACK, progressOp.getMessages().getAcknowledgement()));
+			messages.add(buildMessage(InteractionStage.PROGRESS_UPDATE, progressOp.getMessages().getUpdate()));
+			messages.add(buildMessage(InteractionStage.PROGRESS_RESPONSE, progressOp.getMessages().getResponse()));
+			errors = removeIfEmpty(progressOp.getErrors(), progressOp::setErrors);
+		} else if (op instanceof PubSubOperationType) {
+			PubSubOperationType pubSubOp = (PubSubOperationType) op;
+			interaction = InteractionType.PUBSUB;
+			// publish and notify messages share the same body
+			Message publish = buildMessage(InteractionStage.PUBSUB_PUBLISH, pubSubOp.getMessages().getPublishNotify());
+			messages.add(publish);
+			messages.add(new Message(InteractionStage.PUBSUB_NOTIFY, publish.getComment(), publish.getFields()));
+			errors = removeIfEmpty(pubSubOp.getErrors(), pubSubOp::setErrors);
+		} else {
+			throw new IllegalArgumentException("Operation '" + op.getName() + "' is of unknown interaction type.");
+		}
+		return new Operation(interaction, intern(op.getName()), op.getNumber(), op.getComment(), op.isSupportInReplay(),
+				List.copyOf(messages), freeze(errors, this::buildOperationError));
+	}
+
+	private Message buildMessage(InteractionStage stage, AnyTypeReference atr) {
+		List<Field> fields = new ArrayList<>();
+		for (Object o : atr.getAny()) {
+			JAXBElement<?> jObject = (JAXBElement<?>) o;
+			if (NamedElementReferenceWithCommentType.class.isAssignableFrom(jObject.getDeclaredType())) {
+				fields.add(buildField((NamedElementReferenceWithCommentType) jObject.getValue()));
+			}
+		}
+		return new Message(stage, atr.getComment(), List.copyOf(fields));
+	}
+
+	private Field buildField(NamedElementReferenceWithCommentType field) {
+		return new Field(intern(field.getName()), field.getComment(), typeRef(field.getType()), field.isCanBeNull());
+	}
+
+	private DataType buildDataType(String areaName, String serviceName, Object dataType) {
+		DataType result;
+		if (dataType instanceof CompositeType) {
+			CompositeType composite = (CompositeType) dataType;
+			result = new DataType(DataType.Kind.COMPOSITE, areaName, serviceName, intern(composite.getName()), composite.getComment(), composite.getShortFormPart(),
+					extendsType(composite.getExtends()), freeze(composite.getField(), this::buildField), List.of());
+		} else if (dataType instanceof EnumerationType) {
+			EnumerationType enumeration = (EnumerationType) dataType;
+			List<EnumerationItem> items = freeze(enumeration.getItem(), item -> new EnumerationItem(intern(item.getValue()), item.getNvalue(), item.getComment()));
+			result = new DataType(DataType.Kind.ENUMERATION, areaName, serviceName, intern(enumeration.getName()), enumeration.getComment(), enumeration.getShortFormPart(),
+					null, List.of(), items);
+		} else if (dataType instanceof AttributeType) {
+			AttributeType attribute = (AttributeType) dataType;
+			result = new DataType(DataType.Kind.ATTRIBUTE, areaName, serviceName, intern(attribute.getName()), attribute.getComment(), attribute.getShortFormPart(),
+					null, List.of(), List.of());
+		} else if (dataType instanceof FundamentalType) {
+			FundamentalType fundamental = (FundamentalType) dataType;
+			result = new DataType(DataType.Kind.FUNDAMENTAL, areaName, serviceName, intern(fundamental.getName()), fundamental.getComment(), null,
+					extendsType(fundamental.getExtends()), List.of(), List.of());
+		} else {
+			throw new IllegalArgumentException("Unsupported data type '" + (null == dataType ? "null" : dataType.getClass()) + "'.");
+		}
+		dataTypes.putIfAbsent(qualifiedName(areaName, serviceName, result.getName()), result);
+		return result;
+	}
+
+	private ErrorDefinition buildError(ErrorDefinitionType error) {
+		return new ErrorDefinition(intern(error.getName()), error.getNumber(), error.getComment(), extraInformation(error.getExtraInformation()));
+	}
+
+	private OperationError buildOperationError(Object error) {
+		if (error instanceof ErrorReferenceType) {
+			ErrorReferenceType errorRef = (ErrorReferenceType) error;
+			return new OperationError(typeRef(errorRef.getType()), errorRef.getComment(), extraInformation(errorRef.getExtraInformation()));
+		} else if (error instanceof ErrorDefinitionType) {
+			return new OperationError(buildError((ErrorDefinitionType) error));
+		}
+		throw new IllegalArgumentException("Unsupported operation error '" + (null == error ? "null" : error.getClass()) + "'.");
+	}
+
+	private ExtraInformation extraInformation(ElementReferenceWithCommentType extraInfo) {
+		return null == extraInfo ? null : new ExtraInformation(typeRef(extraInfo.getType()), extraInfo.getComment());
+	}
+
+	private TypeRef extendsType(ElementReferenceType extendsRef) {
+		return null == extendsRef ? null : typeRef(extendsRef.getType());
+	}
+
+	private TypeRef typeRef(TypeReference typeRef) {
+		String key = qualifiedName(typeRef.getArea(), typeRef.getService(), typeRef.getName()) + (typeRef.isList() ? "[]" : "");
+		return typeRefs.computeIfAbsent(key, k -> new TypeRef(intern(typeRef.getArea()), intern(typeRef.getService()), intern(typeRef.getName()), typeRef.isList(), dataTypes));
+	}
+
+	private static <T> List<T> removeIfEmpty(List<T> errors, Consumer<List<T>> setter) {
+		if (null != errors && errors.isEmpty()) {
+			setter.accept(null);
+		}
+		return errors;
+	}
+
+	private static String intern(String name) {
+		return null == name ? null : name.intern();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <S, T> List<T> freeze(List<S> sources, Function<S, T> builder) {
+		if (null == sources || sources.isEmpty()) {
+			return List.of();
+		}
+		Object[] elements = new Object[sources.size()];
+		int i = 0;
+		for (S source : sources) {
+			elements[i++] = builder.apply(source);
+		}
+		return (List<T>) List.of(elements);
+	}
+}
@@ -0,0 +1,95 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import de.dlr.gsoc.mcds.mosdl.InteractionType;
+import java.util.List;
+
+/**
+ * Operation of a service.
+ */
+public final class Operation {
+
+	private final InteractionType interactionType;
+	private final String name;
+	private final int number;
+	private final String comment;
+	private final boolean isSupportInReplay;
+	private final List<Message> messages;
+	private final List<OperationError> errors;
+
+	Operation(InteractionType interactionType, String name, int number, String comment, boolean isSupportInReplay, List<Message> messages, List<OperationError> errors) {
+		this.interactionType = interactionType;
+		this.name = name;
+		this.number = number;
+		this.comment = comment;
+		this.isSupportInReplay = isSupportInReplay;
+		this.messages = messages;
+		this.errors = errors;
+	}
+
+	/**
+	 * Gets the interaction pattern of this operation.
+	 *
+	 * @return the interaction pattern
+	 */
+	public InteractionType getInteractionType() {
+		return interactionType;
+	}
+
+	/**
+	 * Gets the name of this operation.
+	 *
+	 * @return the name of this operation
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the number of this operation.
+	 *
+	 * @return the number of this operation
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the documentation of this operation.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Determines whether this operation supports replay.
+	 *
+	 * @return {@code true} if replay is supported, {@code false} otherwise
+	 */
+	public boolean isSupportInReplay() {
+		return isSupportInReplay;
+	}
+
+	/**
+	 * Gets the messages of this operation in the order of their interaction stages.
+	 * <p>
+	 * The publish and notify messages of PUBSUB operations have the same body.
+	 *
+	 * @return the unmodifiable list of messages
+	 */
+	public List<Message> getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Gets the errors this operation may raise.
+	 *
+	 * @return the unmodifiable list of errors, empty for SEND operations
+	 */
+	public List<OperationError> getErrors() {
+		return errors;
+	}
+}
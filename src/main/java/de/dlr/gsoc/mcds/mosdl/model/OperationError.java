@@ -0,0 +1,83 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+/**
+ * Error raised by an operation, either as reference to an error defined on area or service level
+ * or as error defined directly in the operation.
+ */
+public final class OperationError {
+
+	private final TypeRef reference;
+	private final ErrorDefinition definition;
+	private final String comment;
+	private final ExtraInformation extraInformation;
+
+	OperationError(TypeRef reference, String comment, ExtraInformation extraInformation) {
+		this.reference = reference;
+		this.definition = null;
+		this.comment = comment;
+		this.extraInformation = extraInformation;
+	}
+
+	OperationError(ErrorDefinition definition) {
+		this.reference = null;
+		this.definition = definition;
+		this.comment = definition.getComment();
+		this.extraInformation = definition.getExtraInformation();
+	}
+
+	/**
+	 * Determines whether this is a reference to an error defined elsewhere.
+	 *
+	 * @return {@code true} for a reference, {@code false} for an error defined in the operation
+	 */
+	public boolean isReference() {
+		return null != reference;
+	}
+
+	/**
+	 * Gets the referenced error.
+	 *
+	 * @return the referenced error or {@code null} if the error is defined in the operation
+	 */
+	public TypeRef getReference() {
+		return reference;
+	}
+
+	/**
+	 * Gets the error defined in the operation.
+	 *
+	 * @return the error definition or {@code null} if this is a reference
+	 */
+	public ErrorDefinition getDefinition() {
+		return definition;
+	}
+
+	/**
+	 * Gets the documentation of this error in the context of the operation.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the extra information of this error in the context of the operation.
+	 *
+	 * @return the extra information or {@code null} if there is none
+	 */
+	public ExtraInformation getExtraInformation() {
+		return extraInformation;
+	}
+
+	/**
+	 * Determines whether this error or its extra information is documented.
+	 *
+	 * @return {@code true} if there is any documentation, {@code false} otherwise
+	 */
+	public boolean hasDoc() {
+		return null != comment || (null != extraInformation && null != extraInformation.getComment());
+	}
+}
@@ -0,0 +1,81 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import java.util.List;
+
+/**
+ * Service of an area.
+ */
+public final class Service {
+
+	private final String name;
+	private final int number;
+	private final String comment;
+	private final List<CapabilitySet> capabilitySets;
+	private final List<DataType> dataTypes;
+	private final List<ErrorDefinition> errors;
+
+	Service(String name, int number, String comment, List<CapabilitySet> capabilitySets, List<DataType> dataTypes, List<ErrorDefinition> errors) {
+		this.name = name;
+		this.number = number;
+		this.comment = comment;
+		this.capabilitySets = capabilitySets;
+		this.dataTypes = dataTypes;
+		this.errors = errors;
+	}
+
+	/**
+	 * Gets the name of this service.
+	 *
+	 * @return the name of this service
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the number of this service.
+	 *
+	 * @return the number of this service
+	 */
+	public int getNumber() {
+		return number;
+	}
+
+	/**
+	 * Gets the documentation of this service.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the capability sets of this service.
+	 *
+	 * @return the unmodifiable list of capability sets
+	 */
+	public List<CapabilitySet> getCapabilitySets() {
+		return capabilitySets;
+	}
+
+	/**
+	 * Gets the composites and enumerations defined in this service.
+	 *
+	 * @return the unmodifiable list of data types
+	 */
+	public List<DataType> getDataTypes() {
+		return dataTypes;
+	}
+
+	/**
+	 * Gets the errors defined in this service.
+	 *
+	 * @return the unmodifiable list of errors
+	 */
+	public List<ErrorDefinition> getErrors() {
+		return errors;
+	}
+}
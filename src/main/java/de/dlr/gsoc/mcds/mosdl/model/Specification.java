@@ -0,0 +1,113 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import de.dlr.gsoc.mcds.mosdl.JaxbRegistry;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import org.ccsds.schema.serviceschema.ObjectFactory;
+import org.ccsds.schema.serviceschema.SpecificationType;
+
+/**
+ * Immutable model of an MO service specification for use by generators.
+ * <p>
+ * The model is built once from a loaded JAXB specification (see {@link #of(SpecificationType)}).
+ * In contrast to the JAXB classes, it offers typed access to all elements: Data types, operation
+ * errors and messages do not need to be unwrapped or cast, type references are resolved and the
+ * messages of each operation are computed up front. Children are held in compact unmodifiable
+ * lists and names are interned.
+ * <p>
+ * Instances are immutable and can be shared by any number of threads without synchronization: All
+ * state is complete when the constructor finishes and is reachable through final fields only. The
+ * JAXB specification the model has been built from is never handed out; {@link #getSource()}
+ * returns a copy and {@link #marshalSource(Marshaller, OutputStream)} only reads it.
+ */
+public final class Specification {
+
+	private final SpecificationType source;
+	private final String comment;
+	private final List<Area> areas;
+	private final Map<String, DataType> dataTypes;
+
+	Specification(SpecificationType source, String comment, List<Area> areas, Map<String, DataType> dataTypes) {
+		this.source = source;
+		this.comment = comment;
+		this.areas = areas;
+		this.dataTypes = dataTypes;
+	}
+
+	/**
+	 * Builds the model of a JAXB specification.
+	 *
+	 * @param spec the specification to build the model for, which is taken over by the model and
+	 * must not be used afterwards. Empty error lists are removed from it.
+	 * @return the model of the specification
+	 * @throws IllegalArgumentException thrown if the specification contains an operation of unknown
+	 * interaction type
+	 */
+	public static Specification of(SpecificationType spec) {
+		return new ModelBuilder().build(spec);
+	}
+
+	/**
+	 * Gets a copy of the JAXB specification this model has been built from.
+	 * <p>
+	 * Every call creates a new deep copy, which may be modified freely. Use
+	 * {@link #marshalSource(Marshaller, OutputStream)} for writing the JAXB specification without
+	 * copying it.
+	 *
+	 * @return a copy of the JAXB specification
+	 * @throws JAXBException thrown if the JAXB specification cannot be copied
+	 */
+	public SpecificationType getSource() throws JAXBException {
+		return JaxbRegistry.copy(source);
+	}
+
+	/**
+	 * Writes the JAXB specification this model has been built from as MO XML document.
+	 * <p>
+	 * The JAXB specification is only read, so that it can be written by several threads at the same
+	 * time. The marshaller must not have a listener that modifies the marshalled objects.
+	 *
+	 * @param marshaller the marshaller to use
+	 * @param os the stream to write the document to
+	 * @throws JAXBException thrown if the specification cannot be marshalled
+	 */
+	public void marshalSource(Marshaller marshaller, OutputStream os) throws JAXBException {
+		marshaller.marshal(new ObjectFactory().createSpecification(source), os);
+	}
+
+	/**
+	 * Gets the documentation of the specification.
+	 *
+	 * @return the documentation or {@code null} if there is none
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * Gets the areas of the specification.
+	 *
+	 * @return the unmodifiable list of areas
+	 */
+	public List<Area> getAreas() {
+		return areas;
+	}
+
+	/**
+	 * Looks up a data type defined in the specification.
+	 *
+	 * @param area the name of the area defining the data type
+	 * @param service the name of the service defining the data type or {@code null} for area-level
+	 * data types
+	 * @param name the name of the data type
+	 * @return the data type or {@code null} if it is not defined in the specification
+	 */
+	public DataType getDataType(String area, String service, String name) {
+		return dataTypes.get(ModelBuilder.qualifiedName(area, service, name));
+	}
+}
@@ -0,0 +1,87 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import java.util.Map;
+
+/**
+ * Reference to a data type or error by its area, service and name.
+ * <p>
+ * References are resolved against the data types of the specification model: If the referenced
+ * data type is part of the specification, it is available via {@link #getTarget()}. Identical
+ * references are represented by the same instance.
+ * <p>
+ * Data types may refer to each other cyclically, e.g. a composite with a field of its own type.
+ * Therefore, a reference cannot hold its data type in a final field. Instead, it holds the data
+ * types of the specification in a final field, which the model builder completes before the
+ * specification is constructed and never modifies afterwards.
+ */
+public final class TypeRef {
+
+	private final String area;
+	private final String service;
+	private final String name;
+	private final boolean isList;
+	private final String qualifiedName;
+	private final Map<String, DataType> dataTypes;
+
+	TypeRef(String area, String service, String name, boolean isList, Map<String, DataType> dataTypes) {
+		this.area = area;
+		this.service = service;
+		this.name = name;
+		this.isList = isList;
+		this.qualifiedName = ModelBuilder.qualifiedName(area, service, name);
+		this.dataTypes = dataTypes;
+	}
+
+	/**
+	 * Gets the name of the area of the referenced element.
+	 *
+	 * @return the area name
+	 */
+	public String getArea() {
+		return area;
+	}
+
+	/**
+	 * Gets the name of the service of the referenced element.
+	 *
+	 * @return the service name or {@code null} if the element is defined on area level
+	 */
+	public String getService() {
+		return service;
+	}
+
+	/**
+	 * Gets the name of the referenced element.
+	 *
+	 * @return the element name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Determines whether this is a reference to a list of the referenced element.
+	 *
+	 * @return {@code true} if a list is referenced, {@code false} otherwise
+	 */
+	public boolean isList() {
+		return isList;
+	}
+
+	/**
+	 * Gets the referenced data type.
+	 *
+	 * @return the referenced data type or {@code null} if it is not part of the specification, e.g.
+	 * because it is defined in an area that has not been loaded or because an error is referenced
+	 */
+	public DataType getTarget() {
+		return dataTypes.get(qualifiedName);
+	}
+
+	@Override
+	public String toString() {
+		return isList ? "List<" + qualifiedName + ">" : qualifiedName;
+	}
+}
@@ -0,0 +1,18 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class CompilerFingerprintTest {
+
+	@Test
+	void testFingerprint() {
+		String fingerprint = CompilerFingerprint.get();
+		// the compiler classes are loaded from a class directory when running tests
+		assertTrue(fingerprint.matches(".*/[0-9a-f]{64}"), fingerprint);
+		assertSame(fingerprint, CompilerFingerprint.get());
+	}
+}
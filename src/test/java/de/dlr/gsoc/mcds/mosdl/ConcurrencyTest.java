@@ -0,0 +1,80 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import de.dlr.gsoc.mcds.mosdl.generators.GeneratorException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyTest {
+
+	@Test
+	void testAllTasksRun() throws Exception {
+		AtomicInteger nRuns = new AtomicInteger();
+		GeneratorException failure = new GeneratorException("first");
+		List<Concurrency.Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			int index = i;
+			tasks.add(() -> {
+				nRuns.incrementAndGet();
+				if (1 == index) {
+					throw failure;
+				} else if (5 == index) {
+					throw new IOException("second");
+				}
+			});
+		}
+		List<Throwable> failures = Concurrency.invokeAll(tasks, 3);
+		assertEquals(8, nRuns.get());
+		assertEquals(8, failures.size());
+		assertNull(failures.get(0));
+		assertSame(failure, failures.get(1));
+		assertEquals("second", failures.get(5).getMessage());
+
+		GeneratorException ex = assertThrows(GeneratorException.class, () -> Concurrency.invokeAll(tasks, 3, "tasks", GeneratorException.class, GeneratorException::new));
+		assertEquals("2 of 8 tasks failed: first; second", ex.getMessage());
+		assertSame(failure, ex.getCause());
+		assertEquals(1, ex.getSuppressed().length);
+
+		// a single failure of the expected type is not wrapped
+		assertSame(failure, assertThrows(GeneratorException.class, () -> Concurrency.invokeAll(tasks.subList(0, 2), 2, "tasks", GeneratorException.class, GeneratorException::new)));
+	}
+
+	@Test
+	void testNestedTasksRunSequentially() throws Exception {
+		int nThreads = 4;
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		AtomicInteger nNestedRuns = new AtomicInteger();
+		List<Concurrency.Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 2 * nThreads; i++) {
+			tasks.add(() -> {
+				Thread outerThread = Thread.currentThread();
+				threads.add(outerThread);
+				assertEquals(1, Concurrency.getThreadCount(nThreads, nThreads));
+				List<Thread> nestedThreads = Collections.synchronizedList(new ArrayList<>());
+				List<Concurrency.Task> nestedTasks = new ArrayList<>();
+				for (int j = 0; j < nThreads; j++) {
+					nestedTasks.add(() -> nestedThreads.add(Thread.currentThread()));
+				}
+				Concurrency.invokeAll(nestedTasks, nThreads, "nested tasks", GeneratorException.class, GeneratorException::new);
+				assertEquals(Collections.nCopies(nThreads, outerThread), nestedThreads);
+				nNestedRuns.addAndGet(nestedThreads.size());
+			});
+		}
+		Concurrency.invokeAll(tasks, nThreads, "tasks", GeneratorException.class, GeneratorException::new);
+		assertTrue(threads.size() <= nThreads);
+		assertEquals(2 * nThreads * nThreads, nNestedRuns.get());
+		assertEquals(nThreads, Concurrency.getThreadCount(nThreads, 2 * nThreads));
+	}
+}
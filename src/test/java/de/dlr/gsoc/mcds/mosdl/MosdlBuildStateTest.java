@@ -0,0 +1,75 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MosdlBuildStateTest {
+
+	@Test
+	void testUpToDate(@TempDir File inputDirectory, @TempDir File targetDirectory, @TempDir File stateDirectory) throws Exception {
+		File stateFile = new File(stateDirectory, "state/default.properties");
+		assertNull(MosdlBuildState.load(stateFile));
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 1);
+		List<File> serviceSpecs = List.of(inputDirectory);
+		List<Object> configuration = List.of(true, "BULK");
+		Files.writeString(new File(targetDirectory, "a.xml").toPath(), "a");
+		Files.writeString(new File(targetDirectory, "b.xml").toPath(), "b");
+		MosdlBuildState state = new MosdlBuildState("1.0", configuration, serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory);
+		state.addOutputs(List.of("b.xml", "a.xml"));
+		state.store(stateFile);
+
+		MosdlBuildState previousState = MosdlBuildState.load(stateFile);
+		assertEquals(List.of("a.xml", "b.xml"), List.copyOf(previousState.getOutputs()));
+		assertTrue(previousState.isUpToDate(new MosdlBuildState("1.0", configuration, serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory), targetDirectory));
+		assertFalse(previousState.isUpToDate(new MosdlBuildState("1.1", configuration, serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory), targetDirectory));
+		assertFalse(previousState.isUpToDate(new MosdlBuildState("1.0", List.of(false, "BULK"), serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory), targetDirectory));
+
+		Files.writeString(inputFiles[0].toPath(), "\n", StandardOpenOption.APPEND);
+		MosdlBuildState currentState = new MosdlBuildState("1.0", configuration, serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory);
+		assertFalse(previousState.isUpToDate(currentState, targetDirectory));
+		currentState.addOutputs(List.of("a.xml"));
+		assertEquals(List.of("b.xml"), previousState.getStaleOutputs(currentState));
+
+		// same size and modification time, but different content
+		currentState.store(stateFile);
+		long lastModified = inputFiles[0].lastModified();
+		String content = Files.readString(inputFiles[0].toPath());
+		Files.writeString(inputFiles[0].toPath(), content.substring(0, content.length() - 1) + " ");
+		inputFiles[0].setLastModified(lastModified);
+		assertFalse(MosdlBuildState.load(stateFile).isUpToDate(new MosdlBuildState("1.0", configuration, serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory), targetDirectory));
+
+		new File(targetDirectory, "a.xml").delete();
+		currentState.store(stateFile);
+		assertFalse(MosdlBuildState.load(stateFile).isUpToDate(new MosdlBuildState("1.0", configuration, serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory), targetDirectory));
+	}
+
+	@Test
+	void testOtherOutputs(@TempDir File inputDirectory, @TempDir File targetDirectory, @TempDir File otherTargetDirectory, @TempDir File stateDirectory) throws Exception {
+		TestUtils.writeSyntheticMosdlSpec(inputDirectory, 1);
+		List<File> serviceSpecs = List.of(inputDirectory);
+		MosdlBuildState state = new MosdlBuildState("1.0", List.of(), serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory);
+		state.addOutputs(List.of("a.xml"));
+		state.store(new File(stateDirectory, "a" + MosdlBuildState.STATE_FILE_ENDING));
+		MosdlBuildState sameTargetState = new MosdlBuildState("1.0", List.of(), serviceSpecs, InputDigests.of(serviceSpecs), targetDirectory);
+		sameTargetState.addOutputs(List.of("b.xml"));
+		sameTargetState.store(new File(stateDirectory, "b" + MosdlBuildState.STATE_FILE_ENDING));
+		MosdlBuildState otherTargetState = new MosdlBuildState("1.0", List.of(), serviceSpecs, InputDigests.of(serviceSpecs), otherTargetDirectory);
+		otherTargetState.addOutputs(List.of("c.xml"));
+		otherTargetState.store(new File(stateDirectory, "c" + MosdlBuildState.STATE_FILE_ENDING));
+
+		File stateFile = new File(stateDirectory, "a" + MosdlBuildState.STATE_FILE_ENDING);
+		assertEquals(Set.of("b.xml"), MosdlBuildState.loadOtherOutputs(stateFile, targetDirectory));
+		assertEquals(Set.of(), MosdlBuildState.loadOtherOutputs(new File(stateDirectory, "missing/a.properties"), targetDirectory));
+	}
+}
@@ -0,0 +1,134 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl;
+
+import de.dlr.gsoc.mcds.mosdl.generators.MosdlGenerator;
+import de.dlr.gsoc.mcds.mosdl.loaders.LoaderException;
+import de.dlr.gsoc.mcds.mosdl.loaders.SpecSource;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SpecificationCacheTest {
+
+	private final MosdlRunner runner = new MosdlRunner(false, true, false, false, false, MosdlGenerator.DocType.BULK);
+
+	@Test
+	void testReuseAndInvalidation(@TempDir File inputDirectory) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 2);
+		SpecificationCache cache = new SpecificationCache(1024 * 1024);
+		AtomicInteger nLoads = new AtomicInteger();
+		SpecificationCache.SpecificationLoader loader = () -> {
+			nLoads.incrementAndGet();
+			return runner.load(inputDirectory);
+		};
+
+		Specification spec = cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "a", loader);
+		File sameDirectory = new File(inputDirectory, ".");
+		assertSame(spec, cache.get(sameDirectory, runner.findSpecFiles(sameDirectory), InputDigests.of(List.of(sameDirectory)), "a", loader));
+		assertEquals(1, nLoads.get());
+		assertNotSame(spec, cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "b", loader));
+		assertEquals(2, nLoads.get());
+
+		// files the loader does not read do not invalidate the entry
+		Files.writeString(new File(inputDirectory, "Generated.xml").toPath(), "<xml/>");
+		assertSame(spec, cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "a", loader));
+		assertEquals(2, nLoads.get());
+
+		Files.writeString(inputFiles[0].toPath(), "\n", StandardOpenOption.APPEND);
+		assertNotSame(spec, cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "a", loader));
+		assertEquals(3, nLoads.get());
+
+		assertThrows(LoaderException.class, () -> cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "c", () -> {
+			throw new LoaderException("failed");
+		}));
+		assertEquals(3, cache.size());
+		cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "c", loader);
+		assertEquals(4, nLoads.get());
+	}
+
+	@Test
+	void testInputDigests(@TempDir File inputDirectory) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 2);
+		SpecificationCache cache = new SpecificationCache(1024 * 1024);
+		InputDigests inputDigests = InputDigests.of(List.of(inputDirectory));
+		Specification spec = cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), inputDigests, "", () -> runner.load(inputDirectory));
+
+		// files not among the digests are hashed on demand and yield the same key
+		assertSame(spec, cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of()), "", () -> runner.load(inputDirectory)));
+
+		// the given digests are used without reading the files again
+		Files.writeString(inputFiles[0].toPath(), "\n", StandardOpenOption.APPEND);
+		assertSame(spec, cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), inputDigests, "", () -> runner.load(inputDirectory)));
+		assertNotSame(spec, cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "", () -> runner.load(inputDirectory)));
+	}
+
+	@Test
+	void testEviction(@TempDir File inputDirectory) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 3);
+		long[] memory = new long[inputFiles.length];
+		for (int i = 0; i < inputFiles.length; i++) {
+			memory[i] = SpecificationCache.MEMORY_PER_FILE_BYTE * inputFiles[i].length();
+		}
+		SpecificationCache cache = new SpecificationCache(memory[0] + Math.max(memory[1], memory[2]));
+		InputDigests inputDigests = InputDigests.of(List.of(inputDirectory));
+		Specification first = cache.get(inputFiles[0], List.of(SpecSource.of(inputFiles[0])), inputDigests, "", () -> runner.load(inputFiles[0]));
+		cache.get(inputFiles[1], List.of(SpecSource.of(inputFiles[1])), inputDigests, "", () -> runner.load(inputFiles[1]));
+		// access makes the first entry the most recently used one
+		assertSame(first, cache.get(inputFiles[0], List.of(SpecSource.of(inputFiles[0])), inputDigests, "", () -> runner.load(inputFiles[0])));
+		cache.get(inputFiles[2], List.of(SpecSource.of(inputFiles[2])), inputDigests, "", () -> runner.load(inputFiles[2]));
+		assertEquals(2, cache.size());
+		assertSame(first, cache.get(inputFiles[0], List.of(SpecSource.of(inputFiles[0])), inputDigests, "", () -> runner.load(inputFiles[0])));
+		assertEquals(memory[0] + memory[2], cache.getUsedMemory());
+
+		// too large to be cached at all
+		cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "", () -> runner.load(inputDirectory));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	void testConcurrentLoadsAreShared(@TempDir File inputDirectory) throws Exception {
+		TestUtils.writeSyntheticMosdlSpec(inputDirectory, 1);
+		SpecificationCache cache = new SpecificationCache(1024 * 1024);
+		AtomicInteger nLoads = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch waiting = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<Specification> first = executor.submit(() -> cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "", () -> {
+				nLoads.incrementAndGet();
+				loading.countDown();
+				try {
+					waiting.await(1, TimeUnit.MINUTES);
+				} catch (InterruptedException ex) {
+					throw new LoaderException(ex);
+				}
+				return runner.load(inputDirectory);
+			}));
+			loading.await(1, TimeUnit.MINUTES);
+			Future<Specification> second = executor.submit(() -> cache.get(inputDirectory, runner.findSpecFiles(inputDirectory), InputDigests.of(List.of(inputDirectory)), "", () -> {
+				nLoads.incrementAndGet();
+				return runner.load(inputDirectory);
+			}));
+			waiting.countDown();
+			assertSame(first.get(1, TimeUnit.MINUTES), second.get(1, TimeUnit.MINUTES));
+			assertEquals(1, nLoads.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -3,18 +3,29 @@
 package de.dlr.gsoc.mcds.mosdl;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
 import org.ccsds.schema.serviceschema.AnyTypeReference;
 import org.ccsds.schema.serviceschema.AreaType;
 import org.ccsds.schema.serviceschema.CapabilitySetType;
 import org.ccsds.schema.serviceschema.NamedElementReferenceWithCommentType;
+import org.ccsds.schema.serviceschema.ObjectFactory;
 import org.ccsds.schema.serviceschema.OperationType;
 import org.ccsds.schema.serviceschema.RequestOperationType;
 import org.ccsds.schema.serviceschema.ServiceType;
 import org.ccsds.schema.serviceschema.SpecificationType;
 import org.ccsds.schema.serviceschema.TypeReference;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -48,7 +59,96 @@ public class TestUtils {
 				.build();
 		assertFalse(xmlDiff.hasDifferences(), () -> xmlDiff.toString());
 	}
+
+	/**
+	 * Asserts that two directories contain files of the same names with identical content.
+	 *
+	 * @param expected the directory containing the expected files
+	 * @param actual the directory containing the actual files
+	 * @throws IOException thrown if a file cannot be read
+	 */
+	public static void assertDirectoriesIdentical(File expected, File actual) throws IOException {
+		String[] expectedNames = expected.list();
+		String[] actualNames = actual.list();
+		Arrays.sort(expectedNames);
+		Arrays.sort(actualNames);
+		assertEquals(Arrays.asList(expectedNames), Arrays.asList(actualNames));
+		for (String name : expectedNames) {
+			assertArrayEquals(Files.readAllBytes(new File(expected, name).toPath()), Files.readAllBytes(new File(actual, name).toPath()), name);
+		}
+	}
+
+	public static void assertSpecEquals(SpecificationType expected, SpecificationType actual) throws JAXBException {
+		assertEquals(toXml(expected), toXml(actual));
+	}
+
+	public static String toXml(SpecificationType spec) throws JAXBException {
+		Marshaller marshaller = JAXBContext.newInstance(SpecificationType.class).createMarshaller();
+		marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+		StringWriter writer = new StringWriter();
+		marshaller.marshal(new ObjectFactory().createSpecification(spec), writer);
+		return writer.toString();
+	}
 	
+	/**
+	 * Writes a synthetic MOSDL specification consisting of the given number of files.
+	 * <p>
+	 * Every ten consecutive files contribute to the same area. Each file contains one block of
+	 * synthetic elements (see {@link #writeSyntheticMosdlFile(File, int)}). All numbers are assigned
+	 * automatically.
+	 *
+	 * @param directory the directory to write the files to
+	 * @param fileCount the number of files to write
+	 * @return the written files in loading order
+	 * @throws IOException thrown if a file cannot be written
+	 */
+	public static File[] writeSyntheticMosdlSpec(File directory, int fileCount) throws IOException {
+		File[] files = new File[fileCount];
+		for (int i = 0; i < fileCount; i++) {
+			String content = String.format("area SynthArea%d%n%n", i / 10) + createSyntheticMosdlElements(i);
+			files[i] = new File(directory, String.format("Synth%05d.mosdl", i));
+			Files.write(files[i].toPath(), content.getBytes(StandardCharsets.UTF_8));
+		}
+		return files;
+	}
+
+	/**
+	 * Writes a single synthetic MOSDL file consisting of the given number of element blocks.
+	 * <p>
+	 * Each block defines a service with an operation, a service-level and an area-level data type
+	 * and an area-level error. All numbers are assigned automatically.
+	 *
+	 * @param file the file to write
+	 * @param blockCount the number of element blocks
+	 * @throws IOException thrown if the file cannot be written
+	 */
+	public static void writeSyntheticMosdlFile(File file, int blockCount) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(String.format("area SynthArea%n%n"));
+			for (int i = 0; i < blockCount; i++) {
+				writer.write(createSyntheticMosdlElements(i));
+			}
+		}
+	}
+
+	private static String createSyntheticMosdlElements(int index) {
+		return String.format("/// Service number %1$d.%n"
+				+ "service Service%1$d {%n"
+				+ "\trequest op%1$d (in: List<String>) -> (out: LocalType%1$d) throws ERROR_%1$d%n"
+				+ "%n"
+				+ "\tcomposite LocalType%1$d {%n"
+				+ "\t\tvalue: AreaType%1$d%n"
+				+ "\t}%n"
+				+ "}%n"
+				+ "%n"
+				+ "enum AreaType%1$d {%n"
+				+ "\tFIRST%n"
+				+ "\tSECOND%n"
+				+ "}%n"
+				+ "%n"
+				+ "error ERROR_%1$d%n%n", index);
+	}
+
 	public static void assertEqualsMinimalTestSpec(SpecificationType loadedSpec) {
 		assertNull(loadedSpec.getComment());
 		assertEquals(1, loadedSpec.getArea().size());
@@ -0,0 +1,92 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.benchmarks;
+
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import de.dlr.gsoc.mcds.mosdl.generators.Generator;
+import de.dlr.gsoc.mcds.mosdl.generators.MosdlGenerator;
+import de.dlr.gsoc.mcds.mosdl.generators.XsdGenerator;
+import de.dlr.gsoc.mcds.mosdl.loaders.MosdlSpecLoader;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building the specification model and running the MOSDL and XSD generators on a large
+ * synthetic specification.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -DskipTests}. Generating from a shared model should take
+ * less time than generating from the JAXB specification, which builds the model for each
+ * generator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+	private static final int BLOCK_COUNT = 500;
+
+	private File directory;
+	private SpecificationType spec;
+	private Specification model;
+	private List<Generator> generators;
+
+	@Setup(Level.Trial)
+	public void loadSpec() throws Exception {
+		directory = Files.createTempDirectory("mosdl-benchmark").toFile();
+		File inputFile = new File(directory, "Synth.mosdl");
+		TestUtils.writeSyntheticMosdlFile(inputFile, BLOCK_COUNT);
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setInput(inputFile);
+		spec = specLoader.load();
+		model = Specification.of(spec);
+		generators = List.of(new MosdlGenerator(MosdlGenerator.DocType.BULK), new XsdGenerator(true, true));
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteOutput() throws IOException {
+		try (Stream<File> files = Files.walk(directory.toPath()).sorted(Comparator.reverseOrder()).map(p -> p.toFile())) {
+			files.forEach(File::delete);
+		}
+	}
+
+	@Benchmark
+	public Specification buildModel() {
+		return Specification.of(spec);
+	}
+
+	@Benchmark
+	public void generateFromSpec() throws Exception {
+		for (Generator generator : generators) {
+			generator.generate(spec, directory);
+		}
+	}
+
+	@Benchmark
+	public void generateFromModel() throws Exception {
+		for (Generator generator : generators) {
+			generator.generate(model, directory);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.benchmarks;
+
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import de.dlr.gsoc.mcds.mosdl.loaders.MosdlSpecLoader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the time for loading a MOSDL specification scales with the number of files.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -DskipTests}. The time per file should stay roughly
+ * constant across all file counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MosdlSpecLoaderBenchmark {
+
+	@Param({"10", "100", "1000"})
+	private int fileCount;
+
+	private File directory;
+	private File[] files;
+
+	@Setup(Level.Trial)
+	public void writeSpec() throws IOException {
+		directory = Files.createTempDirectory("mosdl-benchmark").toFile();
+		files = TestUtils.writeSyntheticMosdlSpec(directory, fileCount);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteSpec() {
+		for (File file : files) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	@Benchmark
+	public SpecificationType load() throws Exception {
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setInput(files);
+		return specLoader.load();
+	}
+}
@@ -0,0 +1,91 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.benchmarks;
+
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import de.dlr.gsoc.mcds.mosdl.loaders.MosdlSpecLoader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the peak heap usage of loading a large MOSDL file with and without streaming mode.
+ * <p>
+ * The peak heap usage is reported as secondary result {@code peakHeapMiB}. JMH accumulates this
+ * counter over all measurement iterations, so only a single one is run. A small young generation
+ * is used, so that the peak mostly consists of objects that are actually alive while loading. Run with {@code mvn -P benchmark verify -DskipTests
+ * -Dbenchmark.args=MosdlSpecLoaderMemoryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseSerialGC", "-Xmn16m"})
+public class MosdlSpecLoaderMemoryBenchmark {
+
+	@Param({"false", "true"})
+	private boolean isStreaming;
+
+	@Param({"20000"})
+	private int blockCount;
+
+	private File file;
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounters {
+
+		public double peakHeapMiB;
+	}
+
+	@Setup(Level.Trial)
+	public void writeSpec() throws IOException {
+		file = Files.createTempFile("mosdl-benchmark", ".mosdl").toFile();
+		TestUtils.writeSyntheticMosdlFile(file, blockCount);
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteSpec() {
+		file.delete();
+	}
+
+	@Setup(Level.Iteration)
+	public void resetPeakUsage() {
+		System.gc();
+		ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+	}
+
+	@Benchmark
+	public SpecificationType load(HeapCounters counters) throws Exception {
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setStreaming(isStreaming);
+		specLoader.setInput(file);
+		SpecificationType spec = specLoader.load();
+		long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.mapToLong(pool -> pool.getPeakUsage().getUsed())
+				.sum();
+		counters.peakHeapMiB = peakHeap / (1024.0 * 1024.0);
+		return spec;
+	}
+}
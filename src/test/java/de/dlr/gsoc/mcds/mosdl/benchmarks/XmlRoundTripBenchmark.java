@@ -0,0 +1,58 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.benchmarks;
+
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import de.dlr.gsoc.mcds.mosdl.generators.XmlGenerator;
+import de.dlr.gsoc.mcds.mosdl.loaders.XmlSpecLoader;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading and writing a validated MO XML specification repeatedly in the same JVM, as in
+ * batch conversions.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -DskipTests}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlRoundTripBenchmark {
+
+	private File inputFile;
+	private File outputFile;
+
+	@Setup(Level.Trial)
+	public void init() throws Exception {
+		inputFile = TestUtils.getResource("/xml/MosdlDocExample.xml");
+		outputFile = Files.createTempFile("mosdl-benchmark", ".xml").toFile();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteOutput() {
+		outputFile.delete();
+	}
+
+	@Benchmark
+	public void roundTrip() throws Exception {
+		XmlSpecLoader specLoader = new XmlSpecLoader(false);
+		specLoader.setInput(inputFile);
+		new XmlGenerator(false).generate(specLoader.load(), outputFile);
+	}
+}
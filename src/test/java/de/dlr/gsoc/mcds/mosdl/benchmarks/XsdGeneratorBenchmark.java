@@ -0,0 +1,80 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.benchmarks;
+
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import de.dlr.gsoc.mcds.mosdl.generators.XsdGenerator;
+import de.dlr.gsoc.mcds.mosdl.loaders.MosdlSpecLoader;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing the XML Schema files of a large synthetic specification sequentially and
+ * concurrently, from the XML Schema object model and in streaming mode.
+ * <p>
+ * Run with {@code mvn -P benchmark verify -DskipTests}, adding
+ * {@code -Dbenchmark.args="XsdGeneratorBenchmark -prof gc"} to also compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XsdGeneratorBenchmark {
+
+	private static final int BLOCK_COUNT = 500;
+
+	@Param({"1", "4"})
+	private int parallelism;
+
+	@Param({"false", "true"})
+	private boolean isStreaming;
+
+	private File directory;
+	private Specification spec;
+
+	@Setup(Level.Trial)
+	public void loadSpec() throws Exception {
+		directory = Files.createTempDirectory("mosdl-benchmark").toFile();
+		File inputFile = new File(directory, "Synth.mosdl");
+		TestUtils.writeSyntheticMosdlFile(inputFile, BLOCK_COUNT);
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setInput(inputFile);
+		spec = Specification.of(specLoader.load());
+		inputFile.delete();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteOutput() throws IOException {
+		try (Stream<File> files = Files.walk(directory.toPath()).sorted(Comparator.reverseOrder()).map(p -> p.toFile())) {
+			files.forEach(File::delete);
+		}
+	}
+
+	@Benchmark
+	public void generate() throws Exception {
+		XsdGenerator generator = new XsdGenerator(true, true);
+		generator.setParallelism(parallelism);
+		generator.setStreaming(isStreaming);
+		generator.generate(spec, directory);
+	}
+}
@@ -0,0 +1,59 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OutputSinkTest {
+
+	private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+
+	@Test
+	void testDirectorySink(@TempDir File directory) throws Exception {
+		DirectorySink sink = new DirectorySink(directory);
+		assertTrue(sink.write("sub/file.txt", ByteBuffer.wrap(CONTENT)));
+		assertArrayEquals(CONTENT, Files.readAllBytes(new File(directory, "sub/file.txt").toPath()));
+		assertFalse(sink.write("sub/file.txt", os -> os.write(CONTENT)));
+		assertTrue(sink.write("sub/file.txt", os -> os.write(1)));
+		assertThrows(IOException.class, () -> sink.write("../file.txt", ByteBuffer.wrap(CONTENT)));
+		// no temporary files are left behind
+		assertEquals(1, new File(directory, "sub").list().length);
+	}
+
+	@Test
+	void testMemorySink() throws Exception {
+		MemorySink sink = new MemorySink();
+		ByteBuffer content = ByteBuffer.wrap(CONTENT);
+		assertTrue(sink.write("b.txt", content));
+		assertEquals(CONTENT.length, content.remaining());
+		assertFalse(sink.write("b.txt", os -> os.write(CONTENT)));
+		assertTrue(sink.write("a.txt", ByteBuffer.allocate(0)));
+		assertEquals("[a.txt, b.txt]", sink.getFiles().keySet().toString());
+		assertArrayEquals(CONTENT, sink.getContent("b.txt"));
+	}
+
+	@Test
+	void testChannelSink() throws Exception {
+		Map<String, ByteArrayOutputStream> streams = new HashMap<>();
+		ChannelSink sink = new ChannelSink(name -> Channels.newChannel(streams.computeIfAbsent(name, n -> new ByteArrayOutputStream())));
+		assertTrue(sink.write("a.txt", ByteBuffer.wrap(CONTENT)));
+		assertTrue(sink.write("b.txt", os -> os.write(CONTENT)));
+		assertArrayEquals(CONTENT, streams.get("a.txt").toByteArray());
+		assertArrayEquals(CONTENT, streams.get("b.txt").toByteArray());
+	}
+}
@@ -0,0 +1,42 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.generators;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+public class TextEmitterTest {
+
+	private static final String NL = System.lineSeparator();
+
+	@Test
+	void testIndentedLines() {
+		TextEmitter out = new TextEmitter(16);
+		out.startLine().append("area ").append("test").append(" [").append(4711).append(']').endLine();
+		out.indent();
+		out.indent();
+		out.startLine().append((CharSequence) null).append((Long) null).append(-42L).endLine();
+		out.outdent();
+		out.outdent();
+		out.outdent();
+		out.startLine().append(Long.MIN_VALUE).append(0L).endLine();
+		assertEquals("area test [4711]" + NL + "\t\t-42" + NL + Long.MIN_VALUE + "0" + NL, out.toString());
+
+		TextEmitter copy = new TextEmitter();
+		copy.append(out, 0, 4).append("Ω", 0, 1);
+		assertEquals("areaΩ", copy.toString());
+		out.reset();
+		assertEquals(0, out.length());
+	}
+
+	@Test
+	void testEncode() throws Exception {
+		TextEmitter out = new TextEmitter();
+		out.append("Grüße");
+		ByteBuffer bytes = out.encode();
+		assertEquals(7, bytes.remaining());
+		assertEquals("Grüße", StandardCharsets.UTF_8.decode(bytes).toString());
+	}
+}
@@ -0,0 +1,75 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.integrationtests;
+
+import de.dlr.gsoc.mcds.mosdl.CliMain;
+import de.dlr.gsoc.mcds.mosdl.MosdlRunner;
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import static de.dlr.gsoc.mcds.mosdl.TestUtils.assertDirectoriesIdentical;
+import de.dlr.gsoc.mcds.mosdl.generators.MosdlGenerator;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs many compilations concurrently in the same JVM, like parallel Maven reactor builds do, and
+ * checks that each of them produces exactly the files of a single compilation.
+ */
+public class ConcurrentExecutionIT {
+
+	private static final int N_THREADS = 8;
+	private static final int N_EXECUTIONS = 3 * N_THREADS;
+
+	@Test
+	void concurrentExecutionsTest(@TempDir File inputDirectory, @TempDir File targetDirectory) throws Exception {
+		TestUtils.writeSyntheticMosdlSpec(inputDirectory, 5);
+		File expectedDirectory = new File(targetDirectory, "expected");
+		expectedDirectory.mkdirs();
+		createRunner(1).execute(expectedDirectory, inputDirectory);
+
+		ExecutorService executor = Executors.newFixedThreadPool(N_THREADS);
+		try {
+			CyclicBarrier start = new CyclicBarrier(N_THREADS);
+			List<Future<File>> results = new ArrayList<>();
+			for (int i = 0; i < N_EXECUTIONS; i++) {
+				File outputDirectory = new File(targetDirectory, "execution" + i);
+				outputDirectory.mkdirs();
+				boolean isCli = i % 2 == 0;
+				int parallelism = 1 + i % 3;
+				results.add(executor.submit(() -> {
+					// executions start in groups of N_THREADS at the same time to maximize contention
+					start.await(1, TimeUnit.MINUTES);
+					if (isCli) {
+						String[] args = {inputDirectory.getAbsolutePath(), outputDirectory.getAbsolutePath(), "-x", "-m", "-s", "-b", "-p", String.valueOf(parallelism)};
+						new CliMain(status -> {
+							throw new IllegalStateException("Unexpected exit with status " + status + ".");
+						}).run(args);
+					} else {
+						createRunner(parallelism).execute(outputDirectory, inputDirectory);
+					}
+					return outputDirectory;
+				}));
+			}
+			for (Future<File> result : results) {
+				assertDirectoriesIdentical(expectedDirectory, result.get(5, TimeUnit.MINUTES));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(expectedDirectory.list().length > 3);
+	}
+
+	private static MosdlRunner createRunner(int parallelism) {
+		MosdlRunner runner = new MosdlRunner(false, true, true, true, true, MosdlGenerator.DocType.BULK);
+		runner.setParallelism(parallelism);
+		return runner;
+	}
+}
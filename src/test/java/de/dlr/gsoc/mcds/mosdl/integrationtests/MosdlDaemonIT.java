@@ -0,0 +1,104 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.integrationtests;
+
+import de.dlr.gsoc.mcds.mosdl.DaemonRejectedException;
+import de.dlr.gsoc.mcds.mosdl.MosdlDaemon;
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MosdlDaemonIT {
+
+	private static final int N_REQUESTS = 4;
+
+	@Test
+	void testRequests(@TempDir File daemonDirectory, @TempDir File workingDirectory) throws Exception {
+		File daemonFile = new File(daemonDirectory, "daemon.properties");
+		assertFalse(MosdlDaemon.forward(daemonFile, new String[0], workingDirectory, OutputStream.nullOutputStream(), OutputStream.nullOutputStream()).isPresent());
+		File inputDirectory = new File(workingDirectory, "in");
+		inputDirectory.mkdirs();
+		TestUtils.writeSyntheticMosdlSpec(inputDirectory, 2);
+
+		MosdlDaemon daemon = new MosdlDaemon(daemonFile, 2, Duration.ZERO);
+		ExecutorService executor = Executors.newFixedThreadPool(1 + N_REQUESTS);
+		try {
+			Future<?> daemonRun = executor.submit(() -> {
+				daemon.run();
+				return null;
+			});
+			while (!daemonFile.isFile()) {
+				Thread.sleep(10);
+			}
+
+			// relative paths are resolved against the working directory of the client
+			List<Future<OptionalInt>> results = new ArrayList<>();
+			List<ByteArrayOutputStream> logs = new ArrayList<>();
+			for (int i = 0; i < N_REQUESTS; i++) {
+				new File(workingDirectory, "out" + i).mkdirs();
+				String[] args = {"in", "out" + i, "-x", "-d"};
+				ByteArrayOutputStream log = new ByteArrayOutputStream();
+				logs.add(log);
+				results.add(executor.submit(() -> MosdlDaemon.forward(daemonFile, args, workingDirectory, OutputStream.nullOutputStream(), log)));
+			}
+			for (int i = 0; i < N_REQUESTS; i++) {
+				assertEquals(OptionalInt.of(0), results.get(i).get(1, TimeUnit.MINUTES));
+				assertEquals(1, new File(workingDirectory, "out" + i).listFiles().length);
+				assertTrue(logs.get(i).toString(StandardCharsets.UTF_8).contains("Compilation of 'in' successful."));
+			}
+
+			ByteArrayOutputStream usage = new ByteArrayOutputStream();
+			ByteArrayOutputStream error = new ByteArrayOutputStream();
+			assertEquals(OptionalInt.of(-1), MosdlDaemon.forward(daemonFile, new String[]{"--unknown"}, workingDirectory, usage, error));
+			assertTrue(usage.size() > 0 || error.size() > 0);
+
+			// a daemon file with a wrong token is refused instead of being treated like no daemon
+			Properties properties = new Properties();
+			try (InputStream in = Files.newInputStream(daemonFile.toPath())) {
+				properties.load(in);
+			}
+			properties.setProperty("token", "stale");
+			File staleDaemonFile = new File(daemonDirectory, "stale.properties");
+			try (OutputStream out = Files.newOutputStream(staleDaemonFile.toPath())) {
+				properties.store(out, null);
+			}
+			assertThrows(DaemonRejectedException.class, () -> MosdlDaemon.forward(staleDaemonFile, new String[0], workingDirectory, OutputStream.nullOutputStream(), OutputStream.nullOutputStream()));
+
+			assertTrue(MosdlDaemon.requestStop(daemonFile));
+			daemonRun.get(1, TimeUnit.MINUTES);
+			assertFalse(daemonFile.exists());
+			assertFalse(MosdlDaemon.requestStop(daemonFile));
+		} finally {
+			daemon.stop();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testIdleTimeout(@TempDir File daemonDirectory) throws Exception {
+		File daemonFile = new File(daemonDirectory, "daemon.properties");
+		long start = System.nanoTime();
+		new MosdlDaemon(daemonFile, 1, Duration.ofSeconds(1)).run();
+		assertTrue(System.nanoTime() - start >= Duration.ofSeconds(1).toNanos());
+		assertFalse(daemonFile.exists());
+	}
+}
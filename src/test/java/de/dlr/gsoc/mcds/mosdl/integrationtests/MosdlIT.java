@@ -5,12 +5,29 @@ package de.dlr.gsoc.mcds.mosdl.integrationtests;
 import de.dlr.gsoc.mcds.mosdl.MosdlRunner;
 import de.dlr.gsoc.mcds.mosdl.Runner;
 import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import static de.dlr.gsoc.mcds.mosdl.TestUtils.assertDirectoriesIdentical;
 import static de.dlr.gsoc.mcds.mosdl.TestUtils.assertXmlEquals;
+import de.dlr.gsoc.mcds.mosdl.generators.Generator;
+import de.dlr.gsoc.mcds.mosdl.generators.MemorySink;
 import de.dlr.gsoc.mcds.mosdl.generators.MosdlGenerator;
+import de.dlr.gsoc.mcds.mosdl.generators.XmlGenerator;
+import de.dlr.gsoc.mcds.mosdl.generators.XsdGenerator;
+import de.dlr.gsoc.mcds.mosdl.generators.ZipSink;
+import de.dlr.gsoc.mcds.mosdl.loaders.MosdlSpecLoader;
+import de.dlr.gsoc.mcds.mosdl.model.Specification;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -128,6 +145,35 @@ public class MosdlIT {
 		mosdlToXsdTest(input, "/xsdWithBodyTypes/", targetDirectory, true, MosdlGenerator.DocType.BULK);
 	}
 
+	@ParameterizedTest()
+	@MethodSource("allTestCaseProvider")
+	void mosdlToXsdStreamingWithDocTest(String input, @TempDir File targetDirectory) throws Exception {
+		logger.info("MOSDL to XSD Streaming Test (with doc): '{}'", input);
+		mosdlToXsdStreamingTest(input, "/xsdWithDoc/", targetDirectory, true, false);
+	}
+
+	@ParameterizedTest()
+	@MethodSource("allTestCaseProvider")
+	void mosdlToXsdStreamingWithoutDocTest(String input, @TempDir File targetDirectory) throws Exception {
+		logger.info("MOSDL to XSD Streaming Test (without doc): '{}'", input);
+		mosdlToXsdStreamingTest(input, "/xsdWithoutDoc/", targetDirectory, false, false);
+	}
+
+	@ParameterizedTest()
+	@MethodSource("allTestCaseProvider")
+	void mosdlToXsdStreamingWithBodyTypes(String input, @TempDir File targetDirectory) throws Exception {
+		logger.info("MOSDL to XSD Streaming Test (with body types): '{}'", input);
+		mosdlToXsdStreamingTest(input, "/xsdWithBodyTypes/", targetDirectory, true, true);
+	}
+
+	private void mosdlToXsdStreamingTest(String input, String expectedBaseDir, File targetDirectory, boolean isIncludeDoc, boolean isCreateXsdBodyTypes) throws Exception {
+		File expectedDirectory = TestUtils.getResource(expectedBaseDir + input);
+		XsdGenerator generator = new XsdGenerator(isIncludeDoc, isCreateXsdBodyTypes);
+		generator.setStreaming(true);
+		generator.generate(loadMosdl(TestUtils.getResource("/mosdl/" + input + ".mosdl")), targetDirectory);
+		assertXmlFilesEqual(null == expectedDirectory ? new File[]{} : expectedDirectory.listFiles(), targetDirectory.listFiles());
+	}
+
 	private void mosdlToXsdTest(String input, String expectedBaseDir, File targetDirectory, boolean isCreateXsdBodyTypes, MosdlGenerator.DocType docType) throws Exception {
 		String inputFilePath = "/mosdl/" + input + ".mosdl";
 		String expectedDirectoryPath = expectedBaseDir + input;
@@ -151,4 +197,148 @@ public class MosdlIT {
 		}
 	}
 
+	@Test
+	void concurrentGeneratorsTest(@TempDir File sequentialDirectory, @TempDir File concurrentDirectory) throws Exception {
+		File inputFile1 = TestUtils.getResource("/mosdl/VerySimpleService.mosdl");
+		File inputFile2 = TestUtils.getResource("/mosdl/ComplexService.mosdl");
+
+		MosdlRunner sequentialRunner = new MosdlRunner(false, true, true, true, true, MosdlGenerator.DocType.BULK);
+		sequentialRunner.execute(sequentialDirectory, inputFile1, inputFile2);
+
+		MosdlRunner concurrentRunner = new MosdlRunner(false, true, true, true, true, MosdlGenerator.DocType.BULK);
+		concurrentRunner.setParallelism(3);
+		concurrentRunner.execute(concurrentDirectory, inputFile1, inputFile2);
+
+		assertDirectoriesIdentical(sequentialDirectory, concurrentDirectory);
+	}
+
+	@Test
+	void concurrentMosdlAreasTest(@TempDir File inputDirectory, @TempDir File sequentialDirectory, @TempDir File concurrentDirectory) throws Exception {
+		// 60 files with 10 files per area result in 6 areas
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 60);
+		Specification spec = Specification.of(loadMosdl(inputFiles));
+
+		new MosdlGenerator(MosdlGenerator.DocType.INLINE).generate(spec, sequentialDirectory);
+		MosdlGenerator concurrentGenerator = new MosdlGenerator(MosdlGenerator.DocType.INLINE);
+		concurrentGenerator.setParallelism(4);
+		concurrentGenerator.generate(spec, concurrentDirectory);
+
+		assertEquals(6, sequentialDirectory.list().length);
+		assertDirectoriesIdentical(sequentialDirectory, concurrentDirectory);
+	}
+
+	@Test
+	void concurrentXsdSchemasTest(@TempDir File inputDirectory, @TempDir File sequentialDirectory, @TempDir File concurrentDirectory) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 60);
+		Specification spec = Specification.of(loadMosdl(inputFiles));
+
+		new XsdGenerator(true, true).generate(spec, sequentialDirectory);
+		XsdGenerator concurrentGenerator = new XsdGenerator(true, true);
+		concurrentGenerator.setParallelism(4);
+		concurrentGenerator.generate(spec, concurrentDirectory);
+
+		assertTrue(sequentialDirectory.list().length > 1);
+		assertDirectoriesIdentical(sequentialDirectory, concurrentDirectory);
+	}
+
+	@Test
+	void streamingXsdTest(@TempDir File inputDirectory, @TempDir File expectedDirectory, @TempDir File streamingDirectory) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 30);
+		Specification spec = Specification.of(loadMosdl(inputFiles));
+
+		new XsdGenerator(true, true).generate(spec, expectedDirectory);
+		XsdGenerator streamingGenerator = new XsdGenerator(true, true);
+		streamingGenerator.setStreaming(true);
+		streamingGenerator.setParallelism(3);
+		streamingGenerator.generate(spec, streamingDirectory);
+
+		TestUtils.assertDirectoriesIdentical(expectedDirectory, streamingDirectory);
+	}
+
+	@Test
+	void unchangedFilesTest(@TempDir File inputDirectory, @TempDir File targetDirectory) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 20);
+		Specification spec = Specification.of(loadMosdl(inputFiles));
+		for (Generator generator : createAllGenerators()) {
+			generator.generate(spec, targetDirectory);
+		}
+		File[] files = targetDirectory.listFiles();
+		Arrays.sort(files);
+		long[] lastModified = new long[files.length];
+		for (int i = 0; i < files.length; i++) {
+			files[i].setLastModified(1000L * i);
+			lastModified[i] = files[i].lastModified();
+		}
+		Files.writeString(files[0].toPath(), "changed");
+
+		int nWrittenFiles = 0;
+		int nUnchangedFiles = 0;
+		for (Generator generator : createAllGenerators()) {
+			generator.generate(spec, targetDirectory);
+			nWrittenFiles += generator.getWrittenFileCount();
+			nUnchangedFiles += generator.getUnchangedFileCount();
+		}
+
+		assertEquals(1, nWrittenFiles);
+		assertEquals(files.length - 1, nUnchangedFiles);
+		File[] secondFiles = targetDirectory.listFiles();
+		Arrays.sort(secondFiles);
+		assertEquals(files.length, secondFiles.length);
+		assertTrue(lastModified[0] != secondFiles[0].lastModified());
+		for (int i = 1; i < files.length; i++) {
+			assertEquals(lastModified[i], secondFiles[i].lastModified(), secondFiles[i].getName());
+		}
+	}
+
+	@Test
+	void outputSinkTest(@TempDir File inputDirectory, @TempDir File targetDirectory) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(inputDirectory, 3);
+		Specification spec = Specification.of(loadMosdl(inputFiles));
+		MemorySink memorySink = new MemorySink();
+		ByteArrayOutputStream zipContent = new ByteArrayOutputStream();
+		try (ZipSink zipSink = new ZipSink(zipContent)) {
+			for (Generator generator : createAllGenerators()) {
+				generator.generate(spec, targetDirectory);
+				generator.generate(spec, memorySink);
+				generator.generate(spec, zipSink);
+			}
+		}
+
+		File[] files = targetDirectory.listFiles();
+		assertEquals(files.length, memorySink.getFiles().size());
+		for (File file : files) {
+			assertArrayEquals(Files.readAllBytes(file.toPath()), memorySink.getContent(file.getName()), file.getName());
+		}
+		int nEntries = 0;
+		try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zipContent.toByteArray()))) {
+			for (ZipEntry entry = zis.getNextEntry(); null != entry; entry = zis.getNextEntry()) {
+				assertArrayEquals(memorySink.getContent(entry.getName()), zis.readAllBytes(), entry.getName());
+				nEntries++;
+			}
+		}
+		assertEquals(files.length, nEntries);
+	}
+
+	private static List<Generator> createAllGenerators() {
+		XsdGenerator streamingXsdGenerator = new XsdGenerator(true, true);
+		streamingXsdGenerator.setStreaming(true);
+		return List.of(new MosdlGenerator(MosdlGenerator.DocType.BULK), streamingXsdGenerator, new XmlGenerator(false));
+	}
+
+	private static void assertXmlFilesEqual(File[] expectedFiles, File[] outputFiles) {
+		assertEquals(expectedFiles.length, outputFiles.length);
+		Arrays.sort(expectedFiles);
+		Arrays.sort(outputFiles);
+		for (int i = 0; i < expectedFiles.length; i++) {
+			assertEquals(expectedFiles[i].getName(), outputFiles[i].getName());
+			assertXmlEquals(expectedFiles[i], outputFiles[i]);
+		}
+	}
+
+	private static SpecificationType loadMosdl(File... inputFiles) throws Exception {
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setInput(inputFiles);
+		return specLoader.load();
+	}
+
 }
@@ -0,0 +1,98 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.integrationtests;
+
+import de.dlr.gsoc.mcds.mosdl.MosdlMojo;
+import de.dlr.gsoc.mcds.mosdl.TestUtils;
+import de.dlr.gsoc.mcds.mosdl.generators.MosdlGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MosdlMojoIT {
+
+	@Test
+	void testExecutionsSharingTargetDirectory(@TempDir File inputDirectory, @TempDir File buildDirectory) throws Exception {
+		File sharedInputFile = new File(inputDirectory, "Shared.mosdl");
+		TestUtils.writeSyntheticMosdlFile(sharedInputFile, 1);
+		File otherInputDirectory = new File(inputDirectory, "other");
+		otherInputDirectory.mkdirs();
+		TestUtils.writeSyntheticMosdlSpec(otherInputDirectory, 1);
+		File targetDirectory = new File(buildDirectory, "generated-sources/mosdl");
+		File sharedOutput = new File(targetDirectory, "SynthArea.mosdl");
+		File otherOutput = new File(targetDirectory, "SynthArea0.mosdl");
+
+		// both executions generate the same file into the shared target directory
+		createMojo("first", buildDirectory, sharedInputFile).execute();
+		createMojo("second", buildDirectory, sharedInputFile).execute();
+		assertTrue(sharedOutput.isFile());
+
+		// the file is no longer generated by the first execution, but still by the second one
+		createMojo("first", buildDirectory, otherInputDirectory).execute();
+		assertTrue(otherOutput.isFile());
+		assertTrue(sharedOutput.isFile());
+
+		// once no execution generates it, it is stale
+		createMojo("second", buildDirectory, otherInputDirectory).execute();
+		assertFalse(sharedOutput.exists());
+		assertTrue(otherOutput.isFile());
+	}
+
+	@Test
+	void testConcurrentLogOutputInSpecOrder(@TempDir File inputDirectory, @TempDir File buildDirectory) throws Exception {
+		// the first specification takes much longer, so that it would log last without ordering
+		File slowSpec = new File(inputDirectory, "slow");
+		slowSpec.mkdirs();
+		TestUtils.writeSyntheticMosdlSpec(slowSpec, 100);
+		Files.writeString(new File(slowSpec, "ZBrokenSlow.mosdl").toPath(), "area BrokenSlow service S { send op (a: String)");
+		File fastSpec = new File(inputDirectory, "BrokenFast.mosdl");
+		Files.writeString(fastSpec.toPath(), "area BrokenFast service S { send op (a: String)");
+		MosdlMojo mojo = createMojo("default", buildDirectory, slowSpec);
+		setField(mojo, "serviceSpecs", List.of(slowSpec, fastSpec));
+		setField(mojo, "skipValidation", true);
+		setField(mojo, "parallelism", 2);
+
+		PrintStream originalErr = System.err;
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+		try {
+			mojo.execute();
+		} finally {
+			System.setErr(originalErr);
+		}
+		String log = err.toString(StandardCharsets.UTF_8);
+		int slowIndex = log.indexOf("ZBrokenSlow.mosdl");
+		int fastIndex = log.indexOf("BrokenFast.mosdl");
+		assertTrue(slowIndex >= 0 && fastIndex >= 0, log);
+		assertTrue(slowIndex < fastIndex, log);
+	}
+
+	private static MosdlMojo createMojo(String executionId, File buildDirectory, File serviceSpec) throws Exception {
+		MosdlMojo mojo = new MosdlMojo();
+		setField(mojo, "serviceSpecs", List.of(serviceSpec));
+		setField(mojo, "mosdl", true);
+		setField(mojo, "docType", MosdlGenerator.DocType.BULK);
+		setField(mojo, "parallelism", 1);
+		setField(mojo, "pluginVersion", "test");
+		setField(mojo, "executionId", executionId);
+		setField(mojo, "project", new MavenProject());
+		setField(mojo, "projectBuildDir", buildDirectory.getPath());
+		return mojo;
+	}
+
+	private static void setField(MosdlMojo mojo, String name, Object value) throws ReflectiveOperationException {
+		// parameters are injected by Maven
+		Field field = MosdlMojo.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(mojo, value);
+	}
+}
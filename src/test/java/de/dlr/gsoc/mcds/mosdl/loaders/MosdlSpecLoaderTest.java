@@ -4,24 +4,89 @@ package de.dlr.gsoc.mcds.mosdl.loaders;
 
 import de.dlr.gsoc.mcds.mosdl.TestUtils;
 import static de.dlr.gsoc.mcds.mosdl.TestUtils.assertEqualsMinimalTestSpec;
+import static de.dlr.gsoc.mcds.mosdl.TestUtils.assertSpecEquals;
 import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.ccsds.schema.serviceschema.AreaType;
+import org.ccsds.schema.serviceschema.CompositeType;
 import org.ccsds.schema.serviceschema.SpecificationType;
+import org.ccsds.schema.serviceschema.TypeReference;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
 public class MosdlSpecLoaderTest {
 
 	private static File testFile;
 	private static File[] testFiles;
+	private static File inputDirectory;
+	private static File nonAsciiFile;
+	private static SpecSource[] inMemorySources;
+	private static FileSystem zipFileSystem;
+	private static SpecificationType referenceSpec;
+
+	@TempDir
+	static File sharedTempDir;
 
 	@BeforeAll
 	static void initAll() throws Exception {
 		testFile = TestUtils.getResource("/mosdl/MinimalTest.mosdl");
 		testFiles = new File[]{TestUtils.getResource("/mosdl/VerySimpleService.mosdl"),
 			TestUtils.getResource("/mosdl/ComplexService.mosdl")};
+
+		// the same files in a directory, in memory and in a zip file, including a non-ASCII file
+		inputDirectory = new File(sharedTempDir, "mosdl");
+		inputDirectory.mkdirs();
+		for (File file : TestUtils.getResource("/mosdl").listFiles()) {
+			Files.copy(file.toPath(), new File(inputDirectory, file.getName()).toPath());
+		}
+		nonAsciiFile = new File(inputDirectory, "NonAscii.mosdl");
+		Files.write(nonAsciiFile.toPath(), "/// Gr\u00fc\u00dfe\narea NonAscii".getBytes(StandardCharsets.UTF_8));
+		MosdlSpecLoader referenceLoader = new MosdlSpecLoader(false);
+		referenceLoader.setTwoStageParsing(false);
+		referenceLoader.setMemoryMappingThreshold(Long.MAX_VALUE);
+		referenceLoader.setInput(inputDirectory);
+		List<SpecSource> inputFiles = referenceLoader.findSpecFiles();
+		inMemorySources = new SpecSource[inputFiles.size()];
+		for (int i = 0; i < inputFiles.size(); i++) {
+			inMemorySources[i] = SpecSource.of(inputFiles.get(i).getName(), inputFiles.get(i).readContent());
+		}
+		URI zipUri = URI.create("jar:" + new File(sharedTempDir, "specs.zip").toURI());
+		zipFileSystem = FileSystems.newFileSystem(zipUri, Map.of("create", "true"));
+		Path zipDirectory = zipFileSystem.getPath("/specs/mosdl");
+		Files.createDirectories(zipDirectory);
+		for (File file : inputDirectory.listFiles()) {
+			Files.copy(file.toPath(), zipDirectory.resolve(file.getName()));
+		}
+		referenceSpec = referenceLoader.load();
+	}
+
+	@AfterAll
+	static void tearDownAll() throws Exception {
+		zipFileSystem.close();
 	}
 
 	@Test
@@ -63,4 +128,229 @@ public class MosdlSpecLoaderTest {
 		assertEqualsMinimalTestSpec(loadedSpec);
 	}
 
+	// do not change method signature without changing MethodSource annotation on test method
+	static Stream<Arguments> loaderConfigurationProvider() {
+		return Stream.of(
+				Arguments.of("two-stage parsing", (LoaderConfiguration) (loader, tempDir) -> {}),
+				Arguments.of("parallel", (LoaderConfiguration) (loader, tempDir) -> loader.setParallelism(4)),
+				Arguments.of("streaming", (LoaderConfiguration) (loader, tempDir) -> loader.setStreaming(true)),
+				Arguments.of("memory-mapped", (LoaderConfiguration) (loader, tempDir) -> loader.setMemoryMappingThreshold(0)),
+				Arguments.of("cached", (LoaderConfiguration) (loader, tempDir) -> loader.setCacheDirectory(tempDir)),
+				Arguments.of("cached, parallel", (LoaderConfiguration) (loader, tempDir) -> {
+					loader.setCacheDirectory(tempDir);
+					loader.setParallelism(4);
+				}),
+				Arguments.of("in-memory sources", (LoaderConfiguration) (loader, tempDir) -> loader.setSources(inMemorySources)),
+				Arguments.of("zip file system", (LoaderConfiguration) (loader, tempDir) -> loader.setSources(SpecSource.of(zipFileSystem.getPath("/specs")))));
+	}
+
+	/**
+	 * Each loader configuration has to produce the same specification as plain sequential LL
+	 * parsing without memory mapping, also when loading a second time.
+	 */
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("loaderConfigurationProvider")
+	void testLoadEquivalent(String name, LoaderConfiguration configuration, @TempDir File tempDir) throws Exception {
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setInput(inputDirectory);
+		configuration.configure(specLoader, tempDir);
+		assertSpecEquals(referenceSpec, specLoader.load());
+		// loading again restores all files in cached configurations
+		assertSpecEquals(referenceSpec, specLoader.load());
+	}
+
+	@Test
+	void testLoadTwoStageFallback(@TempDir File tempDir) throws Exception {
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(true);
+		specLoader.setInput(inputDirectory);
+		specLoader.load();
+		assertEquals(0, specLoader.getLlFallbackCount());
+
+		File brokenFile = new File(tempDir, "Broken.mosdl");
+		Files.write(brokenFile.toPath(), "area TestArea service TestSvc { send op (a: String)".getBytes(StandardCharsets.UTF_8));
+		specLoader.setInput(testFile, brokenFile);
+		specLoader.load();
+		assertEquals(1, specLoader.getLlFallbackCount());
+	}
+
+	@Test
+	void testCacheHitCount(@TempDir File specDirectory, @TempDir File cacheDir) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(specDirectory, 5);
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setCacheDirectory(cacheDir);
+		specLoader.setInput(specDirectory);
+		specLoader.load();
+		assertEquals(0, specLoader.getCacheHitCount());
+		specLoader.load();
+		assertEquals(inputFiles.length, specLoader.getCacheHitCount());
+
+		// a change that does not affect numbering only misses the changed file
+		Files.writeString(inputFiles[0].toPath(), "\n", StandardOpenOption.APPEND);
+		specLoader.load();
+		assertEquals(inputFiles.length - 1, specLoader.getCacheHitCount());
+	}
+
+	@Test
+	void testLoadCachedInvalidation(@TempDir File tempDir) throws Exception {
+		File cacheDir = new File(tempDir, "cache");
+		File fileA = new File(tempDir, "A.mosdl");
+		File fileB = new File(tempDir, "B.mosdl");
+		Files.write(fileA.toPath(), "area A\nservice S1 {}".getBytes(StandardCharsets.UTF_8));
+		Files.write(fileB.toPath(), "area B\nservice S2 {}".getBytes(StandardCharsets.UTF_8));
+		MosdlSpecLoader coldLoader = new MosdlSpecLoader(false);
+		coldLoader.setCacheDirectory(cacheDir);
+		coldLoader.setInput(fileA, fileB);
+		coldLoader.load();
+
+		// explicit numbers in A shift the automatically assigned numbers in B
+		Files.write(fileA.toPath(), "area A [300]\nservice S1 [7] {}".getBytes(StandardCharsets.UTF_8));
+		MosdlSpecLoader uncachedLoader = new MosdlSpecLoader(false);
+		uncachedLoader.setInput(fileA, fileB);
+		SpecificationType expectedSpec = uncachedLoader.load();
+
+		MosdlSpecLoader warmLoader = new MosdlSpecLoader(false);
+		warmLoader.setCacheDirectory(cacheDir);
+		warmLoader.setInput(fileA, fileB);
+		assertSpecEquals(expectedSpec, warmLoader.load());
+		assertEquals(0, warmLoader.getCacheHitCount());
+	}
+
+	@Test
+	void testCachePruning(@TempDir File specDirectory, @TempDir File cacheDir) throws Exception {
+		File[] inputFiles = TestUtils.writeSyntheticMosdlSpec(specDirectory, 10);
+		MosdlSpecLoader coldLoader = new MosdlSpecLoader(false);
+		coldLoader.setCacheDirectory(cacheDir);
+		coldLoader.setInput(specDirectory);
+		coldLoader.load();
+		Set<String> oldEntries = listEntries(cacheDir);
+		assertEquals(inputFiles.length, oldEntries.size());
+		long cacheSize = 0;
+		for (File entry : cacheDir.listFiles()) {
+			cacheSize += entry.length();
+		}
+
+		// changed files leave unused entries behind, which are deleted once the limit is exceeded
+		for (File inputFile : inputFiles) {
+			Files.writeString(inputFile.toPath(), "\n", StandardOpenOption.APPEND);
+		}
+		MosdlSpecLoader changedLoader = new MosdlSpecLoader(false);
+		changedLoader.setCacheDirectory(cacheDir);
+		changedLoader.setCacheSizeLimit(cacheSize);
+		changedLoader.setInput(specDirectory);
+		changedLoader.load();
+		Set<String> newEntries = listEntries(cacheDir);
+		assertEquals(inputFiles.length, newEntries.size());
+		assertTrue(Collections.disjoint(oldEntries, newEntries));
+
+		// entries used by the current load are kept even if they exceed the limit
+		MosdlSpecLoader warmLoader = new MosdlSpecLoader(false);
+		warmLoader.setCacheDirectory(cacheDir);
+		warmLoader.setCacheSizeLimit(0);
+		warmLoader.setInput(specDirectory);
+		warmLoader.load();
+		assertEquals(inputFiles.length, warmLoader.getCacheHitCount());
+		assertEquals(newEntries, listEntries(cacheDir));
+	}
+
+	private static Set<String> listEntries(File cacheDir) {
+		return Arrays.stream(cacheDir.list()).filter(name -> name.endsWith(".entry")).collect(Collectors.toSet());
+	}
+
+	@Test
+	void testLoadRenumberedArea(@TempDir File tempDir) throws Exception {
+		String[] contents = {"area A [300]", "area B", "area A [257]", "area C"};
+		File[] files = new File[contents.length];
+		for (int i = 0; i < contents.length; i++) {
+			files[i] = new File(tempDir, "File" + i + ".mosdl");
+			Files.write(files[i].toPath(), contents[i].getBytes(StandardCharsets.UTF_8));
+		}
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setInput(files);
+		SpecificationType spec = specLoader.load();
+		// number 300 is not in use anymore after renumbering area A, so C gets the number after B
+		assertEquals(257, spec.getArea().get(0).getNumber());
+		assertEquals(301, spec.getArea().get(1).getNumber());
+		assertEquals(302, spec.getArea().get(2).getNumber());
+	}
+
+	@Test
+	void testLoadServiceTypeUsedBeforeDeclaration(@TempDir File tempDir) throws Exception {
+		File file = new File(tempDir, "Shadowing.mosdl");
+		Files.writeString(file.toPath(), "area A\n"
+				+ "composite Item {\n\ta: String\n}\n"
+				+ "service S {\n"
+				+ "\tcomposite Holder {\n\t\titem: Item\n\t}\n"
+				+ "\tcomposite Item {\n\t\tb: String\n\t}\n"
+				+ "}\n"
+				+ "composite AreaHolder {\n\titem: Item\n}\n");
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setInput(file);
+		AreaType area = specLoader.load().getArea().get(0);
+		// the service-level type shadows the area-level type of the same name, even if declared later
+		CompositeType holder = (CompositeType) area.getService().get(0).getDataTypes().getCompositeOrEnumeration().get(0);
+		TypeReference itemType = holder.getField().get(0).getType();
+		assertEquals("A", itemType.getArea());
+		assertEquals("S", itemType.getService());
+		assertEquals("Item", itemType.getName());
+		// outside of the service the area-level type is referenced
+		CompositeType areaHolder = (CompositeType) area.getDataTypes().getFundamentalOrAttributeOrComposite().get(1);
+		assertEquals("AreaHolder", areaHolder.getName());
+		assertNull(areaHolder.getField().get(0).getType().getService());
+	}
+
+	@Test
+	void testLoadNestedDirectories(@TempDir File tempDir) throws Exception {
+		File subDir = new File(tempDir, "b/nested");
+		File excludedDir = new File(tempDir, "excluded");
+		subDir.mkdirs();
+		excludedDir.mkdirs();
+		Files.write(new File(subDir, "Second.mosdl").toPath(), "area Second".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(tempDir, "a.mosdl").toPath(), "area First".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(tempDir, "c.mosdl").toPath(), "area Third".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(excludedDir, "Excluded.mosdl").toPath(), "area Excluded".getBytes(StandardCharsets.UTF_8));
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setExcludes("excluded/**");
+		specLoader.setInput(tempDir);
+		assertTrue(specLoader.isLoadable());
+		SpecificationType spec = specLoader.load();
+		// files are loaded in order of their relative paths, so numbering does not depend on the file system
+		assertEquals(3, spec.getArea().size());
+		assertEquals("First", spec.getArea().get(0).getName());
+		assertEquals(256, spec.getArea().get(0).getNumber());
+		assertEquals("Second", spec.getArea().get(1).getName());
+		assertEquals(257, spec.getArea().get(1).getNumber());
+		assertEquals("Third", spec.getArea().get(2).getName());
+		assertEquals(258, spec.getArea().get(2).getNumber());
+	}
+
+
+
+	@Test
+	void testMemoryMappingNonAscii() throws Exception {
+		assertNotNull(MappedCharStream.map(testFile.toPath()));
+		assertNull(MappedCharStream.map(nonAsciiFile.toPath()));
+
+		// non-ASCII files fall back to reading
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setMemoryMappingThreshold(0);
+		specLoader.setInput(nonAsciiFile);
+		assertEquals("Gr\u00fc\u00dfe", specLoader.load().getArea().get(0).getComment());
+	}
+
+	@Test
+	void testSetSources() {
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setSources(inMemorySources);
+		assertTrue(specLoader.isLoadable());
+		assertEquals(0, specLoader.getInput().length);
+	}
+
+	/**
+	 * Configures a loader whose input has been set to {@link #inputDirectory}.
+	 */
+	@FunctionalInterface
+	interface LoaderConfiguration {
+
+		void configure(MosdlSpecLoader specLoader, File tempDir) throws Exception;
+	}
 }
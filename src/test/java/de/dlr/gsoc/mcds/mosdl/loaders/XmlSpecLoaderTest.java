@@ -4,10 +4,14 @@ package de.dlr.gsoc.mcds.mosdl.loaders;
 
 import de.dlr.gsoc.mcds.mosdl.TestUtils;
 import static de.dlr.gsoc.mcds.mosdl.TestUtils.assertEqualsMinimalTestSpec;
+import static de.dlr.gsoc.mcds.mosdl.TestUtils.assertSpecEquals;
 import java.io.File;
+import java.nio.file.Files;
 import org.ccsds.schema.serviceschema.SpecificationType;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -37,9 +41,8 @@ public class XmlSpecLoaderTest {
 	void testSetMultipleInput() {
 		XmlSpecLoader specLoader = new XmlSpecLoader(false);
 		specLoader.setInput(testFiles);
-		File[] expectedInput = new File[]{testFiles[0]};
 		File[] actualInput = specLoader.getInput();
-		assertArrayEquals(expectedInput, actualInput);
+		assertArrayEquals(testFiles, actualInput);
 	}
 
 	@Test
@@ -64,4 +67,65 @@ public class XmlSpecLoaderTest {
 		assertEqualsMinimalTestSpec(loadedSpec);
 	}
 
+	@Test
+	void testLoadSources() throws Exception {
+		XmlSpecLoader memoryLoader = new XmlSpecLoader(false);
+		memoryLoader.setSources(SpecSource.of("MinimalTest.xml", Files.readAllBytes(testFile.toPath())));
+		assertTrue(memoryLoader.isLoadable());
+		assertEqualsMinimalTestSpec(memoryLoader.load());
+
+		XmlSpecLoader resourceLoader = new XmlSpecLoader(false);
+		resourceLoader.setSources(SpecSource.ofResource("xml/MinimalTest.xml"));
+		assertTrue(resourceLoader.isLoadable());
+		assertEqualsMinimalTestSpec(resourceLoader.load());
+	}
+
+	@Test
+	void testLoadSelection() throws Exception {
+		File exampleFile = TestUtils.getResource("/xml/MosdlDocExample.xml");
+		XmlSpecLoader fullLoader = new XmlSpecLoader(false);
+		fullLoader.setInput(exampleFile);
+		SpecificationType expectedSpec = fullLoader.load();
+		expectedSpec.getArea().get(0).getService().removeIf(service -> !"TestService".equals(service.getName()));
+
+		XmlSpecLoader serviceLoader = new XmlSpecLoader(false);
+		serviceLoader.setSelection("hcc.TestService");
+		serviceLoader.setInput(exampleFile);
+		assertSpecEquals(expectedSpec, serviceLoader.load());
+
+		XmlSpecLoader otherAreaLoader = new XmlSpecLoader(false);
+		otherAreaLoader.setSelection("OtherArea");
+		otherAreaLoader.setInput(exampleFile);
+		assertEquals(0, otherAreaLoader.load().getArea().size());
+	}
+
+	@Test
+	void testLoadMultiple() throws Exception {
+		File[] input = {TestUtils.getResource("/xml/AreaTestOnlyVersion.xml"), TestUtils.getResource("/xml/AttributeTest.xml"), TestUtils.getResource("/xml/MosdlDocExample.xml")};
+		XmlSpecLoader sequentialLoader = new XmlSpecLoader(false);
+		sequentialLoader.setInput(input);
+		assertTrue(sequentialLoader.isLoadable());
+		SpecificationType expectedSpec = sequentialLoader.load();
+		assertEquals(3, expectedSpec.getArea().size());
+		assertEquals("onlyVersion", expectedSpec.getArea().get(0).getName());
+		assertEquals("MAL", expectedSpec.getArea().get(1).getName());
+		assertEquals("hcc", expectedSpec.getArea().get(2).getName());
+
+		XmlSpecLoader parallelLoader = new XmlSpecLoader(false);
+		parallelLoader.setParallelism(3);
+		parallelLoader.setInput(input);
+		assertSpecEquals(expectedSpec, parallelLoader.load());
+	}
+
+	@Test
+	void testLoadMultipleConflict() throws Exception {
+		XmlSpecLoader areaNumberLoader = new XmlSpecLoader(false);
+		areaNumberLoader.setInput(testFiles);
+		assertThrows(LoaderException.class, areaNumberLoader::load);
+
+		XmlSpecLoader serviceNumberLoader = new XmlSpecLoader(false);
+		serviceNumberLoader.setInput(TestUtils.getResource("/xml/OpSendTest.xml"), TestUtils.getResource("/xml/OpSubmitTest.xml"));
+		assertThrows(LoaderException.class, serviceNumberLoader::load);
+	}
+
 }
@@ -0,0 +1,121 @@
+// Copyright 2026 DLR - GSOC
+// SPDX-License-Identifier: Apache-2.0
+package de.dlr.gsoc.mcds.mosdl.model;
+
+import de.dlr.gsoc.mcds.mosdl.InteractionStage;
+import de.dlr.gsoc.mcds.mosdl.InteractionType;
+import de.dlr.gsoc.mcds.mosdl.loaders.MosdlSpecLoader;
+import de.dlr.gsoc.mcds.mosdl.loaders.SpecSource;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.ccsds.schema.serviceschema.SpecificationType;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class SpecificationTest {
+
+	private static final String SPEC = "area test [4711]\n"
+			+ "service ServiceName {\n"
+			+ "\tpubsub monitor <- (color: Color, colors: List<Color>)\n"
+			+ "\tsubmit paint (color: Color) throws test::Unknown, error Busy [2]: String\n"
+			+ "\t/// Composite representing a color.\n"
+			+ "\tcomposite Color [1] {\n"
+			+ "\t\tnext: Color?\n"
+			+ "\t\tname: String\n"
+			+ "\t}\n"
+			+ "}\n"
+			+ "error Unknown [1]\n";
+
+	private static Specification spec;
+
+	@BeforeAll
+	static void initAll() throws Exception {
+		MosdlSpecLoader specLoader = new MosdlSpecLoader(false);
+		specLoader.setSources(SpecSource.of("Model.mosdl", SPEC));
+		spec = Specification.of(specLoader.load());
+	}
+
+	@Test
+	void testStructure() {
+		assertEquals(1, spec.getAreas().size());
+		Area area = spec.getAreas().get(0);
+		assertEquals("test", area.getName());
+		assertEquals(4711, area.getNumber());
+		assertEquals(1, area.getErrors().size());
+		assertTrue(area.getDataTypes().isEmpty());
+		Service service = area.getServices().get(0);
+		assertEquals(1, service.getDataTypes().size());
+		DataType color = service.getDataTypes().get(0);
+		assertEquals(DataType.Kind.COMPOSITE, color.getKind());
+		assertEquals("Composite representing a color.", color.getComment());
+		assertFalse(color.isAbstract());
+		assertSame(color, spec.getDataType("test", "ServiceName", "Color"));
+		assertNull(spec.getDataType("test", null, "Color"));
+	}
+
+	@Test
+	void testResolvedTypeReferences() {
+		Service service = spec.getAreas().get(0).getServices().get(0);
+		DataType color = service.getDataTypes().get(0);
+		Field next = color.getFields().get(0);
+		assertTrue(next.isCanBeNull());
+		assertSame(color, next.getType().getTarget());
+		// MAL types are not part of the specification
+		assertNull(color.getFields().get(1).getType().getTarget());
+
+		List<Operation> operations = getOperations(service);
+		List<Field> monitorFields = operations.get(0).getMessages().get(0).getFields();
+		List<Field> paintFields = operations.get(1).getMessages().get(0).getFields();
+		// identical references share one instance, names are interned
+		assertSame(monitorFields.get(0).getType(), paintFields.get(0).getType());
+		assertSame(color, monitorFields.get(1).getType().getTarget());
+		assertTrue(monitorFields.get(1).getType().isList());
+		assertSame("colors", monitorFields.get(1).getName());
+	}
+
+	@Test
+	void testMessagesAndErrors() {
+		List<Operation> operations = getOperations(spec.getAreas().get(0).getServices().get(0));
+		Operation monitor = operations.get(0);
+		assertEquals(InteractionType.PUBSUB, monitor.getInteractionType());
+		assertEquals(2, monitor.getMessages().size());
+		assertEquals(InteractionStage.PUBSUB_PUBLISH, monitor.getMessages().get(0).getStage());
+		assertEquals(InteractionStage.PUBSUB_NOTIFY, monitor.getMessages().get(1).getStage());
+		assertSame(monitor.getMessages().get(0).getFields(), monitor.getMessages().get(1).getFields());
+
+		Operation paint = operations.get(1);
+		assertEquals(InteractionType.SUBMIT, paint.getInteractionType());
+		assertEquals(2, paint.getErrors().size());
+		OperationError unknown = paint.getErrors().get(0);
+		assertTrue(unknown.isReference());
+		assertEquals("Unknown", unknown.getReference().getName());
+		OperationError busy = paint.getErrors().get(1);
+		assertFalse(busy.isReference());
+		assertEquals(2, busy.getDefinition().getNumber());
+		assertEquals("String", busy.getExtraInformation().getType().getName());
+	}
+
+	@Test
+	void testImmutable() throws Exception {
+		Area area = spec.getAreas().get(0);
+		assertThrows(UnsupportedOperationException.class, () -> spec.getAreas().clear());
+		assertThrows(UnsupportedOperationException.class, () -> area.getServices().remove(0));
+		assertThrows(UnsupportedOperationException.class, () -> area.getErrors().add(null));
+		// the JAXB specification is only handed out as copy
+		SpecificationType source = spec.getSource();
+		assertNotSame(source, spec.getSource());
+		source.getArea().clear();
+		assertEquals(1, spec.getSource().getArea().size());
+	}
+
+	private static List<Operation> getOperations(Service service) {
+		return service.getCapabilitySets().stream().flatMap(cs -> cs.getOperations().stream()).collect(Collectors.toList());
+	}
+}